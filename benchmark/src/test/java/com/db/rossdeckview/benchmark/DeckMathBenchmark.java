@@ -0,0 +1,93 @@
+package com.db.rossdeckview.benchmark;
+
+import com.db.rossdeckview.DeckMath;
+import com.db.rossdeckview.FlingChief;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Microbenchmarks of the math run on every frame of a gesture: proximities of the front card to
+ * the parent sides, the background factor they make, and the side a released card goes to.
+ * Inputs are fields, for the JIT not to fold them into constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckMathBenchmark {
+
+    /** Parent of a 1080x1920 screen, card dragged off its rest position */
+    private int mParentRight = 1080;
+
+    private int mParentBottom = 1920;
+
+    private int mInitLeft = 90;
+
+    private int mInitTop = 260;
+
+    private int mLeft = 310;
+
+    private int mTop = 180;
+
+    private int mWidth = 900;
+
+    private int mHeight = 1400;
+
+    private final float[] mProximities = new float[4];
+
+
+    @Setup
+    public void setUp() {
+        proximities();
+    }
+
+
+    @Benchmark
+    public float[] proximities() {
+
+        // Card centers against parent sides, as FlingChief does
+        final int initX = mInitLeft + mWidth / 2;
+        final int initY = mInitTop + mHeight / 2;
+        final int x = mLeft + mWidth / 2;
+        final int y = mTop + mHeight / 2;
+        mProximities[0] = DeckMath.proximity(initX, x, 0);
+        mProximities[1] = DeckMath.proximity(initY, y, 0);
+        mProximities[2] = DeckMath.proximity(initX, x, mParentRight);
+        mProximities[3] = DeckMath.proximity(initY, y, mParentBottom);
+        return mProximities;
+    }
+
+
+    @Benchmark
+    public float intersection() {
+        return DeckMath.intersection(mLeft, mTop, mLeft + mWidth, mTop + mHeight,
+                0, 0, mParentRight, mParentBottom);
+    }
+
+
+    @Benchmark
+    public FlingChief.Direction closestSide() {
+        return DeckMath.closestSide(mProximities);
+    }
+
+
+    @Benchmark
+    public float backgroundFactor() {
+        return DeckMath.backgroundFactor(mProximities);
+    }
+
+}
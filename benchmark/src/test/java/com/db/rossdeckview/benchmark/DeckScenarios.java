@@ -0,0 +1,195 @@
+package com.db.rossdeckview.benchmark;
+
+import com.db.rossdeckview.DeckConfig;
+import com.db.rossdeckview.DeckMetricsRecorder;
+import com.db.rossdeckview.LatencyHistogram;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Macro benchmarks of a deck run by Robolectric. Each scenario prints its report, then checks
+ * the work done stays within what the deck is meant to do, so regressions in the swipe path are
+ * caught before release.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class DeckScenarios {
+
+    private static final int DISMISSES = 1000;
+
+    private static final int DRAG_MOVES = 10000;
+
+    private static final int NOTIFICATIONS = 1000;
+
+    private static final int ROTATIONS = 100;
+
+    /**
+     * Cost of one dismiss before the deck was laid out incrementally, each layout pass rebuilding
+     * the stack: every visible card was bound, measured and laid out again, in a single layout
+     * pass. Counted by this scenario with the default configuration, through the adapter and the
+     * cards themselves, as that deck had no layout counters.
+     */
+    private static final int REBUILD_BINDS = 4;
+
+    private static final int REBUILD_LAYOUT_PASSES = 1;
+
+    private static final int REBUILD_MEASURES = 4;
+
+    private static final int REBUILD_CHILD_LAYOUTS = 4;
+
+
+    /**
+     * Fling away a thousand cards. Each dismiss should bind the card revealed at the back of the
+     * stack, and lay the stack out once.
+     */
+    @Test
+    public void dismissCards() {
+
+        final ScenarioDeck deck = new ScenarioDeck(DISMISSES + DeckConfig.DEFAULT.getMaxVisible());
+        final ScenarioReport report = new ScenarioReport("dismiss " + DISMISSES + " cards", deck);
+        for (int i = 0; i < DISMISSES; i++)
+            deck.fling();
+        report.finish(DISMISSES);
+
+        assertEquals(DISMISSES, deck.dismissed);
+        assertTrue("getView calls " + report.binds, report.binds <= DISMISSES);
+        assertTrue("layout passes " + report.layoutPasses, report.layoutPasses <= DISMISSES + 1);
+    }
+
+
+    /**
+     * Fling away a single card from a warm deck, the cost of one dismiss, printed along with its
+     * cost when the stack was rebuilt. Cards staying on the stack keep their views and sizes, so
+     * only the card revealed is bound and measured, and every card is placed once.
+     */
+    @Test
+    public void dismissOneCard() {
+
+        final int maxVisible = DeckConfig.DEFAULT.getMaxVisible();
+        final ScenarioDeck deck = new ScenarioDeck(maxVisible * 2);
+        // Warm, with views to recycle
+        deck.fling();
+        final ScenarioReport report = new ScenarioReport("dismiss one card", deck);
+        deck.fling();
+        report.finish(1);
+        System.out.println(String.format(Locale.US,
+                "%-28s %7d ops  %6.2f getView/op  %6.2f layouts/op  %6.2f measures/op  %6.2f child layouts/op",
+                "dismiss one card, rebuilt", 1, (float) REBUILD_BINDS, (float) REBUILD_LAYOUT_PASSES,
+                (float) REBUILD_MEASURES, (float) REBUILD_CHILD_LAYOUTS));
+
+        assertEquals(2, deck.dismissed);
+        assertEquals("getView calls", 1, report.binds);
+        assertEquals("layout passes", 1, report.layoutPasses);
+        assertTrue("measures " + report.measures, report.measures <= 1);
+        assertTrue("child layouts " + report.childLayouts, report.childLayouts <= maxVisible);
+        // Baseline was counted on a stack of that size
+        assertEquals(REBUILD_BINDS, maxVisible);
+        assertTrue(report.binds < REBUILD_BINDS && report.measures < REBUILD_MEASURES);
+        assertTrue(report.layoutPasses <= REBUILD_LAYOUT_PASSES);
+        assertTrue(report.childLayouts <= REBUILD_CHILD_LAYOUTS);
+    }
+
+
+    /**
+     * Drag the front card around for ten thousand moves, then let it go back. Dragging should
+     * neither bind nor lay out any card.
+     */
+    @Test
+    public void dragCard() {
+
+        final ScenarioDeck deck = new ScenarioDeck(DeckConfig.DEFAULT.getMaxVisible() * 2);
+        final ScenarioReport report = new ScenarioReport("drag " + DRAG_MOVES + " moves", deck);
+        final float amplitude = deck.deck.getWidth() / 4.f;
+        deck.down();
+        for (int i = 0; i < DRAG_MOVES; i++) {
+            // Back and forth, never far enough to leave
+            final float phase = (float) (i * Math.PI / 50);
+            deck.move(amplitude * (float) Math.sin(phase), amplitude / 2 * (float) Math.cos(phase));
+            deck.frame();
+        }
+        deck.release(0, 0);
+        deck.settle();
+        report.finish(DRAG_MOVES);
+
+        assertEquals(1, deck.returned);
+        assertEquals(0, deck.dismissed);
+        assertEquals("getView calls", 0, report.binds);
+        assertEquals("layout passes", 0, report.layoutPasses);
+    }
+
+
+    /**
+     * Notify the data set changed a thousand times, one change per frame, then a thousand times
+     * in a single frame. Cards keeping their ids shouldn't be bound again, and changes notified
+     * within a frame should share one layout pass.
+     */
+    @Test
+    public void notifyDataSetChangedStorm() {
+
+        final ScenarioDeck deck = new ScenarioDeck(DeckConfig.DEFAULT.getMaxVisible() * 2);
+        ScenarioReport report = new ScenarioReport("notifyDataSetChanged/frame", deck);
+        for (int i = 0; i < NOTIFICATIONS; i++) {
+            deck.adapter.notifyDataSetChanged();
+            deck.frame();
+        }
+        report.finish(NOTIFICATIONS);
+
+        assertEquals("getView calls", 0, report.binds);
+        assertTrue("layout passes " + report.layoutPasses, report.layoutPasses <= NOTIFICATIONS);
+
+        report = new ScenarioReport("notifyDataSetChanged burst", deck);
+        for (int i = 0; i < NOTIFICATIONS; i++)
+            deck.adapter.notifyDataSetChanged();
+        deck.frame();
+        report.finish(NOTIFICATIONS);
+
+        assertEquals("getView calls", 0, report.binds);
+        assertEquals("layout passes", 1, report.layoutPasses);
+    }
+
+
+    /**
+     * Rotate a hundred times, a card being dismissed between rotations. The restored deck should
+     * show the same front card right away, binding the visible cards only, in a single layout
+     * pass. Time to first interactive card is reported by the deck metrics.
+     */
+    @Test
+    public void restoreAfterRotation() {
+
+        final int maxVisible = DeckConfig.DEFAULT.getMaxVisible();
+        ScenarioDeck deck = new ScenarioDeck(ROTATIONS + maxVisible * 2);
+        final DeckMetricsRecorder metrics = new DeckMetricsRecorder();
+        int binds = 0;
+        int layoutPasses = 0;
+        for (int i = 0; i < ROTATIONS; i++) {
+            deck.fling();
+            final long front = deck.adapter.getItemId(0);
+            deck = deck.recreate(metrics);
+
+            assertEquals(front, deck.deck.getAdapter().getItemId(deck.deck.getTopPosition()));
+            binds += deck.deck.getStats().getBinds();
+            layoutPasses += deck.deck.getStats().getLayoutPasses();
+        }
+
+        final LatencyHistogram restores = metrics.getRestores();
+        System.out.println(String.format(Locale.US,
+                "%-28s %7d ops  %6.2f getView/op  %6.2f layouts/op  %9.3f ms p50  %9.3f ms p99",
+                "restore after rotation", ROTATIONS, binds / (float) ROTATIONS,
+                layoutPasses / (float) ROTATIONS, restores.getValueAtPercentile(50) / 1e6,
+                restores.getValueAtPercentile(99) / 1e6));
+
+        assertEquals("restores", ROTATIONS, restores.getTotalCount());
+        assertTrue("getView calls " + binds, binds <= ROTATIONS * maxVisible);
+        assertEquals("layout passes", ROTATIONS, layoutPasses);
+    }
+
+}
@@ -0,0 +1,290 @@
+package com.db.rossdeckview.benchmark;
+
+import android.app.Activity;
+import android.os.Parcelable;
+import android.os.SystemClock;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.db.rossdeckview.BaseDeckAdapter;
+import com.db.rossdeckview.DeckMetrics;
+import com.db.rossdeckview.FlingChief;
+import com.db.rossdeckview.FlingChiefListener;
+import com.db.rossdeckview.RossDeckView;
+
+import org.robolectric.Robolectric;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+
+
+/**
+ * Deck attached to an activity, fed by an adapter of stable ids which removes cards once
+ * dismissed, as apps usually do. The main looper is paused, so each {@link #frame()} runs one
+ * frame worth of messages, and touches are dispatched to the deck as the framework would.
+ */
+final class ScenarioDeck {
+
+    static final long FRAME_MILLIS = 16;
+
+    /** Same id for every deck, for state to be restored from one to the next */
+    private static final int DECK_ID = 1;
+
+    final Activity activity;
+
+    final RossDeckView deck;
+
+    final CardAdapter adapter;
+
+    /** Number of cards dismissed, as reported by the deck */
+    int dismissed;
+
+    /** Number of cards which came back to rest, as reported by the deck */
+    int returned;
+
+    private final ActivityController<Activity> mController;
+
+    private long mDownTime;
+
+
+    /**
+     * @param cards Number of cards in the adapter
+     */
+    ScenarioDeck(int cards) {
+        this(CardAdapter.of(cards), null, null);
+    }
+
+
+    /**
+     * @param adapter Adapter feeding the deck
+     * @param state State saved by a previous deck, null for a fresh one
+     * @param metrics Metrics listener, set before the deck is first laid out
+     */
+    private ScenarioDeck(CardAdapter adapter, @Nullable SparseArray<Parcelable> state,
+            @Nullable DeckMetrics metrics) {
+
+        this.adapter = adapter;
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        activity = mController.get();
+        deck = new RossDeckView(activity);
+        deck.setId(DECK_ID);
+        deck.setMetrics(metrics);
+        // Measuring posts a frame callback every frame, Robolectric would run them back to back
+        if (metrics != null)
+            ShadowChoreographer.setPostFrameCallbackDelay((int) FRAME_MILLIS);
+        deck.setAdapter(adapter);
+        deck.setActionsListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(FlingChief.Direction direction, View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onDismissed(View view) {
+                dismissed++;
+                ScenarioDeck.this.adapter.removeFirst();
+                return true;
+            }
+
+            @Override
+            public boolean onReturn(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onReturned(View view) {
+                returned++;
+                return true;
+            }
+
+            @Override
+            public boolean onTapped() {
+                return false;
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return false;
+            }
+        });
+
+        // Restored before the first layout, as activities do
+        if (state != null)
+            deck.restoreHierarchyState(state);
+
+        // Attached before pausing, for the first layout to get the activity size
+        activity.setContentView(deck);
+        ShadowLooper.pauseMainLooper();
+        frame();
+    }
+
+
+    /**
+     * Recreate the deck, as a rotation recreates its activity: state is saved, then restored by a
+     * new deck fed by the same adapter, as apps keeping their data across configuration changes
+     * do. This deck shouldn't be used afterwards.
+     *
+     * @param metrics Metrics listener of the new deck
+     * @return New deck, laid out
+     */
+    ScenarioDeck recreate(@Nullable DeckMetrics metrics) {
+
+        final SparseArray<Parcelable> state = new SparseArray<>();
+        deck.saveHierarchyState(state);
+        mController.pause().stop().destroy();
+        ShadowLooper.unPauseMainLooper();
+        return new ScenarioDeck(adapter, state, metrics);
+    }
+
+
+    /**
+     * Run the messages of one frame.
+     */
+    void frame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS);
+    }
+
+
+    /**
+     * Run frames until nothing moves anymore.
+     */
+    void settle() {
+
+        for (int i = 0; i < 1000 && ShadowLooper.getShadowMainLooper().getScheduler().size() > 0; i++)
+            frame();
+        frame();
+    }
+
+
+    void down() {
+
+        mDownTime = SystemClock.uptimeMillis();
+        touch(MotionEvent.ACTION_DOWN, 0, 0);
+    }
+
+
+    /**
+     * @param dx Pointer distance from down, horizontally
+     * @param dy Pointer distance from down, vertically
+     */
+    void move(float dx, float dy) {
+        touch(MotionEvent.ACTION_MOVE, dx, dy);
+    }
+
+
+    void up(float dx, float dy) {
+        touch(MotionEvent.ACTION_UP, dx, dy);
+    }
+
+
+    /**
+     * Hold the pointer still for a few frames before lifting it, for the card not to be flung.
+     */
+    void release(float dx, float dy) {
+
+        for (int i = 0; i < 8; i++) {
+            move(dx, dy);
+            frame();
+        }
+        up(dx, dy);
+    }
+
+
+    /**
+     * Fling the front card left, letting it leave.
+     */
+    void fling() {
+
+        down();
+        for (int i = 1; i <= 5; i++) {
+            frame();
+            move(-i * deck.getWidth() / 8.f, 0);
+        }
+        up(-deck.getWidth() * 3 / 4.f, 0);
+        settle();
+    }
+
+
+    /**
+     * Dispatch a touch at the given distance from the deck center.
+     */
+    private void touch(int action, float dx, float dy) {
+
+        final MotionEvent event = MotionEvent.obtain(mDownTime, SystemClock.uptimeMillis(), action,
+                deck.getWidth() / 2.f + dx, deck.getHeight() / 2.f + dy, 0);
+        deck.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+
+    /**
+     * Cards showing their id, removed from the front once dismissed.
+     */
+    static final class CardAdapter extends BaseDeckAdapter {
+
+        private final ArrayList<Long> mIds = new ArrayList<>();
+
+        private long mNextId;
+
+        static CardAdapter of(int count) {
+
+            final CardAdapter adapter = new CardAdapter();
+            adapter.add(count);
+            return adapter;
+        }
+
+        void add(int count) {
+
+            for (int i = 0; i < count; i++)
+                mIds.add(mNextId++);
+            notifyItemRangeInserted(mIds.size() - count, count);
+        }
+
+        void removeFirst() {
+
+            mIds.remove(0);
+            notifyItemRemoved(0);
+        }
+
+        @Override
+        public int getCount() {
+            return mIds.size();
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return mIds.get(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mIds.get(position);
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+
+            TextView card = (TextView) convertView;
+            if (card == null) {
+                // Robolectric doesn't measure text, cards fill the deck instead
+                card = new TextView(parent.getContext());
+                card.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                        ViewGroup.LayoutParams.MATCH_PARENT));
+            }
+            card.setText("Card " + mIds.get(position));
+            return card;
+        }
+    }
+
+}
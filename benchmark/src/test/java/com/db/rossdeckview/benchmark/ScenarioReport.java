@@ -0,0 +1,85 @@
+package com.db.rossdeckview.benchmark;
+
+import com.db.rossdeckview.DeckStats;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+
+/**
+ * Work done by the deck over a scenario: bytes allocated by the main thread, cards bound by the
+ * adapter, layout passes, and cards measured and laid out. Allocations include those of
+ * Robolectric itself, so compare them across runs of the same scenario rather than with a device.
+ */
+final class ScenarioReport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String mName;
+
+    private final DeckStats mStats;
+
+    private final long mStartBytes;
+
+    private final long mStartNanos;
+
+    long allocatedBytes;
+
+    long millis;
+
+    int binds;
+
+    int layoutPasses;
+
+    int measures;
+
+    int childLayouts;
+
+
+    /**
+     * Start measuring, from a deck at rest.
+     *
+     * @param name Scenario name
+     * @param deck Deck run by the scenario
+     */
+    ScenarioReport(String name, ScenarioDeck deck) {
+
+        mName = name;
+        mStats = deck.deck.getStats();
+        mStats.reset();
+        mStartNanos = System.nanoTime();
+        mStartBytes = allocatedBytes();
+    }
+
+
+    /**
+     * Stop measuring, and print results.
+     *
+     * @param operations Number of operations run, such as cards dismissed or events dispatched
+     * @return This report
+     */
+    ScenarioReport finish(int operations) {
+
+        allocatedBytes = allocatedBytes() - mStartBytes;
+        millis = (System.nanoTime() - mStartNanos) / 1000000;
+        binds = mStats.getBinds();
+        layoutPasses = mStats.getLayoutPasses();
+        measures = mStats.getMeasures();
+        childLayouts = mStats.getChildLayouts();
+
+        System.out.println(String.format(Locale.US,
+                "%-28s %7d ops  %9.1f KB/op  %6.2f getView/op  %6.2f layouts/op  %6.2f measures/op"
+                        + "  %6.2f child layouts/op  %6d ms",
+                mName, operations, allocatedBytes / 1024.f / operations, binds / (float) operations,
+                layoutPasses / (float) operations, measures / (float) operations,
+                childLayouts / (float) operations, millis));
+        return this;
+    }
+
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
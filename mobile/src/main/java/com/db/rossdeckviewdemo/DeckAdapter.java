@@ -6,32 +6,90 @@ import android.util.Pair;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
 import android.widget.RelativeLayout;
 import android.widget.TextView;
 
+import com.db.rossdeckview.BaseDeckAdapter;
+import com.db.rossdeckview.PrefetchAdapter;
+
+import java.util.ArrayList;
 import java.util.List;
 
-public class DeckAdapter extends ArrayAdapter<Pair<String, Integer>> {
+public class DeckAdapter extends BaseDeckAdapter implements PrefetchAdapter {
+
 
+    private final Context mContext;
 
     private final int mResource;
 
+    private final List<Pair<String, Integer>> mItems;
+
+    private final List<Long> mIds;
+
+    private long mNextId = 0;
+
     DeckAdapter(@NonNull Context context, @NonNull List<Pair<String, Integer>> objects) {
-        super(context, R.layout.item, objects);
+        mContext = context;
         mResource = R.layout.item;
+        mItems = new ArrayList<>(objects);
+        mIds = new ArrayList<>(objects.size());
+        for (int i = 0; i < objects.size(); i++)
+            mIds.add(mNextId++);
+    }
+
+
+    void add(Pair<String, Integer> item) {
+
+        mItems.add(item);
+        mIds.add(mNextId++);
+        notifyItemInserted(mItems.size() - 1);
+    }
+
+
+    void remove(int position) {
+
+        mItems.remove(position);
+        mIds.remove(position);
+        notifyItemRemoved(position);
+    }
+
+
+    @Override
+    public int getCount() {
+        return mItems.size();
+    }
+
+    @Override
+    public Pair<String, Integer> getItem(int position) {
+        return mItems.get(position);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mIds.get(position);
     }
 
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+    @NonNull
+    @Override
+    public View onCreateView(@NonNull ViewGroup parent, int viewType) {
+
+        LayoutInflater inflater = (LayoutInflater) mContext.getSystemService(Context.LAYOUT_INFLATER_SERVICE);
+        return inflater.inflate(mResource, parent, false);
+    }
 
     @NonNull
     @Override
     public View getView(int position, View convertView, @NonNull ViewGroup parent) {
 
         final RelativeLayout layout;
-        if (convertView == null) {
-            LayoutInflater inflater = (LayoutInflater) getContext().getSystemService(Context.LAYOUT_INFLATER_SERVICE);
-            layout = (RelativeLayout) inflater.inflate(mResource, parent, false);
-        } else
+        if (convertView == null)
+            layout = (RelativeLayout) onCreateView(parent, getItemViewType(position));
+        else
             layout = (RelativeLayout) convertView;
 
         Pair item = getItem(position);
@@ -19,8 +19,6 @@ public class MainActivity extends AppCompatActivity implements FlingChiefListene
 
     private final static int DELAY = 1000;
 
-    private List<Pair<String, Integer>> mItems;
-
     private DeckAdapter mAdapter;
 
     private View mLeftView;
@@ -41,12 +39,11 @@ public class MainActivity extends AppCompatActivity implements FlingChiefListene
         setContentView(R.layout.activity_main);
 
         mColors  = getResources().getIntArray(R.array.cardsBackgroundColors);
-        mItems = new ArrayList<>();
-
-        mItems.add(newItem());
-        mItems.add(newItem());
-        mItems.add(newItem());
-        mAdapter = new DeckAdapter(this, mItems);
+        List<Pair<String, Integer>> items = new ArrayList<>();
+        items.add(newItem());
+        items.add(newItem());
+        items.add(newItem());
+        mAdapter = new DeckAdapter(this, items);
 
         RossDeckView mDeckLayout = (RossDeckView) findViewById(R.id.decklayout);
         mDeckLayout.setAdapter(mAdapter);
@@ -69,8 +66,7 @@ public class MainActivity extends AppCompatActivity implements FlingChiefListene
     @Override
     public boolean onDismissed(@NonNull View view) {
 
-        mItems.remove(0);
-        mAdapter.notifyDataSetChanged();
+        mAdapter.remove(0);
         newItemWithDelay(DELAY);
         return true;
     }
@@ -122,8 +118,7 @@ public class MainActivity extends AppCompatActivity implements FlingChiefListene
         handler.postDelayed(new Runnable() {
             @Override
             public void run() {
-                mItems.add(res);
-                mAdapter.notifyDataSetChanged();
+                mAdapter.add(res);
             }
         }, delay);
     }
@@ -0,0 +1,93 @@
+package com.db.rossdeckview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+
+/**
+ * {@link MotionEngine} running fixed duration {@link android.view.ViewPropertyAnimator}s,
+ * ignoring release velocity.
+ */
+public class AnimatorMotionEngine implements MotionEngine {
+
+    private static final int ANIMATION_DURATION = 250;
+
+    private final long mDuration;
+
+    @Nullable
+    private View mView;
+
+    @Nullable
+    private Listener mListener;
+
+    private final Animator.AnimatorListener mAnimatorListener = new AnimatorListenerAdapter() {
+
+        @Override
+        public void onAnimationEnd(Animator animation) {
+
+            final View view = mView;
+            final Listener listener = mListener;
+            if (view == null || listener == null) return;
+
+            view.animate().setListener(null);
+            mView = null;
+            mListener = null;
+            listener.onMotionEnd(view);
+        }
+    };
+
+
+    public AnimatorMotionEngine() {
+        this(ANIMATION_DURATION);
+    }
+
+    /**
+     * @param duration Duration of each motion, in milliseconds
+     */
+    public AnimatorMotionEngine(long duration) {
+        mDuration = duration;
+    }
+
+    @Override
+    public void dismiss(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener) {
+
+        mView = view;
+        mListener = listener;
+        view.animate()
+                .x(toX)
+                .y(toY)
+                .setListener(mAnimatorListener)
+                .setDuration(mDuration);
+    }
+
+    @Override
+    public void restore(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener) {
+
+        mView = view;
+        mListener = listener;
+        view.animate()
+                .x(toX)
+                .y(toY)
+                .rotation(0)
+                .setListener(mAnimatorListener)
+                .setDuration(mDuration);
+    }
+
+    @Override
+    public void cancel() {
+
+        final View view = mView;
+        mView = null;
+        mListener = null;
+        if (view != null) {
+            view.animate().setListener(null);
+            view.animate().cancel();
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.db.rossdeckview;
+
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+import android.widget.BaseAdapter;
+
+
+/**
+ * Adapter able to report which items changed, so {@link RossDeckView} only touches the cards
+ * affected. Implementations should also report stable ids through {@link #hasStableIds()} and
+ * {@link #getItemId(int)}.
+ */
+public abstract class BaseDeckAdapter extends BaseAdapter {
+
+    private final DeckDataObservable mDataSetObservable = new DeckDataObservable();
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        mDataSetObservable.registerObserver(observer);
+    }
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        mDataSetObservable.unregisterObserver(observer);
+    }
+
+    @Override
+    public void notifyDataSetChanged() {
+        mDataSetObservable.notifyChanged();
+    }
+
+    @Override
+    public void notifyDataSetInvalidated() {
+        mDataSetObservable.notifyInvalidated();
+    }
+
+
+    /**
+     * Notify that an item was inserted.
+     *
+     * @param position Position of the inserted item
+     */
+    public final void notifyItemInserted(int position) {
+        mDataSetObservable.notifyItemRangeInserted(position, 1);
+    }
+
+
+    /**
+     * Notify that items were inserted.
+     *
+     * @param positionStart Position of the first inserted item
+     * @param itemCount Number of items inserted
+     */
+    public final void notifyItemRangeInserted(int positionStart, int itemCount) {
+        mDataSetObservable.notifyItemRangeInserted(positionStart, itemCount);
+    }
+
+
+    /**
+     * Notify that an item was removed.
+     *
+     * @param position Position the removed item used to have
+     */
+    public final void notifyItemRemoved(int position) {
+        mDataSetObservable.notifyItemRangeRemoved(position, 1);
+    }
+
+
+    /**
+     * Notify that items were removed.
+     *
+     * @param positionStart Position the first removed item used to have
+     * @param itemCount Number of items removed
+     */
+    public final void notifyItemRangeRemoved(int positionStart, int itemCount) {
+        mDataSetObservable.notifyItemRangeRemoved(positionStart, itemCount);
+    }
+
+
+    /**
+     * Notify that an item changed its content.
+     *
+     * @param position Position of the changed item
+     */
+    public final void notifyItemChanged(int position) {
+        mDataSetObservable.notifyItemRangeChanged(position, 1);
+    }
+
+
+    /**
+     * Notify that items changed their content.
+     *
+     * @param positionStart Position of the first changed item
+     * @param itemCount Number of items changed
+     */
+    public final void notifyItemRangeChanged(int positionStart, int itemCount) {
+        mDataSetObservable.notifyItemRangeChanged(positionStart, itemCount);
+    }
+
+
+    /**
+     * Observable dispatching fine grained changes to {@link DeckDataObserver}s and a plain
+     * change to any other observer.
+     */
+    private static class DeckDataObservable extends DataSetObservable {
+
+        void notifyItemRangeInserted(int positionStart, int itemCount) {
+
+            synchronized (mObservers) {
+                DataSetObserver observer;
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    observer = mObservers.get(i);
+                    if (observer instanceof DeckDataObserver)
+                        ((DeckDataObserver) observer).onItemRangeInserted(positionStart, itemCount);
+                    else
+                        observer.onChanged();
+                }
+            }
+        }
+
+        void notifyItemRangeRemoved(int positionStart, int itemCount) {
+
+            synchronized (mObservers) {
+                DataSetObserver observer;
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    observer = mObservers.get(i);
+                    if (observer instanceof DeckDataObserver)
+                        ((DeckDataObserver) observer).onItemRangeRemoved(positionStart, itemCount);
+                    else
+                        observer.onChanged();
+                }
+            }
+        }
+
+        void notifyItemRangeChanged(int positionStart, int itemCount) {
+
+            synchronized (mObservers) {
+                DataSetObserver observer;
+                for (int i = mObservers.size() - 1; i >= 0; i--) {
+                    observer = mObservers.get(i);
+                    if (observer instanceof DeckDataObserver)
+                        ((DeckDataObserver) observer).onItemRangeChanged(positionStart, itemCount);
+                    else
+                        observer.onChanged();
+                }
+            }
+        }
+    }
+
+}
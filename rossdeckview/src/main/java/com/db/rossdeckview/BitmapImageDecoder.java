@@ -0,0 +1,72 @@
+package com.db.rossdeckview;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * {@link DeckImageLoader.Decoder} of bitmaps, subsampled to the smallest size still covering
+ * the card. Bounds are read first, so the source is opened twice per image.
+ */
+public class BitmapImageDecoder implements DeckImageLoader.Decoder<Bitmap> {
+
+    @NonNull
+    @Override
+    public Bitmap decode(@NonNull DeckImageLoader.Source source, @NonNull String key, int width, int height)
+            throws IOException {
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        InputStream in = source.open(key);
+        try {
+            BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        if (options.outWidth <= 0 || options.outHeight <= 0)
+            throw new IOException("Can't decode bounds of " + key);
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = getSampleSize(options.outWidth, options.outHeight, width, height);
+        final Bitmap bitmap;
+        in = source.open(key);
+        try {
+            bitmap = BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+        if (bitmap == null)
+            throw new IOException("Can't decode " + key);
+        return bitmap;
+    }
+
+    @Override
+    public int getByteCount(@NonNull Bitmap image) {
+        return image.getByteCount();
+    }
+
+
+    /**
+     * Largest power of two an image can be subsampled by, while still covering the target size.
+     *
+     * @param imageWidth Encoded image width
+     * @param imageHeight Encoded image height
+     * @param width Target width
+     * @param height Target height
+     * @return Sample size, 1 if image is already smaller than target
+     */
+    public static int getSampleSize(int imageWidth, int imageHeight, int width, int height) {
+
+        int sampleSize = 1;
+        if (width <= 0 || height <= 0)
+            return sampleSize;
+        while (imageWidth / (sampleSize * 2) >= width && imageHeight / (sampleSize * 2) >= height)
+            sampleSize *= 2;
+        return sampleSize;
+    }
+
+}
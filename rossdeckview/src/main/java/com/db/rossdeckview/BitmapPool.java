@@ -0,0 +1,87 @@
+package com.db.rossdeckview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import java.util.ArrayList;
+
+
+/**
+ * Pool of mutable bitmaps, reused for snapshots of the same size instead of allocating new ones.
+ * Oldest bitmaps are recycled once the pool goes over its byte budget.
+ */
+class BitmapPool {
+
+    private final ArrayList<Bitmap> mBitmaps = new ArrayList<>();
+
+    private final int mMaxBytes;
+
+    private int mBytes;
+
+
+    BitmapPool(int maxBytes) {
+        mMaxBytes = maxBytes;
+    }
+
+
+    /**
+     * Get a transparent bitmap of the given size, reused if possible.
+     *
+     * @param width Bitmap width
+     * @param height Bitmap height
+     * @return Mutable {@link Bitmap.Config#ARGB_8888} bitmap
+     */
+    Bitmap get(int width, int height) {
+
+        Bitmap bitmap;
+        for (int i = mBitmaps.size() - 1; i >= 0; i--) {
+            bitmap = mBitmaps.get(i);
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                mBitmaps.remove(i);
+                mBytes -= bitmap.getByteCount();
+                bitmap.eraseColor(Color.TRANSPARENT);
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+
+    /**
+     * Give a bitmap no longer used back to the pool.
+     *
+     * @param bitmap Bitmap not referenced anywhere else
+     */
+    void put(Bitmap bitmap) {
+
+        if (bitmap.isRecycled() || !bitmap.isMutable())
+            return;
+
+        final int bytes = bitmap.getByteCount();
+        if (bytes > mMaxBytes) {
+            bitmap.recycle();
+            return;
+        }
+
+        while (mBytes + bytes > mMaxBytes) {
+            final Bitmap oldest = mBitmaps.remove(0);
+            mBytes -= oldest.getByteCount();
+            oldest.recycle();
+        }
+        mBitmaps.add(bitmap);
+        mBytes += bytes;
+    }
+
+
+    /**
+     * Recycle every bitmap in the pool.
+     */
+    void clear() {
+
+        for (Bitmap bitmap : mBitmaps)
+            bitmap.recycle();
+        mBitmaps.clear();
+        mBytes = 0;
+    }
+
+}
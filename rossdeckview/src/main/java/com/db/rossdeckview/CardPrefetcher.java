@@ -0,0 +1,297 @@
+package com.db.rossdeckview;
+
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.support.annotation.Nullable;
+import android.support.v4.util.LongSparseArray;
+import android.view.View;
+import android.widget.Adapter;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Gets the cards following the stack ready before they are revealed. Views are inflated on an
+ * executor, when the adapter is a {@link PrefetchAdapter}, and bound while the UI thread is idle.
+ * Bound cards are kept by item id, so they are only handed out by adapters with stable ids.
+ */
+class CardPrefetcher implements MessageQueue.IdleHandler {
+
+    static final int DEFAULT_DEPTH = 1;
+
+    private final RossDeckView mDeck;
+
+    private final RecycleBin mRecycleBin;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Cards bound ahead of time, by item id */
+    private final LongSparseArray<View> mBound = new LongSparseArray<>();
+
+    private int mDepth = DEFAULT_DEPTH;
+
+    @Nullable
+    private Executor mExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+
+    /** Next position to be bound while idle */
+    private int mNextPosition;
+
+    /** Position following the last one to be bound while idle */
+    private int mEndPosition;
+
+    /** Views being inflated on the executor, by view type */
+    private int[] mPending = new int[1];
+
+    /** Views needed by the current range, by view type */
+    private int[] mDemand = new int[1];
+
+    /** Bumped whenever views being inflated are no longer wanted */
+    private int mGeneration;
+
+    private boolean mIdleQueued;
+
+
+    CardPrefetcher(RossDeckView deck, RecycleBin recycleBin) {
+        mDeck = deck;
+        mRecycleBin = recycleBin;
+    }
+
+
+    /**
+     * Set number of cards, past the stack, to get ready.
+     *
+     * @param depth Number of cards, 0 to disable prefetching
+     */
+    void setDepth(int depth) {
+
+        if (depth < 0)
+            throw new IllegalArgumentException("Can't have a prefetch depth < 0");
+        mDepth = depth;
+    }
+
+    int getDepth() {
+        return mDepth;
+    }
+
+
+    /**
+     * Set executor used to inflate views of a {@link PrefetchAdapter}.
+     *
+     * @param executor Executor, null to inflate on the UI thread while idle
+     */
+    void setExecutor(@Nullable Executor executor) {
+        mExecutor = executor;
+    }
+
+
+    /**
+     * Start getting cards ready, from the given adapter position on.
+     *
+     * @param fromPosition Position of the first card following the stack
+     */
+    void prefetch(int fromPosition) {
+
+        final Adapter adapter = mDeck.getAdapter();
+        if (adapter == null || mDepth == 0)
+            return;
+
+        mNextPosition = fromPosition;
+        mEndPosition = Math.min(adapter.getCount(), fromPosition + mDepth);
+        trimBound(adapter);
+        if (mNextPosition >= mEndPosition)
+            return;
+
+        if (mExecutor != null && adapter instanceof PrefetchAdapter)
+            inflateAsync((PrefetchAdapter) adapter, mExecutor);
+
+        if (!mIdleQueued) {
+            Looper.myQueue().addIdleHandler(this);
+            mIdleQueued = true;
+        }
+    }
+
+
+    /**
+     * Take the card bound ahead of time for the given position, if any.
+     *
+     * @param adapter Deck adapter
+     * @param position Adapter position
+     * @return Bound detached card or null
+     */
+    @Nullable
+    View take(Adapter adapter, int position) {
+
+        if (mBound.size() == 0 || !adapter.hasStableIds())
+            return null;
+
+        final long itemId = adapter.getItemId(position);
+        final View view = mBound.get(itemId);
+        if (view == null)
+            return null;
+
+        mBound.remove(itemId);
+        final RossDeckView.LayoutParams lp = (RossDeckView.LayoutParams) view.getLayoutParams();
+        if (lp.viewType != adapter.getItemViewType(position)) {
+            mRecycleBin.addScrapView(view, lp.viewType);
+            return null;
+        }
+        lp.position = position;
+        return view;
+    }
+
+
+    /**
+     * Drop every card bound ahead of time, and views being inflated, as items changed.
+     */
+    void invalidate() {
+
+        mGeneration++;
+        Arrays.fill(mPending, 0);
+        mNextPosition = mEndPosition;
+
+        View view;
+        for (int i = 0; i < mBound.size(); i++) {
+            view = mBound.valueAt(i);
+            mRecycleBin.addScrapView(view, ((RossDeckView.LayoutParams) view.getLayoutParams()).viewType);
+        }
+        mBound.clear();
+    }
+
+
+    /**
+     * Drop everything, as the adapter was replaced.
+     *
+     * @param viewTypeCount Number of view types of the new adapter
+     */
+    void reset(int viewTypeCount) {
+
+        invalidate();
+        mPending = new int[viewTypeCount];
+        mDemand = new int[viewTypeCount];
+    }
+
+    @Override
+    public boolean queueIdle() {
+
+        final Adapter adapter = mDeck.getAdapter();
+        if (adapter != null && mNextPosition < mEndPosition && mEndPosition <= adapter.getCount()) {
+            final int viewType = adapter.getItemViewType(mNextPosition);
+            final View scrap = mRecycleBin.getScrapView(viewType);
+
+            // Rather wait for the executor than inflate here
+            if (scrap == null && viewType >= 0 && viewType < mPending.length && mPending[viewType] > 0)
+                return true;
+
+            bind(adapter, mNextPosition++, viewType, scrap);
+            if (mNextPosition < mEndPosition)
+                return true;
+        }
+
+        mIdleQueued = false;
+        return false;
+    }
+
+
+    /**
+     * Bind one card, or at least inflate it if it can't be kept bound.
+     */
+    private void bind(Adapter adapter, int position, int viewType, @Nullable View scrap) {
+
+        if (adapter.hasStableIds()) {
+            final long itemId = adapter.getItemId(position);
+            if (mBound.get(itemId) == null)
+                mBound.put(itemId, mDeck.obtainView(position, scrap));
+            else if (scrap != null)
+                mRecycleBin.addScrapView(scrap, viewType);
+        } else if (scrap == null) {
+            // Card will be bound again once revealed, but not inflated
+            mRecycleBin.addScrapView(mDeck.obtainView(position, null), viewType);
+        } else {
+            mRecycleBin.addScrapView(scrap, viewType);
+        }
+    }
+
+
+    /**
+     * Inflate, on the executor, views missing from the recycle bin for the current range.
+     */
+    private void inflateAsync(final PrefetchAdapter adapter, Executor executor) {
+
+        Arrays.fill(mDemand, 0);
+        final boolean stableIds = adapter.hasStableIds();
+        final int generation = mGeneration;
+        for (int position = mNextPosition; position < mEndPosition; position++) {
+            if (stableIds && mBound.get(adapter.getItemId(position)) != null)
+                continue;
+
+            final int viewType = adapter.getItemViewType(position);
+            if (viewType < 0 || viewType >= mDemand.length)
+                continue;
+            if (++mDemand[viewType] <= mRecycleBin.getScrapCount(viewType) + mPending[viewType])
+                continue;
+
+            mPending[viewType]++;
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    final View view = adapter.onCreateView(mDeck, viewType);
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onInflated(view, viewType, generation);
+                        }
+                    });
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Hand a view inflated off the UI thread to the recycle bin, unless it is no longer wanted.
+     */
+    private void onInflated(View view, int viewType, int generation) {
+
+        if (generation != mGeneration)
+            return;
+
+        mPending[viewType]--;
+        mRecycleBin.addScrapView(view, viewType);
+    }
+
+
+    /**
+     * Keep bound only the cards of the current range, so memory stays bounded by the depth.
+     */
+    private void trimBound(Adapter adapter) {
+
+        if (mBound.size() == 0)
+            return;
+
+        final boolean stableIds = adapter.hasStableIds();
+        View view;
+        for (int i = mBound.size() - 1; i >= 0; i--) {
+            if (stableIds && inRange(adapter, mBound.keyAt(i)))
+                continue;
+            view = mBound.valueAt(i);
+            mRecycleBin.addScrapView(view, ((RossDeckView.LayoutParams) view.getLayoutParams()).viewType);
+            mBound.removeAt(i);
+        }
+    }
+
+
+    /**
+     * Whether an item is among the positions currently prefetched.
+     */
+    private boolean inRange(Adapter adapter, long itemId) {
+
+        for (int position = mNextPosition; position < mEndPosition; position++)
+            if (adapter.getItemId(position) == itemId)
+                return true;
+        return false;
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Motion slowing down under friction until it stops. Target is ignored.
+ */
+public final class DecayModel implements MotionModel {
+
+    private final float mFriction;
+
+    private final float mRestVelocity;
+
+    private float mPosition;
+
+    private float mVelocity;
+
+
+    /**
+     * Create a decay.
+     *
+     * @param friction Friction, velocity is divided by e every 1/friction seconds
+     * @param restVelocity Velocity, in pixels per second, under which motion rests
+     */
+    public DecayModel(float friction, float restVelocity) {
+
+        if (friction <= 0)
+            throw new IllegalArgumentException("Friction must be positive");
+
+        mFriction = friction;
+        mRestVelocity = restVelocity;
+    }
+
+    @Override
+    public void start(float position, float velocity, float target) {
+
+        mPosition = position;
+        mVelocity = velocity;
+    }
+
+    @Override
+    public boolean step(float dt) {
+
+        // Exact solution, stable for any step
+        final float decay = (float) Math.exp(-mFriction * dt);
+        mPosition += mVelocity / mFriction * (1 - decay);
+        mVelocity *= decay;
+
+        if (Math.abs(mVelocity) < mRestVelocity) {
+            mVelocity = 0;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public float getPosition() {
+        return mPosition;
+    }
+
+    @Override
+    public float getVelocity() {
+        return mVelocity;
+    }
+
+
+    /**
+     * Position where a motion would come to rest.
+     *
+     * @param position Start position, in pixels
+     * @param velocity Start velocity, in pixels per second
+     * @return Rest position, in pixels
+     */
+    public float getRestPosition(float position, float velocity) {
+        return position + velocity / mFriction;
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.db.rossdeckview;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.support.annotation.ColorInt;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Lightweight model of a card drawn by a {@link DeckRenderer}. Cards are reused, adapters fill
+ * them in {@link DeckCardAdapter#bindCard(int, DeckCard)}.
+ */
+public class DeckCard {
+
+    @Nullable
+    private Bitmap mImage;
+
+    @Nullable
+    private CharSequence mTitle;
+
+    @ColorInt
+    private int mColor = Color.WHITE;
+
+    @Nullable
+    private Object mTag;
+
+    @Nullable
+    public Bitmap getImage() {
+        return mImage;
+    }
+
+    public void setImage(@Nullable Bitmap image) {
+        mImage = image;
+    }
+
+    @Nullable
+    public CharSequence getTitle() {
+        return mTitle;
+    }
+
+    public void setTitle(@Nullable CharSequence title) {
+        mTitle = title;
+    }
+
+    @ColorInt
+    public int getColor() {
+        return mColor;
+    }
+
+    public void setColor(@ColorInt int color) {
+        mColor = color;
+    }
+
+    /**
+     * @return Anything else a custom renderer needs, null by default
+     */
+    @Nullable
+    public Object getTag() {
+        return mTag;
+    }
+
+    public void setTag(@Nullable Object tag) {
+        mTag = tag;
+    }
+
+
+    /**
+     * Reset card to its defaults, before being bound to another item.
+     */
+    void clear() {
+
+        mImage = null;
+        mTitle = null;
+        mColor = Color.WHITE;
+        mTag = null;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.widget.Adapter;
+
+
+/**
+ * Adapter whose items can be drawn from a {@link DeckCard} model, see
+ * {@link RossDeckView#setRenderer(DeckRenderer)}. Its views are only used while no renderer is set.
+ */
+public interface DeckCardAdapter extends Adapter {
+
+    /**
+     * Fill a card with the item at the given position.
+     *
+     * @param position Adapter position
+     * @param card Card to be filled, reset to its defaults
+     */
+    void bindCard(int position, @NonNull DeckCard card);
+
+}
@@ -0,0 +1,107 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Immutable description of how a {@link RossDeckView} stacks its cards. A new instance is
+ * created for each change, so a deck can swap its whole configuration at once.
+ */
+public final class DeckConfig {
+
+    /** Configuration used when none is given */
+    public static final DeckConfig DEFAULT = new DeckConfig(4, .0f, .0f);
+
+    /** Odd prime combining field hashes */
+    private static final int HASH_MULTIPLIER = 31;
+
+    private final int mMaxVisible;
+
+    private final float mStackPadding;
+
+    private final float mStackScale;
+
+
+    /**
+     * Create a stack configuration.
+     *
+     * @param maxVisible Maximum number of cards displayed on the stack, at least 1
+     * @param stackPadding Padding used between background cards
+     * @param stackScale Scale factor used between background cards
+     * @throws IllegalArgumentException If maxVisible is less than 1
+     */
+    public DeckConfig(int maxVisible, float stackPadding, float stackScale) {
+
+        if (maxVisible < 1)
+            throw new IllegalArgumentException("Can't have a maxVisible < 1");
+
+        mMaxVisible = maxVisible;
+        mStackPadding = stackPadding;
+        mStackScale = stackScale;
+    }
+
+    public int getMaxVisible() {
+        return mMaxVisible;
+    }
+
+    public float getStackPadding() {
+        return mStackPadding;
+    }
+
+    public float getStackScale() {
+        return mStackScale;
+    }
+
+
+    /**
+     * Copy of this configuration with a different number of visible cards.
+     *
+     * @param maxVisible Maximum number of cards displayed on the stack
+     * @return New configuration
+     */
+    public DeckConfig withMaxVisible(int maxVisible) {
+        return new DeckConfig(maxVisible, mStackPadding, mStackScale);
+    }
+
+
+    /**
+     * Copy of this configuration with a different padding between background cards.
+     *
+     * @param stackPadding Padding used between background cards
+     * @return New configuration
+     */
+    public DeckConfig withStackPadding(float stackPadding) {
+        return new DeckConfig(mMaxVisible, stackPadding, mStackScale);
+    }
+
+
+    /**
+     * Copy of this configuration with a different scale between background cards.
+     *
+     * @param stackScale Scale factor used between background cards
+     * @return New configuration
+     */
+    public DeckConfig withStackScale(float stackScale) {
+        return new DeckConfig(mMaxVisible, mStackPadding, stackScale);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) return true;
+        if (!(o instanceof DeckConfig)) return false;
+
+        final DeckConfig that = (DeckConfig) o;
+        return mMaxVisible == that.mMaxVisible
+                && Float.compare(that.mStackPadding, mStackPadding) == 0
+                && Float.compare(that.mStackScale, mStackScale) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = mMaxVisible;
+        result = HASH_MULTIPLIER * result + Float.floatToIntBits(mStackPadding);
+        result = HASH_MULTIPLIER * result + Float.floatToIntBits(mStackScale);
+        return result;
+    }
+
+}
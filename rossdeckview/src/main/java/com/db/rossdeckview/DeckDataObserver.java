@@ -0,0 +1,44 @@
+package com.db.rossdeckview;
+
+import android.database.DataSetObserver;
+
+
+/**
+ * Observer receiving fine grained changes from a {@link BaseDeckAdapter}. Each callback defaults
+ * to {@link #onChanged()}, so it can be registered on any adapter.
+ */
+public abstract class DeckDataObserver extends DataSetObserver {
+
+    /**
+     * Items were added to the data set.
+     *
+     * @param positionStart Position of the first inserted item
+     * @param itemCount Number of items inserted
+     */
+    public void onItemRangeInserted(int positionStart, int itemCount) {
+        onChanged();
+    }
+
+
+    /**
+     * Items were removed from the data set.
+     *
+     * @param positionStart Position the first removed item used to have
+     * @param itemCount Number of items removed
+     */
+    public void onItemRangeRemoved(int positionStart, int itemCount) {
+        onChanged();
+    }
+
+
+    /**
+     * Items changed their content, keeping their positions.
+     *
+     * @param positionStart Position of the first changed item
+     * @param itemCount Number of items changed
+     */
+    public void onItemRangeChanged(int positionStart, int itemCount) {
+        onChanged();
+    }
+
+}
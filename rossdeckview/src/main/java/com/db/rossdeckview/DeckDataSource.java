@@ -0,0 +1,39 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+
+
+/**
+ * Source of deck items loaded page by page, see {@link PagedDeckAdapter}. Pages continue after
+ * the last item loaded rather than from an offset, so sources can seek through an index instead
+ * of skipping every item already consumed.
+ *
+ * @param <T> Item type
+ */
+public interface DeckDataSource<T> {
+
+    /**
+     * Load the items following the given one. Called from a background thread.
+     *
+     * @param last Last item loaded, null to load the first page
+     * @param count Maximum number of items to load
+     * @return Loaded items, fewer than count once the source is exhausted
+     * @throws IOException If items can't be read
+     */
+    @NonNull
+    List<T> loadAfter(@Nullable T last, int count) throws IOException;
+
+
+    /**
+     * Get a stable id for the given item.
+     *
+     * @param item Item loaded by this source
+     * @return Item id
+     */
+    long getItemId(@NonNull T item);
+
+}
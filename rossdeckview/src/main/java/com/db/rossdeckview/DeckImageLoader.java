@@ -0,0 +1,459 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Loads card images decoded at the size of the cards they go to, see
+ * {@link RossDeckView#setImageLoader(DeckImageLoader)}. Adapters request images for a card while
+ * binding it. The deck then reports the card size and its slot in the stack, so the front card
+ * is decoded first, then the background cards, then cards prefetched. Requests of cards leaving
+ * the deck are cancelled. Decoded images are kept in a cache bounded in bytes.
+ * <p>
+ * Free of Android types, so it can be run on the JVM with any {@link Source} and {@link Decoder}.
+ *
+ * @param <I> Decoded image type, such as {@link android.graphics.Bitmap}
+ */
+public class DeckImageLoader<I> {
+
+    /** Priority of cards bound ahead of the stack, decoded once every card on it is */
+    public static final int PRIORITY_PREFETCH = Integer.MAX_VALUE;
+
+    private static final int WAITING = 0;
+
+    private static final int QUEUED = 1;
+
+    private static final int RUNNING = 2;
+
+    private static final int DONE = 3;
+
+    private final Source mSource;
+
+    private final Decoder<I> mDecoder;
+
+    private final Executor mDecodeExecutor;
+
+    private final Executor mDeliveryExecutor;
+
+    private final Object mLock = new Object();
+
+    /** Pending request of each card */
+    private final HashMap<Object, Request<I>> mRequests = new HashMap<>();
+
+    private final PriorityQueue<Request<I>> mQueue = new PriorityQueue<>();
+
+    /** Decoded images, least recently used first */
+    private final LinkedHashMap<CacheKey, I> mCache = new LinkedHashMap<>(16, .75f, true);
+
+    private final int mMaxBytes;
+
+    private int mBytes;
+
+    /** Size of the card last placed, cards of a deck usually all having the same */
+    private int mLastWidth;
+
+    private int mLastHeight;
+
+    private long mSequence;
+
+    /** Key reused for cache lookups, always under lock */
+    private final CacheKey mLookupKey = new CacheKey();
+
+    private final Runnable mDecodeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            decodeNext();
+        }
+    };
+
+
+    /**
+     * @param source Source of encoded images
+     * @param decoder Decoder of images
+     * @param maxBytes Maximum number of bytes held by decoded images in cache
+     * @param decodeExecutor Executor images are decoded on, shouldn't be the UI thread
+     * @param deliveryExecutor Executor targets are called on, usually the UI thread
+     */
+    public DeckImageLoader(@NonNull Source source, @NonNull Decoder<I> decoder, int maxBytes,
+                           @NonNull Executor decodeExecutor, @NonNull Executor deliveryExecutor) {
+
+        if (maxBytes <= 0)
+            throw new IllegalArgumentException("Can't have a cache size <= 0");
+
+        mSource = source;
+        mDecoder = decoder;
+        mMaxBytes = maxBytes;
+        mDecodeExecutor = decodeExecutor;
+        mDeliveryExecutor = deliveryExecutor;
+    }
+
+
+    /**
+     * Request the image of a card, replacing any previous request of the same card. Called from
+     * the UI thread while binding the card. If the image is cached at the card size, target is
+     * called right away.
+     *
+     * @param card Card the image goes to, usually its view
+     * @param key Image key, as understood by the source
+     * @param target Target receiving the image
+     */
+    public void load(@NonNull Object card, @NonNull String key, @NonNull Target<I> target) {
+
+        final I image;
+        synchronized (mLock) {
+            // Cards bound again to the same image keep their place in queue
+            final Request<I> pending = mRequests.get(card);
+            if (pending != null && pending.state != DONE && pending.key.equals(key)) {
+                pending.target = target;
+                if (pending.state == WAITING && mLastWidth > 0)
+                    resize(pending, mLastWidth, mLastHeight);
+                return;
+            }
+            cancelLocked(card);
+
+            // Size is only known once card is placed, the last one placed is a good guess
+            final Request<I> request = new Request<>(card, key, target, mSequence++);
+            request.priority = PRIORITY_PREFETCH;
+            image = mLastWidth > 0 ? getCached(key, mLastWidth, mLastHeight) : null;
+            if (image == null) {
+                mRequests.put(card, request);
+                if (mLastWidth > 0)
+                    resize(request, mLastWidth, mLastHeight);
+            }
+        }
+
+        if (image != null)
+            target.onImageLoaded(image);
+    }
+
+
+    /**
+     * Cancel the pending request of a card. A decode already running goes on, but its image
+     * only ends up in cache.
+     *
+     * @param card Card whose request is cancelled
+     */
+    public void cancel(@NonNull Object card) {
+
+        synchronized (mLock) {
+            cancelLocked(card);
+        }
+    }
+
+
+    /**
+     * Report a card placed in the stack, with its size and priority. Lower priorities are
+     * decoded first.
+     *
+     * @param card Card placed
+     * @param width Card width
+     * @param height Card height
+     * @param priority Slot of the card in the stack, 0 being the front card
+     */
+    public void onCardPlaced(@NonNull Object card, int width, int height, int priority) {
+
+        final Request<I> request;
+        final I image;
+        synchronized (mLock) {
+            if (width > 0 && height > 0) {
+                mLastWidth = width;
+                mLastHeight = height;
+            }
+
+            request = mRequests.get(card);
+            if (request == null || request.state == RUNNING || request.state == DONE)
+                return;
+
+            // Might have been cached at that size meanwhile
+            image = width > 0 && height > 0 ? getCached(request.key, width, height) : null;
+            if (image != null) {
+                cancelLocked(card);
+            } else {
+                if (request.state == QUEUED)
+                    mQueue.remove(request);
+                request.priority = priority;
+                if (width > 0 && height > 0)
+                    resize(request, width, height);
+                else if (request.state == QUEUED)
+                    mQueue.add(request);
+            }
+        }
+
+        if (image != null)
+            request.target.onImageLoaded(image);
+    }
+
+
+    /**
+     * Drop every cached image.
+     */
+    public void clearCache() {
+
+        synchronized (mLock) {
+            mCache.clear();
+            mBytes = 0;
+        }
+    }
+
+
+    /**
+     * Set request size and queue it, if not already queued.
+     */
+    private void resize(Request<I> request, int width, int height) {
+
+        request.width = width;
+        request.height = height;
+        if (request.state == QUEUED)
+            mQueue.remove(request);
+        final boolean schedule = request.state == WAITING;
+        request.state = QUEUED;
+        mQueue.add(request);
+        // One run per request, each taking whichever request comes first by then
+        if (schedule)
+            mDecodeExecutor.execute(mDecodeRunnable);
+    }
+
+    private void cancelLocked(Object card) {
+
+        final Request<I> request = mRequests.remove(card);
+        if (request == null)
+            return;
+        if (request.state == QUEUED)
+            mQueue.remove(request);
+        request.state = DONE;
+    }
+
+
+    /**
+     * Decode the request coming first, on a decode thread.
+     */
+    private void decodeNext() {
+
+        final Request<I> request;
+        I image;
+        synchronized (mLock) {
+            request = mQueue.poll();
+            if (request == null)
+                return;
+            request.state = RUNNING;
+            image = getCached(request.key, request.width, request.height);
+        }
+
+        IOException error = null;
+        if (image == null) {
+            try {
+                image = mDecoder.decode(mSource, request.key, request.width, request.height);
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        final boolean deliver;
+        synchronized (mLock) {
+            if (image != null)
+                putCached(request.key, request.width, request.height, image);
+            // Request stays pending until delivered, so it can still be cancelled
+            deliver = mRequests.get(request.card) == request;
+            request.state = DONE;
+        }
+
+        if (deliver)
+            deliver(request, image, error);
+    }
+
+    private void deliver(final Request<I> request, @Nullable final I image, @Nullable final IOException error) {
+
+        mDeliveryExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Card may have left, or been bound to another image meanwhile
+                synchronized (mLock) {
+                    if (mRequests.get(request.card) != request)
+                        return;
+                    mRequests.remove(request.card);
+                }
+                if (image != null)
+                    request.target.onImageLoaded(image);
+                else if (error != null)
+                    request.target.onImageFailed(error);
+            }
+        });
+    }
+
+    @Nullable
+    private I getCached(String key, int width, int height) {
+
+        mLookupKey.set(key, width, height);
+        return mCache.get(mLookupKey);
+    }
+
+    private void putCached(String key, int width, int height, I image) {
+
+        final int bytes = mDecoder.getByteCount(image);
+        if (bytes > mMaxBytes)
+            return;
+
+        final CacheKey cacheKey = new CacheKey();
+        cacheKey.set(key, width, height);
+        final I previous = mCache.put(cacheKey, image);
+        if (previous != null)
+            mBytes -= mDecoder.getByteCount(previous);
+        mBytes += bytes;
+
+        final Iterator<Map.Entry<CacheKey, I>> eldest = mCache.entrySet().iterator();
+        while (mBytes > mMaxBytes && eldest.hasNext()) {
+            mBytes -= mDecoder.getByteCount(eldest.next().getValue());
+            eldest.remove();
+        }
+    }
+
+
+    /**
+     * Source of encoded images, such as {@link FileImageSource}.
+     */
+    public interface Source {
+
+        /**
+         * Open an encoded image. Called from a decode thread, maybe more than once per decode.
+         *
+         * @param key Image key
+         * @return Stream of the encoded image, closed once read
+         * @throws IOException If image can't be opened
+         */
+        @NonNull
+        InputStream open(@NonNull String key) throws IOException;
+    }
+
+    /**
+     * Decodes images at a target size, such as {@link BitmapImageDecoder}.
+     *
+     * @param <I> Decoded image type
+     */
+    public interface Decoder<I> {
+
+        /**
+         * Decode an image at least as large as the target size, when the encoded image allows.
+         * Called from a decode thread.
+         *
+         * @param source Source the image is read from
+         * @param key Image key
+         * @param width Target width
+         * @param height Target height
+         * @return Decoded image
+         * @throws IOException If image can't be read or decoded
+         */
+        @NonNull
+        I decode(@NonNull Source source, @NonNull String key, int width, int height) throws IOException;
+
+        /**
+         * @param image Decoded image
+         * @return Bytes held by the image in memory
+         */
+        int getByteCount(@NonNull I image);
+    }
+
+    /**
+     * Receives the image of a card, on the delivery executor.
+     *
+     * @param <I> Decoded image type
+     */
+    public interface Target<I> {
+
+        /**
+         * @param image Image of the card, at least as large as the card when the encoded image
+         *              allows
+         */
+        void onImageLoaded(@NonNull I image);
+
+        /**
+         * @param e Error thrown while opening or decoding the image
+         */
+        void onImageFailed(@NonNull IOException e);
+    }
+
+
+    /**
+     * Image of a card, ordered by priority, then by request order.
+     */
+    private static final class Request<I> implements Comparable<Request<I>> {
+
+        final Object card;
+
+        final String key;
+
+        final long sequence;
+
+        Target<I> target;
+
+        int priority;
+
+        int width;
+
+        int height;
+
+        int state = WAITING;
+
+        Request(Object card, String key, Target<I> target, long sequence) {
+
+            this.card = card;
+            this.key = key;
+            this.target = target;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(@NonNull Request<I> other) {
+
+            if (priority != other.priority)
+                return priority < other.priority ? -1 : 1;
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+    }
+
+
+    /**
+     * Image key at a decoded size.
+     */
+    private static final class CacheKey {
+
+        private static final int HASH_MULTIPLIER = 31;
+
+        String key;
+
+        int width;
+
+        int height;
+
+        void set(String key, int width, int height) {
+
+            this.key = key;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (!(o instanceof CacheKey))
+                return false;
+            final CacheKey other = (CacheKey) o;
+            return width == other.width && height == other.height && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return (key.hashCode() * HASH_MULTIPLIER + width) * HASH_MULTIPLIER + height;
+        }
+    }
+
+}
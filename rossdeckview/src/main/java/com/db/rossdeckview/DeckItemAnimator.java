@@ -0,0 +1,299 @@
+package com.db.rossdeckview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.SimpleItemAnimator;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Item animator of a {@link DeckLayoutManager}. Cards left behind by a removal move forward from
+ * wherever they were seen, so a stack already following a dismissed card doesn't jump. Cards
+ * dismissed by the user are gone right away, other removed cards leave the stack towards the
+ * remove direction, or fade out when in the background. Added cards fade in. Changed items are
+ * rebound in their own card, which keeps its place.
+ */
+public class DeckItemAnimator extends SimpleItemAnimator {
+
+    private static final int REMOVE = 0;
+
+    private static final int ADD = 1;
+
+    private static final int MOVE = 2;
+
+    private final ArrayList<Pending> mPending = new ArrayList<>();
+
+    private final ArrayList<RecyclerView.ViewHolder> mRunning = new ArrayList<>();
+
+    private FlingChief.Direction mRemoveDirection = FlingChief.Direction.LEFT;
+
+
+    /**
+     * Animator with change animations disabled, changed cards being rebound in place.
+     */
+    public DeckItemAnimator() {
+        setSupportsChangeAnimations(false);
+    }
+
+
+    /**
+     * Set direction front cards removed by the adapter leave to, left by default.
+     *
+     * @param direction Direction removed front cards leave to
+     */
+    public void setRemoveDirection(@NonNull FlingChief.Direction direction) {
+        mRemoveDirection = direction;
+    }
+
+    @Override
+    public boolean canReuseUpdatedViewHolder(@NonNull RecyclerView.ViewHolder viewHolder,
+                                             @NonNull List<Object> payloads) {
+        return true;
+    }
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder) {
+
+        final View view = holder.itemView;
+        final DeckLayoutManager.LayoutParams lp = (DeckLayoutManager.LayoutParams) view.getLayoutParams();
+        if (lp.dismissDirection != null) {
+            // Already off the stack
+            resetView(view);
+            dispatchRemoveFinished(holder);
+            return false;
+        }
+
+        endAnimation(holder);
+        mPending.add(new Pending(holder, REMOVE, lp.slot, 0, 1.f));
+        return true;
+    }
+
+    @Override
+    public boolean animateAdd(RecyclerView.ViewHolder holder) {
+
+        endAnimation(holder);
+        holder.itemView.setAlpha(0.f);
+        mPending.add(new Pending(holder, ADD, 0, 0, 1.f));
+        return true;
+    }
+
+    @Override
+    public boolean animateMove(RecyclerView.ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+
+        final View view = holder.itemView;
+        final DeckLayoutManager.LayoutParams lp = (DeckLayoutManager.LayoutParams) view.getLayoutParams();
+        // Transform set by the layout, before an earlier move ends up overriding it
+        final float endY = view.getTranslationY();
+        final float endScaleX = view.getScaleX();
+        endAnimation(holder);
+
+        // Start from where card was seen, its previous layout and transform combined
+        final float startY = fromY - toY + lp.previousTranslationY;
+        if (startY == endY && lp.previousScaleX == endScaleX && fromX == toX) {
+            dispatchMoveFinished(holder);
+            return false;
+        }
+
+        view.setTranslationX(fromX - toX);
+        view.setTranslationY(startY);
+        view.setScaleX(lp.previousScaleX);
+        mPending.add(new Pending(holder, MOVE, 0, endY, endScaleX));
+        return true;
+    }
+
+    @Override
+    public boolean animateChange(RecyclerView.ViewHolder oldHolder, RecyclerView.ViewHolder newHolder,
+                                 int fromLeft, int fromTop, int toLeft, int toTop) {
+
+        // Holders are always reused, see canReuseUpdatedViewHolder
+        if (oldHolder == newHolder)
+            return animateMove(newHolder, fromLeft, fromTop, toLeft, toTop);
+
+        dispatchChangeFinished(oldHolder, true);
+        dispatchChangeFinished(newHolder, false);
+        return false;
+    }
+
+    @Override
+    public boolean animatePersistence(@NonNull RecyclerView.ViewHolder holder,
+                                      @NonNull ItemHolderInfo preInfo, @NonNull ItemHolderInfo postInfo) {
+        // Cards change scale without changing bounds
+        return animateMove(holder, preInfo.left, preInfo.top, postInfo.left, postInfo.top);
+    }
+
+    @Override
+    public void runPendingAnimations() {
+
+        for (Pending pending : mPending)
+            start(pending);
+        mPending.clear();
+    }
+
+    @Override
+    public void endAnimation(RecyclerView.ViewHolder holder) {
+
+        for (int i = mPending.size() - 1; i >= 0; i--)
+            if (mPending.get(i).holder == holder)
+                finish(mPending.remove(i));
+        // Running animations finish from their end callback
+        holder.itemView.animate().cancel();
+        dispatchFinishedWhenDone();
+    }
+
+    @Override
+    public void endAnimations() {
+
+        for (int i = mPending.size() - 1; i >= 0; i--)
+            finish(mPending.remove(i));
+        for (int i = mRunning.size() - 1; i >= 0; i--)
+            mRunning.get(i).itemView.animate().cancel();
+        dispatchFinishedWhenDone();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return !mPending.isEmpty() || !mRunning.isEmpty();
+    }
+
+    private void start(final Pending pending) {
+
+        final View view = pending.holder.itemView;
+        final ViewPropertyAnimator animator = view.animate();
+        switch (pending.type) {
+            case REMOVE:
+                dispatchRemoveStarting(pending.holder);
+                if (pending.slot == 0) {
+                    leave(view, animator);
+                    animator.setDuration(getRemoveDuration());
+                } else {
+                    animator.alpha(0.f).setDuration(getRemoveDuration());
+                }
+                break;
+            case ADD:
+                dispatchAddStarting(pending.holder);
+                animator.alpha(1.f).setDuration(getAddDuration());
+                break;
+            default:
+                dispatchMoveStarting(pending.holder);
+                animator.translationX(0).translationY(pending.translationY).scaleX(pending.scaleX)
+                        .setDuration(getMoveDuration());
+                break;
+        }
+
+        mRunning.add(pending.holder);
+        animator.setListener(new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animation) {
+                animator.setListener(null);
+                mRunning.remove(pending.holder);
+                finish(pending);
+                dispatchFinishedWhenDone();
+            }
+        }).start();
+    }
+
+
+    /**
+     * Send card off the stack, towards the remove direction.
+     */
+    private void leave(View view, ViewPropertyAnimator animator) {
+
+        final View parent = (View) view.getParent();
+        final int width = parent != null ? parent.getWidth() : view.getWidth();
+        final int height = parent != null ? parent.getHeight() : view.getHeight();
+        switch (mRemoveDirection) {
+            case LEFT:
+                animator.translationX(-width);
+                break;
+            case TOP:
+                animator.translationY(-height);
+                break;
+            case RIGHT:
+                animator.translationX(width);
+                break;
+            default:
+                animator.translationY(height);
+                break;
+        }
+    }
+
+
+    /**
+     * Bring card to its end state, whether its animation ran or not.
+     */
+    private void finish(Pending pending) {
+
+        final View view = pending.holder.itemView;
+        switch (pending.type) {
+            case REMOVE:
+                resetView(view);
+                dispatchRemoveFinished(pending.holder);
+                break;
+            case ADD:
+                view.setAlpha(1.f);
+                dispatchAddFinished(pending.holder);
+                break;
+            default:
+                view.setTranslationX(0);
+                view.setTranslationY(pending.translationY);
+                view.setScaleX(pending.scaleX);
+                dispatchMoveFinished(pending.holder);
+                break;
+        }
+    }
+
+
+    /**
+     * Leave removed card in its rest state for the pool.
+     */
+    private static void resetView(View view) {
+
+        view.setAlpha(1.f);
+        view.setTranslationX(0);
+        view.setTranslationY(0);
+        view.setScaleX(1.f);
+        view.setVisibility(View.VISIBLE);
+        ((DeckLayoutManager.LayoutParams) view.getLayoutParams()).dismissDirection = null;
+    }
+
+    private void dispatchFinishedWhenDone() {
+
+        if (!isRunning())
+            dispatchAnimationsFinished();
+    }
+
+
+    /**
+     * Animation waiting for the next run.
+     */
+    private static final class Pending {
+
+        final RecyclerView.ViewHolder holder;
+
+        final int type;
+
+        /** Stack slot of a removed card */
+        final int slot;
+
+        /** End transform of a moved card */
+        final float translationY;
+
+        final float scaleX;
+
+        Pending(RecyclerView.ViewHolder holder, int type, int slot, float translationY, float scaleX) {
+
+            this.holder = holder;
+            this.type = type;
+            this.slot = slot;
+            this.translationY = translationY;
+            this.scaleX = scaleX;
+        }
+    }
+
+}
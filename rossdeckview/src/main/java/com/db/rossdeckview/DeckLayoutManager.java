@@ -0,0 +1,363 @@
+package com.db.rossdeckview;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.v7.widget.RecyclerView;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+
+
+/**
+ * {@link RecyclerView.LayoutManager} stacking items the way {@link RossDeckView} does, so decks
+ * can be fed by RecyclerView adapters, and get their pooling, diffing and partial rebinds. The
+ * front card is moved by a {@link FlingChief}, and background cards follow it. Once a card is
+ * dismissed, its item should be removed from the adapter and the removal notified, from
+ * {@link FlingChiefListener.Actions#onDismissed(View)}, where {@link #getPosition(View)} tells
+ * which item it was. Pair it with {@link DeckItemAnimator} for the stack to move forward.
+ */
+public class DeckLayoutManager extends RecyclerView.LayoutManager {
+
+    private final FlingChief mFlingChief;
+
+    /** Gesture state of the front card, driven by FlingChief */
+    private final DeckModel mModel = new DeckModel();
+
+    private DeckConfig mConfig;
+
+    @Nullable
+    private FlingChiefListener.Actions mActionsListener;
+
+    /** Card being moved by FlingChief */
+    @Nullable
+    private View mFrontCard;
+
+    /** Factor background cards moved forward by, from 0 to 1 */
+    private float mFactor;
+
+    /** Size the stack was last laid out at, cards being measured again once it changes */
+    private int mLayoutWidth;
+
+    private int mLayoutHeight;
+
+
+    /**
+     * @param context Context
+     */
+    public DeckLayoutManager(@NonNull Context context) {
+        this(context, DeckConfig.DEFAULT);
+    }
+
+
+    /**
+     * @param context Context
+     * @param config Deck configuration
+     */
+    public DeckLayoutManager(@NonNull Context context, @NonNull DeckConfig config) {
+
+        mConfig = config;
+        mFlingChief = new FlingChief(context);
+        mFlingChief.setModel(mModel);
+        mFlingChief.setProximityListener(new FlingChiefListener.Proximity() {
+            @Override
+            public void onProximityUpdate(@NonNull float[] proximities, @NonNull View view) {
+                // Background cards only move forward while front one leaves, a dismissed card
+                // coming back to rest being left to the next layout
+                mFactor = mModel.getState() == DeckModel.State.DISMISSING
+                        ? Math.max(mFactor, mModel.getFactor()) : mModel.getFactor();
+                applyStack();
+            }
+        });
+        mFlingChief.setActionListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(@NonNull FlingChief.Direction direction, @NonNull View view) {
+                final boolean dismiss = mActionsListener == null || mActionsListener.onDismiss(direction, view);
+                if (dismiss)
+                    ((LayoutParams) view.getLayoutParams()).dismissDirection = direction;
+                return dismiss;
+            }
+
+            @Override
+            public boolean onDismissed(@NonNull View view) {
+                // Card left, the stack stays forward until the item is removed
+                mFactor = 1.f;
+                applyStack();
+                view.setVisibility(View.INVISIBLE);
+                requestLayout();
+                return mActionsListener == null || mActionsListener.onDismissed(view);
+            }
+
+            @Override
+            public boolean onReturn(@NonNull View view) {
+                return mActionsListener == null || mActionsListener.onReturn(view);
+            }
+
+            @Override
+            public boolean onReturned(@NonNull View view) {
+                return mActionsListener == null || mActionsListener.onReturned(view);
+            }
+
+            @Override
+            public boolean onTapped() {
+                return mActionsListener != null && mActionsListener.onTapped();
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return mActionsListener != null && mActionsListener.onDoubleTapped();
+            }
+        });
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(Context c, AttributeSet attrs) {
+        return new LayoutParams(c, attrs);
+    }
+
+    @Override
+    public RecyclerView.LayoutParams generateLayoutParams(ViewGroup.LayoutParams lp) {
+
+        if (lp instanceof ViewGroup.MarginLayoutParams)
+            return new LayoutParams((ViewGroup.MarginLayoutParams) lp);
+        return new LayoutParams(lp);
+    }
+
+    @Override
+    public boolean checkLayoutParams(RecyclerView.LayoutParams lp) {
+        return lp instanceof LayoutParams;
+    }
+
+    @Override
+    public void onLayoutChildren(RecyclerView.Recycler recycler, RecyclerView.State state) {
+
+        final int count = Math.min(state.getItemCount(), mConfig.getMaxVisible());
+        final boolean resized = getWidth() != mLayoutWidth || getHeight() != mLayoutHeight;
+        mLayoutWidth = getWidth();
+        mLayoutHeight = getHeight();
+
+        // Cards still showing their item stay attached, others are scrapped to be rebound,
+        // recycled, or animated away
+        View view;
+        LayoutParams lp;
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            view = getChildAt(i);
+            lp = (LayoutParams) view.getLayoutParams();
+            if (lp.isItemRemoved() || lp.viewNeedsUpdate() || getPosition(view) >= count)
+                detachAndScrapView(view, recycler);
+        }
+
+        // Stack only moves back to rest for a new front card, or a dismissed one coming back
+        final View front = count > 0 ? findViewByPosition(0) : null;
+        if (front == null || front != mFrontCard
+                || ((LayoutParams) front.getLayoutParams()).dismissDirection != null)
+            mFactor = 0.f;
+
+        // Background cards first, for the front one to be drawn on top
+        view = null;
+        for (int slot = count - 1; slot >= 0; slot--) {
+            final int index = count - 1 - slot;
+            view = findViewByPosition(slot);
+            if (view == null) {
+                view = recycler.getViewForPosition(slot);
+                addView(view, index);
+                measureChildWithMargins(view, 0, 0);
+            } else {
+                // Cards inserted ahead of the stack push the others back
+                if (getChildAt(index) != view) {
+                    detachView(view);
+                    attachView(view, index);
+                }
+                if (resized || view.isLayoutRequested())
+                    measureChildWithMargins(view, 0, 0);
+            }
+            lp = (LayoutParams) view.getLayoutParams();
+
+            // Dismissed card kept by the adapter comes back
+            if (lp.dismissDirection != null) {
+                lp.dismissDirection = null;
+                view.setVisibility(View.VISIBLE);
+            }
+
+            layoutCard(view, lp, slot);
+        }
+
+        if (view != mFrontCard) {
+            mFrontCard = view;
+            if (view != null)
+                mFlingChief.injectView(view);
+        }
+    }
+
+    @Override
+    public boolean supportsPredictiveItemAnimations() {
+        // Cards are animated from the transform they were last seen with, kept in their layout
+        // params, so a pre-layout pass would lay the stack out twice for nothing
+        return false;
+    }
+
+    @Override
+    public void collectInitialPrefetchPositions(int adapterItemCount,
+                                                RecyclerView.LayoutManager.LayoutPrefetchRegistry layoutPrefetchRegistry) {
+
+        // Cards of a nested deck are bound ahead, as it scrolls into view
+        final int count = Math.min(adapterItemCount, mConfig.getMaxVisible());
+        for (int i = 0; i < count; i++)
+            layoutPrefetchRegistry.addPosition(i, 0);
+    }
+
+
+    /**
+     * Place card in center parent, at its stack slot.
+     */
+    private void layoutCard(View view, LayoutParams lp, int slot) {
+
+        final int width = getDecoratedMeasuredWidth(view) + lp.leftMargin + lp.rightMargin;
+        final int height = getDecoratedMeasuredHeight(view) + lp.topMargin + lp.bottomMargin;
+        final int left = getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight() - width) / 2;
+        final int top = getPaddingTop() + (getHeight() - getPaddingTop() - getPaddingBottom() - height) / 2
+                + (int) (slot * mConfig.getStackPadding());
+        layoutDecoratedWithMargins(view, left, top, left + width, top + height);
+
+        // Kept for the item animator to move card from where it was seen
+        lp.slot = slot;
+        lp.previousTranslationY = view.getTranslationY();
+        lp.previousScaleX = view.getScaleX();
+        if (slot > 0) {
+            view.setOnTouchListener(null);
+            applyStackTransform(view, slot);
+        } else if (!mModel.isInGesture() || view != mFrontCard) {
+            view.setTranslationY(0);
+            view.setScaleX(1.f);
+        }
+    }
+
+
+    /**
+     * Move every background card according to the current factor.
+     */
+    private void applyStack() {
+
+        View view;
+        LayoutParams lp;
+        for (int i = 0; i < getChildCount(); i++) {
+            view = getChildAt(i);
+            lp = (LayoutParams) view.getLayoutParams();
+            if (lp.slot > 0 && !lp.isItemRemoved())
+                applyStackTransform(view, lp.slot);
+        }
+    }
+
+    private void applyStackTransform(View view, int slot) {
+
+        view.setTranslationY(-mFactor * mConfig.getStackPadding());
+        view.setScaleX(1.f - slot * mConfig.getStackScale() + mFactor * mConfig.getStackScale());
+    }
+
+
+    /**
+     * Set stack configuration.
+     *
+     * @param config Deck configuration
+     */
+    public void setConfig(@NonNull DeckConfig config) {
+
+        mConfig = config;
+        requestLayout();
+    }
+
+
+    /**
+     * Set listener of front card actions.
+     *
+     * @param listener Listener to be called
+     */
+    public void setActionsListener(@Nullable FlingChiefListener.Actions listener) {
+        mActionsListener = listener;
+    }
+
+
+    /**
+     * See {@link FlingChief#setDirections(FlingChief.Direction[])}.
+     *
+     * @param directions Allowed directions
+     */
+    public void setDirections(@NonNull FlingChief.Direction[] directions) {
+        mFlingChief.setDirections(directions);
+    }
+
+
+    /**
+     * See {@link FlingChief#setDismissPolicy(DismissPolicy)}.
+     *
+     * @param policy Policy deciding fate of released cards
+     */
+    public void setDismissPolicy(@NonNull DismissPolicy policy) {
+        mFlingChief.setDismissPolicy(policy);
+    }
+
+
+    /**
+     * See {@link FlingChief#setMotionEngine(MotionEngine)}.
+     *
+     * @param engine Engine moving released cards
+     */
+    public void setMotionEngine(@NonNull MotionEngine engine) {
+        mFlingChief.setMotionEngine(engine);
+    }
+
+
+    /**
+     * Per card layout state.
+     */
+    public static class LayoutParams extends RecyclerView.LayoutParams {
+
+        /** Stack slot the card was last laid out at */
+        int slot;
+
+        /** Direction the card was dismissed to, null if it wasn't */
+        @Nullable
+        FlingChief.Direction dismissDirection;
+
+        /** Transform the card had before its last layout */
+        float previousTranslationY;
+
+        float previousScaleX = 1.f;
+
+        /**
+         * @param c Context
+         * @param attrs Attributes of the card view
+         */
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        /**
+         * @param width Card width
+         * @param height Card height
+         */
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        /**
+         * @param source Layout params to copy, margins included
+         */
+        public LayoutParams(ViewGroup.MarginLayoutParams source) {
+            super(source);
+        }
+
+        /**
+         * @param source Layout params to copy
+         */
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+    }
+
+}
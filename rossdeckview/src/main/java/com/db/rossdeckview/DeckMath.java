@@ -0,0 +1,114 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Plain Java math behind the deck gestures and stack, free of Android types so it can be run
+ * and benchmarked on the JVM.
+ */
+public final class DeckMath {
+
+    private DeckMath() { }
+
+
+    /**
+     * Calculate proximity, from 0 to 1, between two points having into account an initial position.
+     *
+     * @param initPos Initial view position
+     * @param viewPos Current view position
+     * @param boundPos Bound position
+     *
+     * @return Proximity between 2 points considering an initial position
+     */
+    public static float proximity(float initPos, float viewPos, float boundPos) {
+
+        return (initPos >= boundPos) ? (viewPos - boundPos) / (initPos - boundPos)
+                : (boundPos - viewPos) / (boundPos - initPos);
+    }
+
+
+    /**
+     * Calculate the percentage of the intersection between two areas, relative to the smallest.
+     *
+     * @param aLeft Area A left
+     * @param aTop Area A top
+     * @param aRight Area A right
+     * @param aBottom Area A bottom
+     * @param bLeft Area B left
+     * @param bTop Area B top
+     * @param bRight Area B right
+     * @param bBottom Area B bottom
+     *
+     * @return Intersection percentage between the two given areas
+     */
+    public static float intersection(int aLeft, int aTop, int aRight, int aBottom,
+            int bLeft, int bTop, int bRight, int bBottom) {
+
+        final float overlapArea = Math.max(0, Math.min(aRight, bRight) - Math.max(aLeft, bLeft))
+                * Math.max(0, Math.min(aBottom, bBottom) - Math.max(aTop, bTop));
+        final float areaA = (aRight - aLeft) * (aBottom - aTop);
+        final float areaB = (bRight - bLeft) * (bBottom - bTop);
+
+        return (areaA < areaB) ? overlapArea / areaA : overlapArea / areaB;
+    }
+
+
+    /**
+     * Find side closest to the view, the one with the smallest proximity.
+     *
+     * @param proximities Proximities [left, top, right, bottom]
+     *
+     * @return Closest side
+     */
+    public static FlingChief.Direction closestSide(float[] proximities) {
+
+        int index = 0;
+        float min = proximities[index];
+        for (int i = 1; i < proximities.length; i++)
+            if (proximities[i] < min) {
+                min = proximities[i];
+                index = i;
+            }
+
+        switch (index) {
+            case 0: return FlingChief.Direction.LEFT;
+            case 1: return FlingChief.Direction.TOP;
+            case 2: return FlingChief.Direction.RIGHT;
+            case 3: return FlingChief.Direction.BOTTOM;
+            default: return FlingChief.Direction.LEFT;
+        }
+    }
+
+
+    /**
+     * Find side a vector points to, following its dominant axis.
+     *
+     * @param x Vector x, such as a velocity or a distance
+     * @param y Vector y
+     *
+     * @return Side pointed to, vertical on ties
+     */
+    public static FlingChief.Direction dominantSide(float x, float y) {
+
+        if (Math.abs(x) > Math.abs(y))
+            return x < 0 ? FlingChief.Direction.LEFT : FlingChief.Direction.RIGHT;
+        return y < 0 ? FlingChief.Direction.TOP : FlingChief.Direction.BOTTOM;
+    }
+
+
+    /**
+     * Calc factor to apply to the translation and scale of a background card based on the
+     * distance between the active card and view sides.
+     *
+     * @param proximities Proximity values (from 0 to 1) from the
+     *                    initial active card position and each parent view side
+     * @return factor used to move and scale background cards
+     */
+    public static float backgroundFactor(float[] proximities) {
+
+        float max = 0;
+        for (float proximity : proximities)
+            max = Math.max(max, 1 - proximity);
+        return Math.min(1, max);
+    }
+
+}
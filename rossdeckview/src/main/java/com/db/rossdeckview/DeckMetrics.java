@@ -0,0 +1,58 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * Listener receiving performance measurements from a {@link RossDeckView} and its
+ * {@link FlingChief}. Nothing is measured while no listener is set. Every callback runs on the
+ * UI thread. {@link DeckMetricsRecorder} aggregates them into histograms.
+ */
+public interface DeckMetrics {
+
+    /**
+     * Time between a drag event and the frame it was rendered on.
+     *
+     * @param latencyNanos Input to frame latency, in nanoseconds
+     */
+    void onInputLatency(long latencyNanos);
+
+    /**
+     * Time between two frames while a gesture runs.
+     *
+     * @param frameNanos Frame duration, in nanoseconds
+     * @param animating True if view was animating, false if being dragged
+     */
+    void onFrame(long frameNanos, boolean animating);
+
+    /**
+     * Once a gesture is over.
+     *
+     * @param gesture Gesture summary. Instance is reused and should not be kept
+     */
+    void onGestureEnd(@NonNull GestureMetrics gesture);
+
+    /**
+     * Time spent by a deck layout pass.
+     *
+     * @param durationNanos Layout duration, in nanoseconds
+     */
+    void onLayout(long durationNanos);
+
+    /**
+     * Time spent by the adapter binding a card.
+     *
+     * @param position Adapter position of the card
+     * @param durationNanos Bind duration, in nanoseconds
+     */
+    void onBind(int position, long durationNanos);
+
+    /**
+     * Time between deck state being restored, after a configuration change for instance, and
+     * the front card being laid out, ready to be dragged.
+     *
+     * @param durationNanos Time to first interactive card, in nanoseconds
+     */
+    void onRestore(long durationNanos);
+
+}
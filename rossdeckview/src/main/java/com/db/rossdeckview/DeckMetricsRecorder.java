@@ -0,0 +1,157 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+
+/**
+ * {@link DeckMetrics} aggregating every measurement into {@link LatencyHistogram}s, ready to be
+ * exported.
+ */
+public class DeckMetricsRecorder implements DeckMetrics {
+
+    private final LatencyHistogram mInputLatency = new LatencyHistogram();
+
+    private final LatencyHistogram mDragFrames = new LatencyHistogram();
+
+    private final LatencyHistogram mAnimationFrames = new LatencyHistogram();
+
+    private final LatencyHistogram mLayouts = new LatencyHistogram();
+
+    private final LatencyHistogram mBinds = new LatencyHistogram();
+
+    private final LatencyHistogram mRestores = new LatencyHistogram();
+
+    private int mGestures;
+
+    private int mDismissedGestures;
+
+    private long mJankyFrames;
+
+    private long mDroppedFrames;
+
+    @Override
+    public void onInputLatency(long latencyNanos) {
+        mInputLatency.record(latencyNanos);
+    }
+
+    @Override
+    public void onFrame(long frameNanos, boolean animating) {
+
+        if (animating) mAnimationFrames.record(frameNanos);
+        else mDragFrames.record(frameNanos);
+    }
+
+    @Override
+    public void onGestureEnd(@NonNull GestureMetrics gesture) {
+
+        mGestures++;
+        if (gesture.isDismissed()) mDismissedGestures++;
+        mJankyFrames += gesture.getDragJankyFrames() + gesture.getAnimationJankyFrames();
+        mDroppedFrames += gesture.getDragDroppedFrames() + gesture.getAnimationDroppedFrames();
+    }
+
+    @Override
+    public void onLayout(long durationNanos) {
+        mLayouts.record(durationNanos);
+    }
+
+    @Override
+    public void onBind(int position, long durationNanos) {
+        mBinds.record(durationNanos);
+    }
+
+    @Override
+    public void onRestore(long durationNanos) {
+        mRestores.record(durationNanos);
+    }
+
+
+    /**
+     * Latency between drag events and the frame rendering them.
+     *
+     * @return Input latency histogram
+     */
+    public LatencyHistogram getInputLatency() {
+        return mInputLatency;
+    }
+
+    /**
+     * Frame times while dragging.
+     *
+     * @return Drag frame time histogram
+     */
+    public LatencyHistogram getDragFrames() {
+        return mDragFrames;
+    }
+
+    /**
+     * Frame times while dismissing or returning.
+     *
+     * @return Animation frame time histogram
+     */
+    public LatencyHistogram getAnimationFrames() {
+        return mAnimationFrames;
+    }
+
+    /**
+     * Deck layout pass durations.
+     *
+     * @return Layout time histogram
+     */
+    public LatencyHistogram getLayouts() {
+        return mLayouts;
+    }
+
+    /**
+     * Adapter bind durations, per card.
+     *
+     * @return Bind time histogram
+     */
+    public LatencyHistogram getBinds() {
+        return mBinds;
+    }
+
+    /**
+     * Times from state restored to the front card ready to be dragged, one per restore.
+     *
+     * @return Time to first interactive card histogram
+     */
+    public LatencyHistogram getRestores() {
+        return mRestores;
+    }
+
+    public int getGestures() {
+        return mGestures;
+    }
+
+    public int getDismissedGestures() {
+        return mDismissedGestures;
+    }
+
+    public long getJankyFrames() {
+        return mJankyFrames;
+    }
+
+    public long getDroppedFrames() {
+        return mDroppedFrames;
+    }
+
+
+    /**
+     * Drop everything recorded so far, usually right after exporting.
+     */
+    public void reset() {
+
+        mInputLatency.reset();
+        mDragFrames.reset();
+        mAnimationFrames.reset();
+        mLayouts.reset();
+        mBinds.reset();
+        mRestores.reset();
+        mGestures = 0;
+        mDismissedGestures = 0;
+        mJankyFrames = 0;
+        mDroppedFrames = 0;
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Headless state of a deck: where the front card gesture stands, how far background cards moved
+ * forward with it, and which adapter position the stack starts at. {@link FlingChief} drives the
+ * gesture, {@link RossDeckView} the positions. Free of Android types, so gestures and adapter
+ * changes can be replayed on the JVM.
+ * <p>
+ * A gesture goes from {@link State#IDLE} to {@link State#DRAGGING} while the card follows the
+ * pointer, then to either {@link State#DISMISSING} or {@link State#RETURNING} once released, and
+ * back to idle once the card settled. A card can also be released without being dragged first.
+ * Any other transition throws an {@link IllegalStateException}.
+ */
+public class DeckModel {
+
+    private State mState = State.IDLE;
+
+    /** Direction card is being dismissed to, null unless dismissing */
+    @Nullable
+    private FlingChief.Direction mDirection;
+
+    /** Factor background cards moved forward by, from 0 to 1 */
+    private float mFactor;
+
+    /** Adapter position of the front card, past items dismissed but still in the adapter */
+    private int mTopPosition;
+
+    /** Item count at last layout, or as reported item by item since */
+    private int mItemCount;
+
+    @Nullable
+    private Listener mListener;
+
+
+    /**
+     * Card starts following the pointer.
+     */
+    public void startDrag() {
+
+        if (mState != State.IDLE)
+            throw new IllegalStateException("Can't drag while " + mState);
+        moveTo(State.DRAGGING);
+    }
+
+
+    /**
+     * Update background factor from the front card proximities to parent sides, see
+     * {@link DeckMath#backgroundFactor(float[])}.
+     *
+     * @param proximities Proximities [left, top, right, bottom], from 0 to 1
+     * @return Background factor
+     */
+    public float setProximities(@NonNull float[] proximities) {
+
+        mFactor = DeckMath.backgroundFactor(proximities);
+        return mFactor;
+    }
+
+
+    /**
+     * Released card leaves the stack.
+     *
+     * @param direction Direction card leaves to
+     */
+    public void dismiss(@NonNull FlingChief.Direction direction) {
+
+        if (isSettling())
+            throw new IllegalStateException("Can't dismiss while " + mState);
+        mDirection = direction;
+        moveTo(State.DISMISSING);
+    }
+
+
+    /**
+     * Released card comes back to rest.
+     */
+    public void restore() {
+
+        if (isSettling())
+            throw new IllegalStateException("Can't return while " + mState);
+        moveTo(State.RETURNING);
+    }
+
+
+    /**
+     * Card is done moving, the gesture ends.
+     *
+     * @return State card settled from
+     */
+    @NonNull
+    public State settle() {
+
+        if (!isSettling())
+            throw new IllegalStateException("Can't settle while " + mState);
+        final State previous = mState;
+        mDirection = null;
+        mFactor = 0.f;
+        moveTo(State.IDLE);
+        return previous;
+    }
+
+
+    /**
+     * Move card to the given state, telling the listener.
+     */
+    private void moveTo(State state) {
+
+        final State previous = mState;
+        mState = state;
+        if (mListener != null)
+            mListener.onStateChanged(previous, state);
+    }
+
+
+    /**
+     * Move the top position past a card just dismissed.
+     */
+    public void advanceTop() {
+        mTopPosition++;
+    }
+
+
+    /**
+     * Shift the top position past items inserted before it.
+     *
+     * @param positionStart Position of the first inserted item
+     * @param itemCount Number of items inserted
+     */
+    public void onItemsInserted(int positionStart, int itemCount) {
+
+        if (positionStart < mTopPosition)
+            mTopPosition += itemCount;
+        mItemCount += itemCount;
+    }
+
+
+    /**
+     * Shift the top position back over items removed before it, usually the items dismissed.
+     *
+     * @param positionStart Position the first removed item used to have
+     * @param itemCount Number of items removed
+     */
+    public void onItemsRemoved(int positionStart, int itemCount) {
+
+        if (positionStart < mTopPosition)
+            mTopPosition -= Math.min(itemCount, mTopPosition - positionStart);
+        mItemCount -= itemCount;
+    }
+
+
+    /**
+     * Find the top position again after a change not reported item by item, items gone being
+     * taken for dismissed ones, ahead of it.
+     *
+     * @param itemCount Item count after the change
+     */
+    public void relocateTop(int itemCount) {
+
+        final int position = mTopPosition - Math.max(0, mItemCount - itemCount);
+        mTopPosition = Math.max(0, Math.min(position, itemCount));
+    }
+
+
+    /**
+     * Forget positions, as items belong to another adapter. Gesture state is left to the gesture.
+     */
+    public void clearPositions() {
+
+        mTopPosition = 0;
+        mItemCount = 0;
+    }
+
+
+    /**
+     * @return State front card is in
+     */
+    @NonNull
+    public State getState() {
+        return mState;
+    }
+
+    /**
+     * @return True if card left its rest state
+     */
+    public boolean isInGesture() {
+        return mState != State.IDLE;
+    }
+
+    /**
+     * @return True if released card is still moving
+     */
+    public boolean isSettling() {
+        return mState == State.DISMISSING || mState == State.RETURNING;
+    }
+
+    /**
+     * @return Direction card is being dismissed to, null unless dismissing
+     */
+    @Nullable
+    public FlingChief.Direction getDirection() {
+        return mDirection;
+    }
+
+    /**
+     * @return Factor background cards moved forward by, from 0 to 1
+     */
+    public float getFactor() {
+        return mFactor;
+    }
+
+    /**
+     * @return Adapter position of the front card
+     */
+    public int getTopPosition() {
+        return mTopPosition;
+    }
+
+    /**
+     * @param topPosition Adapter position of the front card
+     */
+    public void setTopPosition(int topPosition) {
+        mTopPosition = topPosition;
+    }
+
+    /**
+     * @return Item count at last layout, or as reported item by item since
+     */
+    public int getItemCount() {
+        return mItemCount;
+    }
+
+    /**
+     * @param itemCount Item count the deck is laid out with
+     */
+    public void setItemCount(int itemCount) {
+        mItemCount = itemCount;
+    }
+
+    /**
+     * @param listener Listener of gesture transitions, null for none
+     */
+    public void setListener(@Nullable Listener listener) {
+        mListener = listener;
+    }
+
+
+    /** Gesture states of the front card */
+    public enum State {
+        /** Card at rest */
+        IDLE,
+        /** Card following the pointer */
+        DRAGGING,
+        /** Card leaving the stack */
+        DISMISSING,
+        /** Card coming back to rest */
+        RETURNING
+    }
+
+    /**
+     * Listener of gesture transitions.
+     */
+    public interface Listener {
+
+        /**
+         * Once the front card moved to another state.
+         *
+         * @param previous State card was in
+         * @param state State card is now in
+         */
+        void onStateChanged(@NonNull State previous, @NonNull State state);
+    }
+
+}
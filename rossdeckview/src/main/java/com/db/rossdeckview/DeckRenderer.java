@@ -0,0 +1,26 @@
+package com.db.rossdeckview;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.support.annotation.NonNull;
+
+
+/**
+ * Draws cards from their {@link DeckCard} model, instead of each card being a view of its own.
+ * Called on every frame cards move, so it shouldn't allocate.
+ */
+public interface DeckRenderer {
+
+    /**
+     * Draw a card with its top left corner at the canvas origin. Canvas is already transformed to
+     * the card's place in the stack.
+     *
+     * @param canvas Canvas to draw on
+     * @param card Card to be drawn
+     * @param width Card width
+     * @param height Card height
+     * @param paint Paint reused between cards, reset to anti alias and bitmap filtering
+     */
+    void draw(@NonNull Canvas canvas, @NonNull DeckCard card, int width, int height, @NonNull Paint paint);
+
+}
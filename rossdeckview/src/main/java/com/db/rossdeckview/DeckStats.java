@@ -0,0 +1,230 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Counters describing the work done by a {@link RossDeckView}. Useful to verify that views are
+ * being recycled once the deck is warm.
+ */
+public final class DeckStats {
+
+    private int mScrapHits;
+
+    private int mScrapMisses;
+
+    private int mBinds;
+
+    private int mMeasures;
+
+    private int mMeasureSkips;
+
+    private int mMeasureSpecHits;
+
+    private int mChildLayouts;
+
+    private int mLayoutPasses;
+
+    private int mGestureLayerFrames;
+
+    private int mPrefetchHits;
+
+
+    DeckStats() { }
+
+
+    /**
+     * Once the adapter bound a card into the recycled view it was offered.
+     */
+    void onScrapHit() {
+        mScrapHits++;
+    }
+
+    /**
+     * Once the adapter created a new view for a card.
+     */
+    void onScrapMiss() {
+        mScrapMisses++;
+    }
+
+    /**
+     * Once the adapter was asked for a card view.
+     */
+    void onBind() {
+        mBinds++;
+    }
+
+    /**
+     * Once a card was measured.
+     */
+    void onMeasure() {
+        mMeasures++;
+    }
+
+    /**
+     * Once a card kept its size, its specs and content being unchanged, without being measured.
+     */
+    void onMeasureSkip() {
+        mMeasureSkips++;
+    }
+
+    /**
+     * Once the child specs of a card were found in cache, rather than computed.
+     */
+    void onMeasureSpecHit() {
+        mMeasureSpecHits++;
+    }
+
+    /**
+     * Once a card was laid out.
+     */
+    void onChildLayout() {
+        mChildLayouts++;
+    }
+
+    /**
+     * Once the deck ran a layout pass.
+     */
+    void onLayoutPass() {
+        mLayoutPasses++;
+    }
+
+    /**
+     * Once a gesture started, layer frames being counted from then on.
+     */
+    void onGestureStart() {
+        mGestureLayerFrames = 0;
+    }
+
+    /**
+     * Once the deck drew a frame with hardware layers active.
+     */
+    void onLayerFrame() {
+        mGestureLayerFrames++;
+    }
+
+    /**
+     * Once a card was revealed already bound, as it was prefetched.
+     */
+    void onPrefetchHit() {
+        mPrefetchHits++;
+    }
+
+
+    /**
+     * Number of cards bound by the adapter into a recycled view.
+     *
+     * @return Number of recycled view hits
+     */
+    public int getScrapHits() {
+        return mScrapHits;
+    }
+
+
+    /**
+     * Number of cards for which the adapter had to create a new view.
+     *
+     * @return Number of recycled view misses
+     */
+    public int getScrapMisses() {
+        return mScrapMisses;
+    }
+
+
+    /**
+     * Number of {@link android.widget.Adapter#getView} calls.
+     *
+     * @return Number of cards bound
+     */
+    public int getBinds() {
+        return mBinds;
+    }
+
+
+    /**
+     * Number of cards measured.
+     *
+     * @return Number of child measure calls
+     */
+    public int getMeasures() {
+        return mMeasures;
+    }
+
+
+    /**
+     * Number of cards laid out keeping their measured size, as neither their content nor their
+     * measure specs changed.
+     *
+     * @return Number of child measure calls skipped
+     */
+    public int getMeasureSkips() {
+        return mMeasureSkips;
+    }
+
+
+    /**
+     * Number of cards laid out with measure specs cached for their view type.
+     *
+     * @return Number of measure spec cache hits
+     */
+    public int getMeasureSpecHits() {
+        return mMeasureSpecHits;
+    }
+
+
+    /**
+     * Number of cards laid out.
+     *
+     * @return Number of child layout calls
+     */
+    public int getChildLayouts() {
+        return mChildLayouts;
+    }
+
+
+    /**
+     * Number of layout passes run by the deck.
+     *
+     * @return Number of deck layout passes
+     */
+    public int getLayoutPasses() {
+        return mLayoutPasses;
+    }
+
+
+    /**
+     * Number of frames drawn with hardware layers active during the current, or last, gesture.
+     *
+     * @return Number of frames drawn from hardware layers
+     */
+    public int getGestureLayerFrames() {
+        return mGestureLayerFrames;
+    }
+
+
+    /**
+     * Number of cards revealed already bound, as they were prefetched.
+     *
+     * @return Number of prefetched cards used
+     */
+    public int getPrefetchHits() {
+        return mPrefetchHits;
+    }
+
+
+    /**
+     * Set all counters back to zero.
+     */
+    public void reset() {
+
+        mScrapHits = 0;
+        mScrapMisses = 0;
+        mBinds = 0;
+        mMeasures = 0;
+        mMeasureSkips = 0;
+        mMeasureSpecHits = 0;
+        mChildLayouts = 0;
+        mLayoutPasses = 0;
+        mGestureLayerFrames = 0;
+        mPrefetchHits = 0;
+    }
+
+}
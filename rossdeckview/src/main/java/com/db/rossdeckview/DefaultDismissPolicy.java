@@ -0,0 +1,58 @@
+package com.db.rossdeckview;
+
+import android.content.res.Resources;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Policy used by default. Flings long enough are dismissed following their velocity, other
+ * releases are dismissed to the closest side once enough of the view left its parent.
+ */
+public class DefaultDismissPolicy implements DismissPolicy {
+
+    private static final float OUTSIDE_THRESHOLD = .9f;
+
+    private static final int FLING_MIN_DP_DISTANCE = 30;
+
+    private final float mVisibleThreshold;
+
+    private final float mMinFlingDistance;
+
+
+    public DefaultDismissPolicy() {
+        this(OUTSIDE_THRESHOLD, FLING_MIN_DP_DISTANCE);
+    }
+
+
+    /**
+     * @param visibleThreshold Visible fraction, from 0 to 1, under which a view is dismissed
+     * @param minFlingDpDistance Distance, in dp, a view has to travel for a fling to count
+     */
+    public DefaultDismissPolicy(float visibleThreshold, float minFlingDpDistance) {
+
+        mVisibleThreshold = visibleThreshold;
+        mMinFlingDistance = minFlingDpDistance * Resources.getSystem().getDisplayMetrics().density;
+    }
+
+    @Override
+    public void onParentResized(int width, int height) { }
+
+    @Nullable
+    @Override
+    public FlingChief.Direction onRelease(@NonNull Release release) {
+
+        if (release.isFling()) {
+            // Fling isn't big enough
+            if (Math.abs(release.getDeltaX()) < mMinFlingDistance
+                    && Math.abs(release.getDeltaY()) < mMinFlingDistance)
+                return null;
+            return DeckMath.dominantSide(release.getVelocityX(), release.getVelocityY());
+        }
+
+        if (release.getVisibleFraction() > mVisibleThreshold)
+            return null;
+        return DeckMath.closestSide(release.getProximities());
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.Nullable;
+import android.view.View;
+
+
+/**
+ * Fixed capacity ring buffer of dismissed cards, newest first out. Detached views are kept to be
+ * reused once a card is rewound, as long as they fit a byte budget. Past it, views of the oldest
+ * entries go to the recycle bin and only their item id and direction are kept.
+ */
+class DismissHistory {
+
+    /** Bytes per pixel of a drawn card, as views are costed like the bitmap they render to */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final RecycleBin mRecycleBin;
+
+    private Entry[] mEntries;
+
+    /** Index of the oldest entry */
+    private int mStart;
+
+    private int mSize;
+
+    private int mBytes;
+
+    private int mMaxBytes;
+
+
+    DismissHistory(RecycleBin recycleBin, int capacity, int maxBytes) {
+
+        mRecycleBin = recycleBin;
+        mEntries = newEntries(capacity);
+        mMaxBytes = maxBytes;
+    }
+
+
+    /**
+     * Change history bounds, dropping oldest entries and views that no longer fit.
+     *
+     * @param capacity Maximum number of entries
+     * @param maxBytes Maximum number of bytes held by detached views
+     */
+    void resize(int capacity, int maxBytes) {
+
+        if (capacity < 0)
+            throw new IllegalArgumentException("Can't have a history capacity < 0");
+
+        while (mSize > capacity)
+            dropOldest();
+
+        final Entry[] entries = newEntries(capacity);
+        for (int i = 0; i < mSize; i++) {
+            final Entry entry = mEntries[(mStart + i) % mEntries.length];
+            entries[i].itemId = entry.itemId;
+            entries[i].direction = entry.direction;
+            entries[i].view = entry.view;
+            entries[i].bytes = entry.bytes;
+        }
+        mEntries = entries;
+        mStart = 0;
+        mMaxBytes = maxBytes;
+        trimBytes(0);
+    }
+
+
+    /**
+     * Keep a dismissed card, dropping the oldest one if full.
+     *
+     * @param itemId Adapter id of the dismissed item
+     * @param direction Direction the card left through
+     * @param view Detached card view
+     */
+    void push(long itemId, FlingChief.Direction direction, View view) {
+
+        if (mEntries.length == 0) {
+            release(view);
+            return;
+        }
+
+        if (mSize == mEntries.length)
+            dropOldest();
+
+        final int bytes = view.getWidth() * view.getHeight() * BYTES_PER_PIXEL;
+        trimBytes(bytes);
+
+        final Entry entry = mEntries[(mStart + mSize) % mEntries.length];
+        entry.itemId = itemId;
+        entry.direction = direction;
+        if (bytes <= mMaxBytes) {
+            entry.view = view;
+            entry.bytes = bytes;
+            mBytes += bytes;
+        } else {
+            release(view);
+            entry.view = null;
+            entry.bytes = 0;
+        }
+        mSize++;
+    }
+
+
+    /**
+     * Take the most recently dismissed card out of the history.
+     *
+     * @return Entry, valid until next push, or null if history is empty
+     */
+    @Nullable
+    Entry pop() {
+
+        if (mSize == 0)
+            return null;
+
+        mSize--;
+        final Entry entry = mEntries[(mStart + mSize) % mEntries.length];
+        mBytes -= entry.bytes;
+        return entry;
+    }
+
+
+    /**
+     * Whether no dismissed card is kept.
+     *
+     * @return True if history is empty
+     */
+    boolean isEmpty() {
+        return mSize == 0;
+    }
+
+
+    /**
+     * Drop every entry, detached views going to the recycle bin.
+     */
+    void clear() {
+
+        while (mSize > 0)
+            dropOldest();
+    }
+
+
+    /**
+     * Release views of the oldest entries until the given number of bytes fits.
+     */
+    private void trimBytes(int bytes) {
+
+        Entry entry;
+        for (int i = 0; i < mSize && mBytes + bytes > mMaxBytes; i++) {
+            entry = mEntries[(mStart + i) % mEntries.length];
+            if (entry.view != null) {
+                release(entry.view);
+                mBytes -= entry.bytes;
+                entry.view = null;
+                entry.bytes = 0;
+            }
+        }
+    }
+
+
+    /**
+     * Drop the oldest entry, its view going to the recycle bin.
+     */
+    private void dropOldest() {
+
+        final Entry entry = mEntries[mStart];
+        if (entry.view != null) {
+            release(entry.view);
+            mBytes -= entry.bytes;
+        }
+        entry.view = null;
+        entry.direction = null;
+        entry.bytes = 0;
+        mStart = (mStart + 1) % mEntries.length;
+        mSize--;
+    }
+
+    private void release(View view) {
+        mRecycleBin.addScrapView(view, ((RossDeckView.LayoutParams) view.getLayoutParams()).viewType);
+    }
+
+    private static Entry[] newEntries(int capacity) {
+
+        final Entry[] entries = new Entry[capacity];
+        for (int i = 0; i < capacity; i++)
+            entries[i] = new Entry();
+        return entries;
+    }
+
+
+    /**
+     * Dismissed card. Entries are reused, so fields are only valid until next push.
+     */
+    static final class Entry {
+
+        long itemId;
+
+        FlingChief.Direction direction;
+
+        @Nullable
+        View view;
+
+        int bytes;
+    }
+
+}
@@ -0,0 +1,224 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Decides whether a released view is dismissed, and to where, or returned to its initial
+ * position. See {@link FlingChief#setDismissPolicy(DismissPolicy)}.
+ */
+public interface DismissPolicy {
+
+    /**
+     * Once parent size is known, or changed. Geometry depending on it should be computed here,
+     * rather than on every release.
+     *
+     * @param width Parent width
+     * @param height Parent height
+     */
+    void onParentResized(int width, int height);
+
+
+    /**
+     * Decide where a released view goes. Flings declined are asked again as plain releases.
+     *
+     * @param release State of the view when released
+     * @return Direction view should be dismissed to, null for it to return
+     */
+    @Nullable
+    FlingChief.Direction onRelease(@NonNull Release release);
+
+
+    /**
+     * State of a released view, in parent coordinates. Reused between releases, so it
+     * shouldn't be kept.
+     */
+    final class Release {
+
+        private static final float HALF = .5f;
+
+        private final float[] mProximities = new float[4];
+
+        private int mParentWidth;
+
+        private int mParentHeight;
+
+        /** Smallest of view and parent areas, kept from gesture start */
+        private float mMinArea;
+
+        private int mLeft;
+
+        private int mTop;
+
+        private int mRight;
+
+        private int mBottom;
+
+        private float mDeltaX;
+
+        private float mDeltaY;
+
+        private float mVelocityX;
+
+        private float mVelocityY;
+
+        private boolean mFling;
+
+
+        Release() { }
+
+
+        /**
+         * Set sizes, which don't change within a gesture.
+         *
+         * @param parentWidth Parent width
+         * @param parentHeight Parent height
+         * @param viewWidth View width, at rest
+         * @param viewHeight View height, at rest
+         */
+        void setSizes(int parentWidth, int parentHeight, int viewWidth, int viewHeight) {
+
+            mParentWidth = parentWidth;
+            mParentHeight = parentHeight;
+            mMinArea = Math.min((float) parentWidth * parentHeight, (float) viewWidth * viewHeight);
+        }
+
+
+        /**
+         * Set where the view was released.
+         *
+         * @param left View left, in parent coordinates
+         * @param top View top, in parent coordinates
+         * @param right View right, in parent coordinates
+         * @param bottom View bottom, in parent coordinates
+         * @param proximities Proximities of the view to each parent side, copied
+         */
+        void setBounds(int left, int top, int right, int bottom, float[] proximities) {
+
+            mLeft = left;
+            mTop = top;
+            mRight = right;
+            mBottom = bottom;
+            System.arraycopy(proximities, 0, mProximities, 0, mProximities.length);
+        }
+
+
+        /**
+         * Set how far the view was dragged.
+         *
+         * @param deltaX Distance moved on x since gesture start
+         * @param deltaY Distance moved on y since gesture start
+         */
+        void setDelta(float deltaX, float deltaY) {
+
+            mDeltaX = deltaX;
+            mDeltaY = deltaY;
+        }
+
+
+        /**
+         * Set how fast the view was released.
+         *
+         * @param velocityX Release velocity on x, in pixels per second
+         * @param velocityY Release velocity on y, in pixels per second
+         * @param fling True if view was flinged
+         */
+        void setVelocity(float velocityX, float velocityY, boolean fling) {
+
+            mVelocityX = velocityX;
+            mVelocityY = velocityY;
+            mFling = fling;
+        }
+
+        public int getParentWidth() {
+            return mParentWidth;
+        }
+
+        public int getParentHeight() {
+            return mParentHeight;
+        }
+
+        public int getLeft() {
+            return mLeft;
+        }
+
+        public int getTop() {
+            return mTop;
+        }
+
+        public int getRight() {
+            return mRight;
+        }
+
+        public int getBottom() {
+            return mBottom;
+        }
+
+        public float getCenterX() {
+            return (mLeft + mRight) * HALF;
+        }
+
+        public float getCenterY() {
+            return (mTop + mBottom) * HALF;
+        }
+
+        /**
+         * @return Distance moved on x since gesture start
+         */
+        public float getDeltaX() {
+            return mDeltaX;
+        }
+
+        /**
+         * @return Distance moved on y since gesture start
+         */
+        public float getDeltaY() {
+            return mDeltaY;
+        }
+
+        /**
+         * @return Release velocity on x, in pixels per second
+         */
+        public float getVelocityX() {
+            return mVelocityX;
+        }
+
+        /**
+         * @return Release velocity on y, in pixels per second
+         */
+        public float getVelocityY() {
+            return mVelocityY;
+        }
+
+        /**
+         * @return True if view was flinged
+         */
+        public boolean isFling() {
+            return mFling;
+        }
+
+        /**
+         * Proximities of the view to each parent side, see {@link FlingChiefListener.Proximity}.
+         *
+         * @return Array [left, top, right, bottom], not to be modified
+         */
+        public float[] getProximities() {
+            return mProximities;
+        }
+
+        /**
+         * Fraction of the view, or of the parent if smaller, overlapping the other.
+         *
+         * @return Value from 0 to 1
+         */
+        public float getVisibleFraction() {
+
+            if (mMinArea <= 0) return 0;
+            final float overlap = Math.max(0, Math.min(mRight, mParentWidth) - Math.max(mLeft, 0))
+                    * (float) Math.max(0, Math.min(mBottom, mParentHeight) - Math.max(mTop, 0));
+            return overlap / mMinArea;
+        }
+    }
+
+}
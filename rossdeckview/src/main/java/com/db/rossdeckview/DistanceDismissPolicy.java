@@ -0,0 +1,53 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Policy dismissing views dragged far enough, relative to parent size, along the axis they
+ * travelled the most on.
+ */
+public class DistanceDismissPolicy implements DismissPolicy {
+
+    private final float mRatio;
+
+    /** Distances, in pixels, computed once per parent size */
+    private float mThresholdX;
+
+    private float mThresholdY;
+
+
+    /**
+     * @param ratio Fraction of parent width, or height, a view has to be dragged
+     */
+    public DistanceDismissPolicy(float ratio) {
+
+        if (ratio <= 0)
+            throw new IllegalArgumentException("Can't have a distance ratio <= 0");
+        mRatio = ratio;
+    }
+
+    @Override
+    public void onParentResized(int width, int height) {
+
+        mThresholdX = width * mRatio;
+        mThresholdY = height * mRatio;
+    }
+
+    @Nullable
+    @Override
+    public FlingChief.Direction onRelease(@NonNull Release release) {
+
+        if (mThresholdX <= 0 || mThresholdY <= 0)
+            return null;
+
+        // Normalized, so both axes compare against the same threshold
+        final float x = release.getDeltaX() / mThresholdX;
+        final float y = release.getDeltaY() / mThresholdY;
+        if (Math.abs(x) < 1 && Math.abs(y) < 1)
+            return null;
+        return DeckMath.dominantSide(x, y);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * {@link DeckImageLoader.Source} reading images from files of a directory, image keys being
+ * their paths relative to it.
+ */
+public class FileImageSource implements DeckImageLoader.Source {
+
+    private final File mDirectory;
+
+
+    /**
+     * @param directory Directory images are read from
+     */
+    public FileImageSource(@NonNull File directory) {
+        mDirectory = directory;
+    }
+
+    @NonNull
+    @Override
+    public InputStream open(@NonNull String key) throws IOException {
+        return new FileInputStream(new File(mDirectory, key));
+    }
+
+}
@@ -1,15 +1,15 @@
 package com.db.rossdeckview;
 
-import android.animation.Animator;
-import android.animation.Animator.AnimatorListener;
 import android.content.Context;
-import android.content.res.Resources;
 import android.graphics.Rect;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
-
-import java.util.Arrays;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
 
 
 /**
@@ -20,13 +20,11 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 
 	private static final float ROTATION_COEFFICIENT = 15f;
 
-	private static final float OUTSIDE_THRESHOLD = .9f;
-
-	private static final int ANIMATION_DURATION = 250;
+	private static final int VELOCITY_UNITS = 1000;
 
-	private static final int FLING_MIN_DP_DISTANCE = 30;
+	private static final int INVALID_POINTER = -1;
 
-	private final float mMinFlingDistance;
+	private final float mMaxFlingVelocity;
 
 	/** View to be handled */
 	private View mView;
@@ -37,54 +35,110 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	/** Gestures detector */
 	private final GestureDetector mGesturesDetector;
 
+	/** Tracks velocity in screen coordinates, since view moves along with the pointer */
+	private final VelocityTracker mVelocityTracker;
+
+	/** Pointer moving view, another one takes over if it goes up first */
+	private int mActivePointerId = INVALID_POINTER;
+
+	/** Screen position active pointer would have had when gesture started */
+	private float mDownRawX;
+
+	private float mDownRawY;
+
+	/** Pointer position, reused between events */
+	private final float[] mPointerPosition = new float[2];
+
+	/** Velocity, in pixels per second, when pointer was released */
+	private float mReleaseVelocityX;
+
+	private float mReleaseVelocityY;
+
+	/** Engine moving view once released */
+	private MotionEngine mMotionEngine;
+
 	/** Initial specifications */
-	private Rect mInitRect;
+	private final Rect mInitRect;
+
+	private final Rect mParenRect;
+
+	/** Proximities [left, top, right, bottom] reported to callback, reused between events */
+	private final float[] mProximities;
+
+	/** Decides fate of released view */
+	private DismissPolicy mDismissPolicy;
 
-	private Rect mParenRect;
+	/** Release state handed to policy, reused between releases */
+	private final DismissPolicy.Release mRelease = new DismissPolicy.Release();
+
+	/** Parent size policy last computed its geometry for */
+	private int mPolicyWidth = -1;
+
+	private int mPolicyHeight = -1;
 
 	/** Callbacks */
 	private FlingChiefListener.Proximity mProximityCallback;
 
 	private FlingChiefListener.Actions mActionCallback;
 
+	private FlingChiefListener.Gesture mGestureCallback;
+
 	/** Allowed directions */
 	private Direction[] mDirections;
 
-	/** Flag reporting whether view is animating */
-	private boolean mIsAnimating;
+	/** Gesture state of view, from rest to dragged and released */
+	private DeckModel mModel = new DeckModel();
 
-	/** Listener used while dismissing View **/
-	private final AnimatorListener mDismissAnimationListener = new AnimatorListener() {
+	/** Whether moves are applied once per frame, rather than on every touch event */
+	private boolean mCoalesceUpdates = true;
+
+	/** Latest pointer delta, waiting for next frame to be applied */
+	private float mScrollDeltaX;
+
+	private float mScrollDeltaY;
+
+	private boolean mScrollPending;
 
-		@Override public void onAnimationStart(Animator animation) { }
+	/** Applies latest pointer delta on next frame */
+	private final FrameScheduler mScrollFrameScheduler = FrameScheduler.create(new FrameScheduler.Callback() {
 
 		@Override
-		public void onAnimationEnd(Animator animation) {
+		public void doFrame(long frameTimeNanos) {
 
-			restoreState();
-			if (mActionCallback != null) mActionCallback.onDismissed(mView);
+			if (mScrollPending) applyScroll();
 		}
+	});
 
-		@Override public void onAnimationCancel(Animator animation) { }
+	/** Metrics, only collected while a listener is set */
+	@Nullable
+	private DeckMetrics mMetrics;
 
-		@Override public void onAnimationRepeat(Animator animation) { }
-	};
+	private FrameMonitor mFrameMonitor;
 
-	/** Listener used while returning View to initial position **/
-	private final AnimatorListener mReturnAnimationListener = new AnimatorListener() {
+	private GestureMetrics mGestureMetrics;
+
+	private final Context mContext;
 
-		@Override public void onAnimationStart(Animator animation) { }
+	/** Listener used while dismissing View **/
+	private final MotionEngine.Listener mDismissAnimationListener = new MotionEngine.Listener() {
 
 		@Override
-		public void onAnimationEnd(Animator animation) {
+		public void onMotionEnd(@NonNull View view) {
 
 			restoreState();
-			if (mActionCallback != null) mActionCallback.onReturned(mView);
+			if (mActionCallback != null) mActionCallback.onDismissed(mView);
 		}
+	};
 
-		@Override public void onAnimationCancel(Animator animation) { }
+	/** Listener used while returning View to initial position **/
+	private final MotionEngine.Listener mReturnAnimationListener = new MotionEngine.Listener() {
 
-		@Override public void onAnimationRepeat(Animator animation) { }
+		@Override
+		public void onMotionEnd(@NonNull View view) {
+
+			restoreState();
+			if (mActionCallback != null) mActionCallback.onReturned(mView);
+		}
 	};
 
 
@@ -103,9 +157,16 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 
 	public FlingChief(Context context) {
 
+		mContext = context;
 		mGesturesDetector = new GestureDetector(context, this);
+		mVelocityTracker = VelocityTracker.obtain();
+		mMaxFlingVelocity = ViewConfiguration.get(context).getScaledMaximumFlingVelocity();
+		mMotionEngine = new PhysicsMotionEngine();
 		mViewRect = new Rect();
-		mMinFlingDistance = FLING_MIN_DP_DISTANCE * Resources.getSystem().getDisplayMetrics().density;
+		mInitRect = new Rect();
+		mParenRect = new Rect();
+		mProximities = new float[4];
+		mDismissPolicy = new DefaultDismissPolicy();
 		mDirections = new Direction[] {Direction.LEFT, Direction.TOP, Direction.RIGHT, Direction.BOTTOM};
 	}
 
@@ -120,13 +181,21 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	public boolean onDown(MotionEvent e) {
 
 		// Measure parent
-		mParenRect = new Rect(0, 0, ((View) mView.getParent()).getWidth(),
+		mParenRect.set(0, 0, ((View) mView.getParent()).getWidth(),
 				((View) mView.getParent()).getHeight());
 
 		// Keep snapshot of initial view state
-		mInitRect = new Rect(mView.getLeft(), mView.getTop(), mView.getRight(), mView.getBottom());
+		mInitRect.set(mView.getLeft(), mView.getTop(), mView.getRight(), mView.getBottom());
+
+		// Sizes hold for the whole gesture, geometry depending on them is computed once
+		if (mParenRect.width() != mPolicyWidth || mParenRect.height() != mPolicyHeight) {
+			mPolicyWidth = mParenRect.width();
+			mPolicyHeight = mParenRect.height();
+			mDismissPolicy.onParentResized(mPolicyWidth, mPolicyHeight);
+		}
+		mRelease.setSizes(mPolicyWidth, mPolicyHeight, mInitRect.width(), mInitRect.height());
 
-		return !mIsAnimating;
+		return !mModel.isSettling();
 	}
 
 	@Override
@@ -136,15 +205,35 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 		mViewRect.set((int) v.getX(), (int) v.getY(), (int) (v.getX() + v.getWidth()),
 				(int) (v.getY() + v.getHeight()));
 
-		if (mGesturesDetector.onTouchEvent(event)) return true;
+		final int action = event.getActionMasked();
+
+		// View has to be where pointer last was before deciding its fate
+		if (action == MotionEvent.ACTION_UP) flushScroll();
+
+		trackPointers(event);
+		trackVelocity(event);
 
-		if (event.getAction() == MotionEvent.ACTION_UP) {
-			// If view dropped outside of target area
-			if (calculateIntersection(mParenRect, mViewRect) > OUTSIDE_THRESHOLD
+		final boolean handled = mGesturesDetector.onTouchEvent(event);
+
+		// Gesture taken away, by a parent intercepting it for instance
+		if (action == MotionEvent.ACTION_CANCEL) {
+			cancelGesture();
+			return true;
+		}
+
+		if (handled) return true;
+
+		// Card released already, still on its way
+		if (mModel.isSettling()) return true;
+
+		if (action == MotionEvent.ACTION_UP) {
+			// Policy returning view can still be overruled by callback
+			final Direction direction = release(false);
+			if (direction == null
 					&& (mActionCallback != null && mActionCallback.onReturn(mView) || mActionCallback == null))
 					restore();
 			else
-				dismissTo(whereTo(mViewRect, mParenRect));
+				dismissTo(direction != null ? direction : whereTo(mViewRect, mParenRect));
 			return true;
 		}
 		return false;
@@ -175,28 +264,28 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	@Override
 	public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
 
-		// Find delta between initial and current position
-		final float deltaX = e2.getRawX() - e1.getRawX();
-		final float deltaY = e2.getRawY() - e1.getRawY();
+		// Card released by the previous gesture belongs to the motion engine until it settles
+		if (mModel.isSettling()) return false;
 
-		// Move view
-		mView.setX(mInitRect.left + deltaX);
-		mView.setY(mInitRect.top + deltaY);
-
-		final float leftProximity = calculateProximity(mInitRect.centerX(), mViewRect.centerX(), mParenRect.left);
-		final float topProximity = calculateProximity(mInitRect.centerY(), mViewRect.centerY(), mParenRect.top);
-		final float rightProximity = calculateProximity(mInitRect.centerX(), mViewRect.centerX(), mParenRect.right);
-		final float bottomProximity = calculateProximity(mInitRect.centerY(), mViewRect.centerY(), mParenRect.bottom);
+		// Find delta between initial and current position
+		if (!updateDelta(e2)) return false;
 
-		// Rotate view
-		if (deltaY > 0) mView.setRotation(deltaX / ROTATION_COEFFICIENT * (1 - bottomProximity));
-		else if (deltaY < 0) mView.setRotation(-deltaX / ROTATION_COEFFICIENT * (1 - topProximity));
+		// Card is being dragged, parents shouldn't steal following events
+		if (!mModel.isInGesture()) {
+			final ViewParent parent = mView.getParent();
+			if (parent != null) parent.requestDisallowInterceptTouchEvent(true);
+		}
 
-		if (mProximityCallback != null)
-			mProximityCallback.onProximityUpdate(
-					new float[] {leftProximity, topProximity, rightProximity, bottomProximity},
-					mView);
+		beginGesture();
+		if (mMetrics != null) mFrameMonitor.onInput(e2.getEventTime());
 
+		// Several events may come within a frame, only the latest one is worth drawing
+		if (!mCoalesceUpdates) {
+			applyScroll();
+		} else if (!mScrollPending) {
+			mScrollPending = true;
+			mScrollFrameScheduler.post();
+		}
 		return true;
 	}
 
@@ -206,52 +295,229 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	@Override
 	public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
 
+		// Card released by the previous gesture belongs to the motion engine until it settles
+		if (mModel.isSettling()) return false;
+
 		// Find delta between fling start and end position
-		float deltaX = e1.getRawX() - e2.getRawX();
-		float deltaY = e1.getRawY() - e2.getRawY();
-
-		if (Math.abs(deltaX) > Math.abs(deltaY)) {
-			if (Math.abs(deltaX) < mMinFlingDistance) return false; // Fling is big enough
-			if (deltaX > 0) dismissTo(Direction.LEFT);
-			else dismissTo(Direction.RIGHT);
-		} else {
-			if (Math.abs(deltaY) < mMinFlingDistance) return false; // Fling is big enough
-			if (deltaY > 0) dismissTo(Direction.TOP);
-			else dismissTo(Direction.BOTTOM);
+		if (!updateDelta(e2)) return false;
+
+		// Fling declined is handled as a plain release
+		final Direction direction = release(true);
+		if (direction == null) return false;
+
+		dismissTo(direction);
+		return true;
+	}
+
+
+	/**
+	 * Ask policy where released view goes.
+	 *
+	 * @param fling True if view was flinged
+	 * @return Direction view should be dismissed to, null for it to return
+	 */
+	@Nullable
+	private Direction release(boolean fling) {
+
+		calculateProximities(mViewRect, mParenRect, mProximities);
+		mRelease.setBounds(mViewRect.left, mViewRect.top, mViewRect.right, mViewRect.bottom, mProximities);
+		mRelease.setDelta(mScrollDeltaX, mScrollDeltaY);
+		mRelease.setVelocity(mReleaseVelocityX, mReleaseVelocityY, fling);
+		return mDismissPolicy.onRelease(mRelease);
+	}
+
+
+	/**
+	 * Move and rotate view following latest pointer delta, and report proximities.
+	 */
+	private void applyScroll() {
+
+		mScrollPending = false;
+
+		// Move view
+		mView.setX(mInitRect.left + mScrollDeltaX);
+		mView.setY(mInitRect.top + mScrollDeltaY);
+
+		// Area captured on touch predates the move, a release flushing it relies on this one
+		mViewRect.set((int) mView.getX(), (int) mView.getY(), (int) (mView.getX() + mView.getWidth()),
+				(int) (mView.getY() + mView.getHeight()));
+		calculateProximities(mViewRect, mParenRect, mProximities);
+		mModel.setProximities(mProximities);
+
+		// Rotate view
+		if (mScrollDeltaY > 0) mView.setRotation(mScrollDeltaX / ROTATION_COEFFICIENT * (1 - mProximities[3]));
+		else if (mScrollDeltaY < 0) mView.setRotation(-mScrollDeltaX / ROTATION_COEFFICIENT * (1 - mProximities[1]));
+
+		if (mProximityCallback != null)
+			mProximityCallback.onProximityUpdate(mProximities, mView);
+	}
+
+
+	/**
+	 * Apply pending pointer delta right away.
+	 */
+	private void flushScroll() {
+
+		if (!mScrollPending) return;
+		mScrollFrameScheduler.remove();
+		applyScroll();
+	}
+
+
+	/**
+	 * Drop pending pointer delta.
+	 */
+	private void cancelScroll() {
+
+		if (!mScrollPending) return;
+		mScrollPending = false;
+		mScrollFrameScheduler.remove();
+	}
+
+
+	/**
+	 * Keep track of the pointer moving view. If it goes up while others are down, the next one
+	 * takes over from where view is.
+	 *
+	 * @param event Touch event
+	 */
+	private void trackPointers(MotionEvent event) {
+
+		switch (event.getActionMasked()) {
+			case MotionEvent.ACTION_DOWN:
+				mActivePointerId = event.getPointerId(0);
+				mDownRawX = event.getRawX();
+				mDownRawY = event.getRawY();
+				mScrollDeltaX = mScrollDeltaY = 0;
+				break;
+			case MotionEvent.ACTION_POINTER_UP:
+				final int index = event.getActionIndex();
+				if (event.getPointerId(index) != mActivePointerId) break;
+
+				final int newIndex = index == 0 ? 1 : 0;
+				mActivePointerId = event.getPointerId(newIndex);
+				getRawPosition(event, newIndex, mPointerPosition);
+				mDownRawX = mPointerPosition[0] - mScrollDeltaX;
+				mDownRawY = mPointerPosition[1] - mScrollDeltaY;
+				break;
+			default:
+				break;
 		}
+	}
+
+
+	/**
+	 * Update delta between active pointer and its position when gesture started.
+	 *
+	 * @param event Touch event
+	 * @return False if active pointer isn't part of the event
+	 */
+	private boolean updateDelta(MotionEvent event) {
+
+		final int index = event.findPointerIndex(mActivePointerId);
+		if (index < 0) return false;
+
+		getRawPosition(event, index, mPointerPosition);
+		mScrollDeltaX = mPointerPosition[0] - mDownRawX;
+		mScrollDeltaY = mPointerPosition[1] - mDownRawY;
 		return true;
 	}
 
 
+	/**
+	 * Get screen position of a pointer. Events are in view coordinates, which rotate along with
+	 * view, so offsets from the first pointer are mapped back through view matrix.
+	 *
+	 * @param event Touch event
+	 * @param index Pointer index
+	 * @param out Array to be filled with [x, y]
+	 */
+	private void getRawPosition(MotionEvent event, int index, float[] out) {
+
+		if (index == 0) {
+			out[0] = event.getRawX();
+			out[1] = event.getRawY();
+			return;
+		}
+		out[0] = event.getX(index) - event.getX(0);
+		out[1] = event.getY(index) - event.getY(0);
+		mView.getMatrix().mapVectors(out);
+		out[0] += event.getRawX();
+		out[1] += event.getRawY();
+	}
+
+
+	/**
+	 * Put view back once its gesture was taken away, whatever the action callback says, so it's
+	 * never left stranded mid drag. Gestures taken away before any drag leave the view alone.
+	 */
+	private void cancelGesture() {
+
+		mActivePointerId = INVALID_POINTER;
+		cancelScroll();
+		if (mModel.getState() != DeckModel.State.DRAGGING) return;
+
+		if (mActionCallback != null) mActionCallback.onReturn(mView);
+		restore();
+	}
+
+
+	/**
+	 * Feed velocity tracker with the given event in screen coordinates.
+	 *
+	 * @param event Touch event, left untouched
+	 */
+	private void trackVelocity(MotionEvent event) {
+
+		final int action = event.getActionMasked();
+		if (action == MotionEvent.ACTION_DOWN) {
+			mVelocityTracker.clear();
+			mReleaseVelocityX = mReleaseVelocityY = 0;
+		}
+
+		final float offsetX = event.getRawX() - event.getX();
+		final float offsetY = event.getRawY() - event.getY();
+		event.offsetLocation(offsetX, offsetY);
+		mVelocityTracker.addMovement(event);
+		event.offsetLocation(-offsetX, -offsetY);
+
+		if (action == MotionEvent.ACTION_UP) {
+			mVelocityTracker.computeCurrentVelocity(VELOCITY_UNITS, mMaxFlingVelocity);
+			mReleaseVelocityX = mVelocityTracker.getXVelocity(mActivePointerId);
+			mReleaseVelocityY = mVelocityTracker.getYVelocity(mActivePointerId);
+		}
+	}
+
+
 	/**
 	 * Replace view into its initial state (ex. position, scale)
 	 */
 	private void restore() {
 
-		mIsAnimating = true;
-		mView.animate()
-				.x(mInitRect.left)
-				.y(mInitRect.top)
-				.rotation(0)
-				.setListener(mReturnAnimationListener)
-				.setDuration(ANIMATION_DURATION);
+		flushScroll();
+		beginGesture();
+		mModel.restore();
+		if (mMetrics != null) mFrameMonitor.onAnimationStart();
+		mMotionEngine.restore(mView, mInitRect.left, mInitRect.top,
+				mReleaseVelocityX, mReleaseVelocityY, mReturnAnimationListener);
 	}
 
 
 	/**
 	 * Dismiss view to specific position.
 	 *
+	 * @param direction Direction view is dismissed to
 	 * @param x x position to dismiss view
 	 * @param y y position to dismiss view
 	 */
-	private void dismiss(int x, int y) {
-
-		mIsAnimating = true;
-		mView.animate()
-				.x(x)
-				.y(y)
-				.setListener(mDismissAnimationListener)
-				.setDuration(ANIMATION_DURATION);
+	private void dismiss(Direction direction, int x, int y) {
+
+		flushScroll();
+		beginGesture();
+		mModel.dismiss(direction);
+		if (mMetrics != null) mFrameMonitor.onAnimationStart();
+		mMotionEngine.dismiss(mView, x, y, mReleaseVelocityX, mReleaseVelocityY,
+				mDismissAnimationListener);
 	}
 
 
@@ -262,20 +528,20 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	 */
 	private void dismissTo(Direction direction) {
 
-		if (Arrays.asList(mDirections).contains(direction)
+		if (isAllowed(direction)
 				&& (mActionCallback != null && mActionCallback.onDismiss(direction, mView) || mActionCallback == null))
 			switch (direction) {
 				case LEFT:
-					dismiss(mViewRect.left - (mViewRect.right - mParenRect.left), mViewRect.top);
+					dismiss(direction, mViewRect.left - (mViewRect.right - mParenRect.left), mViewRect.top);
 					break;
 				case TOP:
-					dismiss(mViewRect.left, mViewRect.top - (mViewRect.bottom - mParenRect.top));
+					dismiss(direction, mViewRect.left, mViewRect.top - (mViewRect.bottom - mParenRect.top));
 					break;
 				case RIGHT:
-					dismiss(mViewRect.left + (mParenRect.right - mViewRect.left), mViewRect.top);
+					dismiss(direction, mViewRect.left + (mParenRect.right - mViewRect.left), mViewRect.top);
 					break;
 				case BOTTOM:
-					dismiss(mViewRect.left, mViewRect.top + (mParenRect.bottom - mViewRect.top));
+					dismiss(direction, mViewRect.left, mViewRect.top + (mParenRect.bottom - mViewRect.top));
 					break;
 				default:
 					restore();
@@ -287,18 +553,34 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	}
 
 
+	/**
+	 * Report gesture start, once per gesture.
+	 */
+	private void beginGesture() {
+
+		if (mModel.isInGesture()) return;
+		mModel.startDrag();
+		if (mMetrics != null) mFrameMonitor.start(mMetrics, mGestureMetrics);
+		if (mGestureCallback != null) mGestureCallback.onGestureStart(mView);
+	}
+
+
 	/**
 	 * Restore view intial state.
 	 */
 	private void restoreState() {
 
-		mIsAnimating = false;
-		mView.animate().setListener(null);
-		if (mProximityCallback != null)
-			mProximityCallback.onProximityUpdate(new float[]{1, 1, 1, 1}, mView);
+		mProximities[0] = mProximities[1] = mProximities[2] = mProximities[3] = 1;
+		mModel.setProximities(mProximities);
+		if (mProximityCallback != null) mProximityCallback.onProximityUpdate(mProximities, mView);
 		mView.setX(mInitRect.left);
 		mView.setY(mInitRect.top);
 		mView.setRotation(0);
+		if (mModel.isSettling()) {
+			final boolean dismissed = mModel.settle() == DeckModel.State.DISMISSING;
+			if (mMetrics != null) mFrameMonitor.stop(dismissed);
+			if (mGestureCallback != null) mGestureCallback.onGestureEnd(mView);
+		}
 	}
 
 
@@ -312,63 +594,55 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	 */
 	private Direction whereTo(Rect view, Rect parent) {
 
-		final float[] proximities
-				= new float[] {calculateProximity(mInitRect.centerX(), view.centerX(), parent.left),
-				calculateProximity(mInitRect.centerY(), view.centerY(), parent.top),
-				calculateProximity(mInitRect.centerX(), view.centerX(), parent.right),
-				calculateProximity(mInitRect.centerY(), view.centerY(), parent.bottom)};
-
-		int index = 0;
-		float min = proximities[index];
-		for (int i = 1; i < proximities.length; i++)
-			if (proximities[i] < min) {
-				min = proximities[i];
-				index = i;
-			}
-
-		switch (index) {
-			case 0: return Direction.LEFT;
-			case 1: return Direction.TOP;
-			case 2: return Direction.RIGHT;
-			case 3: return Direction.BOTTOM;
-			default: return Direction.LEFT;
-		}
+		calculateProximities(view, parent, mProximities);
+		return DeckMath.closestSide(mProximities);
 	}
 
 
 	/**
-	 * Calculate proximity, from 0 to 1, between two points having into account an initial position.
+	 * Check whether view can be dismissed to the given direction.
 	 *
-	 * @param initPos Initial view position
-	 * @param viewPos Current view position
-	 * @param boundPos Bound position
+	 * @param direction Direction to be checked
 	 *
-	 * @return Proximity between 2 points considering an initial position
+	 * @return True if direction is part of the allowed directions
 	 */
-	private float calculateProximity(float initPos, float viewPos, float boundPos) {
+	boolean isAllowed(Direction direction) {
 
-		return (initPos >= boundPos) ? (viewPos - boundPos) / (initPos - boundPos)
-				: (boundPos - viewPos) / (boundPos - initPos);
+		for (Direction allowed : mDirections)
+			if (allowed == direction) return true;
+		return false;
 	}
 
 
 	/**
-	 * Calculate the percentage of the intersection between two areas.
-	 *
-	 * @param rectA {@link Rect} A
-	 * @param rectB {@link Rect} B
+	 * Calculate proximities of the view to each parent side, having into account its initial
+	 * position.
 	 *
-	 * @return Intersection percentage between the two given areas
+	 * @param view Current view area
+	 * @param parent Parent area
+	 * @param out Array to be filled with [left, top, right, bottom] proximities
 	 */
-	private float calculateIntersection(Rect rectA, Rect rectB) {
+	private void calculateProximities(Rect view, Rect parent, float[] out) {
+
+		out[0] = calculateProximity(mInitRect.centerX(), view.centerX(), parent.left);
+		out[1] = calculateProximity(mInitRect.centerY(), view.centerY(), parent.top);
+		out[2] = calculateProximity(mInitRect.centerX(), view.centerX(), parent.right);
+		out[3] = calculateProximity(mInitRect.centerY(), view.centerY(), parent.bottom);
+	}
 
-		final float overlapArea = Math.max(0,
-				Math.min(rectA.right, rectB.right) - Math.max(rectA.left, rectB.left))
-				* Math.max(0, Math.min(rectA.bottom, rectB.bottom) - Math.max(rectA.top, rectB.top));
-		final float areaA = rectA.width() * rectA.height();
-		final float areaB = rectB.width() * rectB.height();
 
-		return (areaA < areaB) ? overlapArea / areaA : overlapArea / areaB;
+	/**
+	 * Calculate proximity, from 0 to 1, between two points having into account an initial position.
+	 *
+	 * @param initPos Initial view position
+	 * @param viewPos Current view position
+	 * @param boundPos Bound position
+	 *
+	 * @return Proximity between 2 points considering an initial position
+	 */
+	private float calculateProximity(float initPos, float viewPos, float boundPos) {
+
+		return DeckMath.proximity(initPos, viewPos, boundPos);
 	}
 
 
@@ -394,6 +668,33 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	}
 
 
+	/**
+	 * Set callback to be used to report gesture start and end.
+	 *
+	 * @param callback Callback to report about gesture lifecycle
+	 */
+	public void setGestureListener(FlingChiefListener.Gesture callback) {
+
+		this.mGestureCallback = callback;
+	}
+
+
+	/**
+	 * Set listener to receive gesture metrics. Nothing is measured while no listener is set.
+	 *
+	 * @param metrics Listener to report metrics to, null to stop measuring
+	 */
+	public void setMetrics(@Nullable DeckMetrics metrics) {
+
+		if (mFrameMonitor != null) mFrameMonitor.stop(mModel.getState() == DeckModel.State.DISMISSING);
+		if (metrics != null && mFrameMonitor == null) {
+			mFrameMonitor = new FrameMonitor(mContext);
+			mGestureMetrics = new GestureMetrics();
+		}
+		mMetrics = metrics;
+	}
+
+
 	/**
 	 * Defined allowed directions, of type {@link Direction}, to where view can be dismissed.
 	 *
@@ -405,12 +706,64 @@ public class FlingChief implements View.OnTouchListener, GestureDetector.OnGestu
 	}
 
 
+	/**
+	 * Set policy deciding whether a released view is dismissed, and to where, or returned.
+	 * {@link DefaultDismissPolicy} by default.
+	 *
+	 * @param policy Policy deciding fate of released views
+	 */
+	public void setDismissPolicy(@NonNull DismissPolicy policy) {
+
+		mDismissPolicy = policy;
+		// Geometry is computed on next gesture
+		mPolicyWidth = mPolicyHeight = -1;
+	}
+
+
+	/**
+	 * Set whether view moves, rotation and proximity reports are batched to once per frame, with
+	 * the latest pointer position. Enabled by default, disable to be called on every touch event.
+	 *
+	 * @param coalesce True to update once per frame
+	 */
+	public void setCoalesceUpdates(boolean coalesce) {
+
+		if (!coalesce) flushScroll();
+		mCoalesceUpdates = coalesce;
+	}
+
+
+	/**
+	 * Set model tracking the gesture state of view, shared with the deck view is part of.
+	 *
+	 * @param model Model driven by gestures
+	 */
+	public void setModel(@NonNull DeckModel model) {
+
+		mModel = model;
+	}
+
+
+	/**
+	 * Set engine used to move view once released, {@link PhysicsMotionEngine} by default.
+	 *
+	 * @param engine Engine moving view once released
+	 */
+	public void setMotionEngine(@NonNull MotionEngine engine) {
+
+		// Any running motion is left to finish on the previous engine
+		mMotionEngine = engine;
+	}
+
+
 	/**
 	 * Inject new view to be moved. Will override any previous view set.
 	 * @param view New view to be handled.
 	 */
 	public void injectView( View view) {
 
+		// Pending moves belong to previous view
+		cancelScroll();
 		mView = view;
 		mView.setOnTouchListener(this);
 	}
@@ -71,9 +71,48 @@ public interface FlingChiefListener {
 		 *
 		 * @param proximities Array of integers [left, top, right, bottom], with values from 0 to 1,
 		 *                          representing the proximity of the view to the parent border.
+		 *                          The array is reused between calls and should not be kept.
 		 * @param view View
 		 */
 		void onProximityUpdate(@NonNull float[] proximities, @NonNull View view);
 	}
 
+	/**
+	 * Callbacks following the lifecycle of a gesture, from the moment view starts moving until
+	 * it is back to rest after being dismissed or returned.
+	 */
+	interface Gesture {
+
+		/**
+		 * Once view starts moving.
+		 *
+		 * @param view View being moved
+		 */
+		void onGestureStart(@NonNull View view);
+
+		/**
+		 * Once view is back to rest, right before being reported as dismissed or returned.
+		 *
+		 * @param view View moved
+		 */
+		void onGestureEnd(@NonNull View view);
+	}
+
+	/**
+	 * Callback asking for a dismissed item to be restored.
+	 */
+	interface Rewind {
+
+		/**
+		 * Once a dismissed card is about to be rewound. Item should be inserted back at the
+		 * deck top position, 0 unless dismissed items are kept in the adapter (see
+		 * {@link RossDeckView#getTopPosition()}), and adapter notified, for its card to come back.
+		 *
+		 * @param itemId Adapter id of the dismissed item
+		 * @param direction Direction card left through, and comes back from
+		 * @return True if item was restored, False otherwise
+		 */
+		boolean onRewind(long itemId, @NonNull FlingChief.Direction direction);
+	}
+
 }
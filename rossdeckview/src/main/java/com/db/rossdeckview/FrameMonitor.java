@@ -0,0 +1,135 @@
+package com.db.rossdeckview;
+
+import android.content.Context;
+import android.view.WindowManager;
+
+
+/**
+ * Watches frames rendered while a gesture runs, reporting frame times, janky and dropped frames
+ * and input latency.
+ */
+class FrameMonitor implements FrameScheduler.Callback {
+
+    private static final float NANOS_PER_SECOND = 1e9f;
+
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+
+    /** Frame is janky once it takes longer than this many frame intervals */
+    private static final float JANK_THRESHOLD = 1.5f;
+
+    private final long mFrameIntervalNanos;
+
+    private final FrameScheduler mFrameScheduler = FrameScheduler.create(this);
+
+    private DeckMetrics mMetrics;
+
+    private GestureMetrics mGesture;
+
+    private boolean mRunning;
+
+    private boolean mAnimating;
+
+    private long mStartNanos;
+
+    private long mLastFrameNanos;
+
+    /** Time of the oldest drag event not yet rendered, 0 if none */
+    private long mPendingInputNanos;
+
+
+    FrameMonitor(Context context) {
+
+        float refreshRate = DEFAULT_REFRESH_RATE;
+        final WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        if (windowManager != null && windowManager.getDefaultDisplay().getRefreshRate() > 0)
+            refreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        mFrameIntervalNanos = (long) (NANOS_PER_SECOND / refreshRate);
+    }
+
+
+    /**
+     * Start watching frames.
+     *
+     * @param metrics Listener to report to
+     * @param gesture Gesture summary to be filled
+     */
+    void start(DeckMetrics metrics, GestureMetrics gesture) {
+
+        if (mRunning) return;
+
+        mMetrics = metrics;
+        mGesture = gesture;
+        mGesture.reset();
+        mRunning = true;
+        mAnimating = false;
+        mPendingInputNanos = 0;
+        mStartNanos = System.nanoTime();
+        mLastFrameNanos = 0;
+        mFrameScheduler.post();
+    }
+
+
+    /**
+     * Report a drag event, to be matched with the next frame.
+     *
+     * @param eventTimeMillis Event time, in {@link android.os.SystemClock#uptimeMillis()} base
+     */
+    void onInput(long eventTimeMillis) {
+
+        if (!mRunning) return;
+
+        mGesture.onScroll();
+        if (mPendingInputNanos == 0)
+            mPendingInputNanos = eventTimeMillis * NANOS_PER_MILLI;
+    }
+
+
+    /**
+     * Flag following frames as part of the dismiss or return animation.
+     */
+    void onAnimationStart() {
+        mAnimating = true;
+    }
+
+
+    /**
+     * Stop watching frames and report gesture summary.
+     *
+     * @param dismissed Whether gesture ended with view dismissed
+     */
+    void stop(boolean dismissed) {
+
+        if (!mRunning) return;
+
+        mRunning = false;
+        mFrameScheduler.remove();
+        mGesture.setDismissed(dismissed);
+        mGesture.setDurationNanos(System.nanoTime() - mStartNanos);
+        mMetrics.onGestureEnd(mGesture);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+
+        if (!mRunning) return;
+
+        if (mPendingInputNanos != 0) {
+            mMetrics.onInputLatency(frameTimeNanos - mPendingInputNanos);
+            mPendingInputNanos = 0;
+        }
+
+        if (mLastFrameNanos != 0) {
+            final long frameNanos = frameTimeNanos - mLastFrameNanos;
+            final boolean janky = frameNanos > mFrameIntervalNanos * JANK_THRESHOLD;
+            final int dropped = (int) Math.max(0, Math.round((double) frameNanos / mFrameIntervalNanos) - 1);
+            mGesture.onFrame(mAnimating, janky, dropped);
+            mMetrics.onFrame(frameNanos, mAnimating);
+        }
+        mLastFrameNanos = frameTimeNanos;
+
+        mFrameScheduler.post();
+    }
+
+}
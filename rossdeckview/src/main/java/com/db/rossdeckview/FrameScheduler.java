@@ -0,0 +1,111 @@
+package com.db.rossdeckview;
+
+import android.animation.ValueAnimator;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+
+/**
+ * Runs a callback on the next frame. Frames come from {@link Choreographer} from API 16 on, and
+ * before it from the main looper, every animation frame delay.
+ */
+abstract class FrameScheduler {
+
+    final Callback mCallback;
+
+
+    FrameScheduler(Callback callback) {
+        mCallback = callback;
+    }
+
+
+    /**
+     * Scheduler for the running platform.
+     *
+     * @param callback Callback run on frames
+     * @return New scheduler
+     */
+    static FrameScheduler create(Callback callback) {
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+            return new ChoreographerScheduler(callback);
+        return new LooperScheduler(callback);
+    }
+
+
+    /**
+     * Run callback once, on the next frame.
+     */
+    abstract void post();
+
+
+    /**
+     * Drop callback posted, if any.
+     */
+    abstract void remove();
+
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class ChoreographerScheduler extends FrameScheduler implements Choreographer.FrameCallback {
+
+        ChoreographerScheduler(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        void post() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mCallback.doFrame(frameTimeNanos);
+        }
+    }
+
+
+    private static final class LooperScheduler extends FrameScheduler implements Runnable {
+
+        private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+        LooperScheduler(Callback callback) {
+            super(callback);
+        }
+
+        @Override
+        void post() {
+            mHandler.postDelayed(this, ValueAnimator.getFrameDelay());
+        }
+
+        @Override
+        void remove() {
+            mHandler.removeCallbacks(this);
+        }
+
+        @Override
+        public void run() {
+            mCallback.doFrame(System.nanoTime());
+        }
+    }
+
+
+    /**
+     * Callback run on frames.
+     */
+    interface Callback {
+
+        /**
+         * @param frameTimeNanos Frame time, in {@link System#nanoTime()} base
+         */
+        void doFrame(long frameTimeNanos);
+    }
+
+}
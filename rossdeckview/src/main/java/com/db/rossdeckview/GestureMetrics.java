@@ -0,0 +1,154 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Summary of a single gesture, from the moment view starts moving until it is back to rest.
+ */
+public final class GestureMetrics {
+
+    private long mDurationNanos;
+
+    private int mScrollEvents;
+
+    private int mDragFrames;
+
+    private int mDragJankyFrames;
+
+    private int mDragDroppedFrames;
+
+    private int mAnimationFrames;
+
+    private int mAnimationJankyFrames;
+
+    private int mAnimationDroppedFrames;
+
+    private boolean mDismissed;
+
+
+    GestureMetrics() { }
+
+
+    /**
+     * Clear counters, for a new gesture.
+     */
+    void reset() {
+
+        mDurationNanos = 0;
+        mScrollEvents = 0;
+        mDragFrames = 0;
+        mDragJankyFrames = 0;
+        mDragDroppedFrames = 0;
+        mAnimationFrames = 0;
+        mAnimationJankyFrames = 0;
+        mAnimationDroppedFrames = 0;
+        mDismissed = false;
+    }
+
+    /**
+     * Once a drag event was handled.
+     */
+    void onScroll() {
+        mScrollEvents++;
+    }
+
+    /**
+     * Once a frame of the gesture was drawn.
+     *
+     * @param animating True if view was animating, following the pointer otherwise
+     * @param janky True if frame took noticeably longer than the refresh period
+     * @param dropped Number of frames dropped before this one
+     */
+    void onFrame(boolean animating, boolean janky, int dropped) {
+
+        if (animating) {
+            mAnimationFrames++;
+            if (janky) mAnimationJankyFrames++;
+            mAnimationDroppedFrames += dropped;
+        } else {
+            mDragFrames++;
+            if (janky) mDragJankyFrames++;
+            mDragDroppedFrames += dropped;
+        }
+    }
+
+    void setDismissed(boolean dismissed) {
+        mDismissed = dismissed;
+    }
+
+    void setDurationNanos(long durationNanos) {
+        mDurationNanos = durationNanos;
+    }
+
+
+    /**
+     * Gesture duration.
+     *
+     * @return Duration, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return mDurationNanos;
+    }
+
+    /**
+     * Number of drag events handled.
+     *
+     * @return Number of scroll events
+     */
+    public int getScrollEvents() {
+        return mScrollEvents;
+    }
+
+    public int getDragFrames() {
+        return mDragFrames;
+    }
+
+    /**
+     * Frames, while dragging, which took longer than one and a half frame interval.
+     *
+     * @return Number of janky frames
+     */
+    public int getDragJankyFrames() {
+        return mDragJankyFrames;
+    }
+
+    /**
+     * Frame intervals skipped while dragging.
+     *
+     * @return Number of dropped frames
+     */
+    public int getDragDroppedFrames() {
+        return mDragDroppedFrames;
+    }
+
+    public int getAnimationFrames() {
+        return mAnimationFrames;
+    }
+
+    /**
+     * Frames, while dismissing or returning, which took longer than one and a half frame interval.
+     *
+     * @return Number of janky frames
+     */
+    public int getAnimationJankyFrames() {
+        return mAnimationJankyFrames;
+    }
+
+    /**
+     * Frame intervals skipped while dismissing or returning.
+     *
+     * @return Number of dropped frames
+     */
+    public int getAnimationDroppedFrames() {
+        return mAnimationDroppedFrames;
+    }
+
+    /**
+     * Whether gesture ended with view dismissed.
+     *
+     * @return True if dismissed, false if returned
+     */
+    public boolean isDismissed() {
+        return mDismissed;
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Histogram of durations, in nanoseconds, with log-linear buckets in the spirit of HdrHistogram.
+ * Values up to 31 are recorded exactly, larger ones within about 6% of their value. Recording
+ * doesn't allocate.
+ */
+public final class LatencyHistogram {
+
+    /** Number of buckets per power of two, past the exact range */
+    private static final int SUB_BUCKET_COUNT = 16;
+
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Values below this one have a bucket of their own */
+    private static final int EXACT_RANGE = 2 * SUB_BUCKET_COUNT;
+
+    private static final int BUCKET_COUNT = EXACT_RANGE + (Long.SIZE - 1 - SUB_BUCKET_BITS - 1) * SUB_BUCKET_COUNT;
+
+    private static final double PERCENT = 100d;
+
+    private final long[] mCounts = new long[BUCKET_COUNT];
+
+    private long mTotalCount;
+
+    private long mTotal;
+
+    private long mMin = Long.MAX_VALUE;
+
+    private long mMax;
+
+
+    /**
+     * Record a value.
+     *
+     * @param value Duration, in nanoseconds. Negative values are recorded as zero
+     */
+    public void record(long value) {
+
+        final long v = Math.max(0, value);
+        mCounts[indexOf(v)]++;
+        mTotalCount++;
+        mTotal += v;
+        mMin = Math.min(mMin, v);
+        mMax = Math.max(mMax, v);
+    }
+
+
+    /**
+     * Add every value recorded by another histogram.
+     *
+     * @param other Histogram to be added
+     */
+    public void add(LatencyHistogram other) {
+
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            mCounts[i] += other.mCounts[i];
+        mTotalCount += other.mTotalCount;
+        mTotal += other.mTotal;
+        mMin = Math.min(mMin, other.mMin);
+        mMax = Math.max(mMax, other.mMax);
+    }
+
+
+    /**
+     * Drop every recorded value.
+     */
+    public void reset() {
+
+        for (int i = 0; i < BUCKET_COUNT; i++)
+            mCounts[i] = 0;
+        mTotalCount = 0;
+        mTotal = 0;
+        mMin = Long.MAX_VALUE;
+        mMax = 0;
+    }
+
+    public long getTotalCount() {
+        return mTotalCount;
+    }
+
+    public long getMin() {
+        return mTotalCount == 0 ? 0 : mMin;
+    }
+
+    public long getMax() {
+        return mMax;
+    }
+
+    public double getMean() {
+        return mTotalCount == 0 ? 0 : (double) mTotal / mTotalCount;
+    }
+
+
+    /**
+     * Value under which the given percentage of recorded values falls.
+     *
+     * @param percentile Percentile, from 0 to 100
+     * @return Highest value equivalent to the percentile, in nanoseconds
+     */
+    public long getValueAtPercentile(double percentile) {
+
+        if (mTotalCount == 0)
+            return 0;
+
+        final long target = Math.max(1,
+                (long) Math.ceil(Math.min(PERCENT, Math.max(0, percentile)) / PERCENT * mTotalCount));
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += mCounts[i];
+            if (count >= target)
+                return Math.min(mMax, getBucketUpperBound(i));
+        }
+        return mMax;
+    }
+
+
+    /**
+     * Number of buckets, to be used when exporting the histogram.
+     *
+     * @return Number of buckets
+     */
+    public int getBucketCount() {
+        return BUCKET_COUNT;
+    }
+
+
+    /**
+     * Number of values recorded in a bucket.
+     *
+     * @param index Bucket index
+     * @return Number of values in bucket
+     */
+    public long getCountAtBucket(int index) {
+        return mCounts[index];
+    }
+
+
+    /**
+     * Lowest value recorded by a bucket.
+     *
+     * @param index Bucket index
+     * @return Lowest value of bucket, in nanoseconds
+     */
+    public long getBucketLowerBound(int index) {
+
+        if (index < EXACT_RANGE)
+            return index;
+        final int shift = (index - EXACT_RANGE) / SUB_BUCKET_COUNT + 1;
+        final long subBucket = (index - EXACT_RANGE) % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return subBucket << shift;
+    }
+
+
+    /**
+     * Highest value recorded by a bucket.
+     *
+     * @param index Bucket index
+     * @return Highest value of bucket, in nanoseconds
+     */
+    public long getBucketUpperBound(int index) {
+
+        if (index < EXACT_RANGE)
+            return index;
+        final int shift = (index - EXACT_RANGE) / SUB_BUCKET_COUNT + 1;
+        return getBucketLowerBound(index) + (1L << shift) - 1;
+    }
+
+
+    /**
+     * Index of the bucket a value is recorded in.
+     */
+    private static int indexOf(long value) {
+
+        if (value < EXACT_RANGE)
+            return (int) value;
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift);
+        return EXACT_RANGE + (shift - 1) * SUB_BUCKET_COUNT + subBucket - SUB_BUCKET_COUNT;
+    }
+
+}
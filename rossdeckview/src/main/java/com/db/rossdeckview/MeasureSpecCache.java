@@ -0,0 +1,103 @@
+package com.db.rossdeckview;
+
+import android.view.ViewGroup;
+
+
+/**
+ * Child measure specs of each view type. Cards of a type usually share their layout params, so
+ * specs are only computed again once the parent specs, or the card layout params, change.
+ */
+class MeasureSpecCache {
+
+    /** Ints per view type: the parent specs, paddings and card layout size keying the specs */
+    private static final int ENTRY_SIZE = 8;
+
+    private static final int PARENT_WIDTH_SPEC = 0;
+
+    private static final int PARENT_HEIGHT_SPEC = 1;
+
+    private static final int HORIZONTAL_PADDING = 2;
+
+    private static final int VERTICAL_PADDING = 3;
+
+    private static final int WIDTH = 4;
+
+    private static final int HEIGHT = 5;
+
+    private static final int WIDTH_SPEC = 6;
+
+    private static final int HEIGHT_SPEC = 7;
+
+    /** Specs found by the last {@link #find} call */
+    int widthSpec;
+
+    int heightSpec;
+
+    /** Key and specs of each view type */
+    private int[] mEntries;
+
+    private boolean[] mValid;
+
+
+    MeasureSpecCache() {
+        setViewTypeCount(1);
+    }
+
+
+    /**
+     * Reset the cache to hold the given number of view types.
+     *
+     * @param viewTypeCount Number of view types reported by the adapter
+     */
+    void setViewTypeCount(int viewTypeCount) {
+
+        mEntries = new int[viewTypeCount * ENTRY_SIZE];
+        mValid = new boolean[viewTypeCount];
+    }
+
+
+    /**
+     * Find child specs into {@link #widthSpec} and {@link #heightSpec}, computing them if needed.
+     *
+     * @param viewType Card view type
+     * @param parentWidthSpec Parent width spec
+     * @param parentHeightSpec Parent height spec
+     * @param horizontalPadding Parent padding and card margins, horizontally
+     * @param verticalPadding Parent padding and card margins, vertically
+     * @param width Card layout width
+     * @param height Card layout height
+     * @return True if specs were cached
+     */
+    boolean find(int viewType, int parentWidthSpec, int parentHeightSpec,
+                 int horizontalPadding, int verticalPadding, int width, int height) {
+
+        final boolean cacheable = viewType >= 0 && viewType < mValid.length;
+        final int i = viewType * ENTRY_SIZE;
+        if (cacheable && mValid[viewType]
+                && mEntries[i + PARENT_WIDTH_SPEC] == parentWidthSpec
+                && mEntries[i + PARENT_HEIGHT_SPEC] == parentHeightSpec
+                && mEntries[i + HORIZONTAL_PADDING] == horizontalPadding
+                && mEntries[i + VERTICAL_PADDING] == verticalPadding
+                && mEntries[i + WIDTH] == width && mEntries[i + HEIGHT] == height) {
+            widthSpec = mEntries[i + WIDTH_SPEC];
+            heightSpec = mEntries[i + HEIGHT_SPEC];
+            return true;
+        }
+
+        widthSpec = ViewGroup.getChildMeasureSpec(parentWidthSpec, horizontalPadding, width);
+        heightSpec = ViewGroup.getChildMeasureSpec(parentHeightSpec, verticalPadding, height);
+        if (cacheable) {
+            mEntries[i + PARENT_WIDTH_SPEC] = parentWidthSpec;
+            mEntries[i + PARENT_HEIGHT_SPEC] = parentHeightSpec;
+            mEntries[i + HORIZONTAL_PADDING] = horizontalPadding;
+            mEntries[i + VERTICAL_PADDING] = verticalPadding;
+            mEntries[i + WIDTH] = width;
+            mEntries[i + HEIGHT] = height;
+            mEntries[i + WIDTH_SPEC] = widthSpec;
+            mEntries[i + HEIGHT_SPEC] = heightSpec;
+            mValid[viewType] = true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+
+
+/**
+ * Moves a released view either out of its parent or back to its initial position.
+ */
+public interface MotionEngine {
+
+    /**
+     * Move view out of its parent.
+     *
+     * @param view View to be moved
+     * @param toX Final x position
+     * @param toY Final y position
+     * @param velocityX Release velocity on x, in pixels per second
+     * @param velocityY Release velocity on y, in pixels per second
+     * @param listener Listener to be notified once done
+     */
+    void dismiss(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener);
+
+    /**
+     * Move view back to its initial position, with no rotation.
+     *
+     * @param view View to be moved
+     * @param toX Initial x position
+     * @param toY Initial y position
+     * @param velocityX Release velocity on x, in pixels per second
+     * @param velocityY Release velocity on y, in pixels per second
+     * @param listener Listener to be notified once done
+     */
+    void restore(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener);
+
+    /**
+     * Stop any running motion, without notifying its listener.
+     */
+    void cancel();
+
+
+    /**
+     * Callback following the end of a motion.
+     */
+    interface Listener {
+
+        /**
+         * Once view reached its final position.
+         *
+         * @param view View moved
+         */
+        void onMotionEnd(@NonNull View view);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.db.rossdeckview;
+
+
+/**
+ * One dimensional motion integrated over time. Implementations are plain Java and can be
+ * stepped outside of Android.
+ */
+public interface MotionModel {
+
+    /**
+     * Start a new motion.
+     *
+     * @param position Start position, in pixels
+     * @param velocity Start velocity, in pixels per second
+     * @param target Position the motion is heading to, if the model has one
+     */
+    void start(float position, float velocity, float target);
+
+    /**
+     * Advance motion.
+     *
+     * @param dt Elapsed time, in seconds
+     * @return True once motion came to rest
+     */
+    boolean step(float dt);
+
+    /**
+     * Current position.
+     *
+     * @return Position, in pixels
+     */
+    float getPosition();
+
+    /**
+     * Current velocity.
+     *
+     * @return Velocity, in pixels per second
+     */
+    float getVelocity();
+
+}
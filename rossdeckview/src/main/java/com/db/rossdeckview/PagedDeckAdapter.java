@@ -0,0 +1,259 @@
+package com.db.rossdeckview;
+
+import android.database.DataSetObserver;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Adapter showing a {@link DeckDataSource} too large to be held in memory. Only a window of
+ * items from the front card on is resident. Pages are dropped once every item in them is
+ * consumed, and the next page is loaded in background before the window runs short. Loading
+ * starts once the adapter is observed, usually when set on a deck.
+ *
+ * @param <T> Item type
+ */
+public abstract class PagedDeckAdapter<T> extends BaseDeckAdapter {
+
+    /** Number of items loaded at once, unless given */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final String TAG = "PagedDeckAdapter";
+
+    private final DeckDataSource<T> mSource;
+
+    private final int mPageSize;
+
+    /** Next page is loaded once fewer items are resident */
+    private final int mLoadThreshold;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Resident pages, from the one holding the front item on */
+    private final List<List<T>> mPages = new ArrayList<>();
+
+    /** Items already consumed from the first page */
+    private int mConsumed;
+
+    private int mCount;
+
+    /** Last item loaded, pages continue after it */
+    @Nullable
+    private T mLast;
+
+    private boolean mLoading;
+
+    private boolean mExhausted;
+
+    /** Bumped on refresh, so pages being loaded are dropped */
+    private int mGeneration;
+
+    @NonNull
+    private Executor mExecutor = AsyncTask.THREAD_POOL_EXECUTOR;
+
+
+    /**
+     * Adapter loading {@link #DEFAULT_PAGE_SIZE} items at once, the next page once half of them
+     * were consumed.
+     *
+     * @param source Source to load items from
+     */
+    public PagedDeckAdapter(@NonNull DeckDataSource<T> source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_PAGE_SIZE / 2);
+    }
+
+    /**
+     * @param source Source to load items from
+     * @param pageSize Number of items loaded at once
+     * @param loadThreshold Next page is loaded once fewer items than this are resident, should
+     *                      be greater than the number of cards visible
+     */
+    public PagedDeckAdapter(@NonNull DeckDataSource<T> source, int pageSize, int loadThreshold) {
+
+        if (pageSize < 1)
+            throw new IllegalArgumentException("Can't have a pageSize < 1");
+
+        mSource = source;
+        mPageSize = pageSize;
+        mLoadThreshold = loadThreshold;
+    }
+
+
+    /**
+     * Set executor used to load pages, {@link AsyncTask#THREAD_POOL_EXECUTOR} by default. Applies
+     * to the first page as long as it's set before the adapter is observed.
+     *
+     * @param executor Executor loading pages
+     */
+    public void setExecutor(@NonNull Executor executor) {
+        mExecutor = executor;
+    }
+
+
+    /**
+     * Remove the front item, usually once its card was dismissed, and load the next page if
+     * needed.
+     */
+    public void consume() {
+
+        if (mCount == 0)
+            return;
+
+        mCount--;
+        if (++mConsumed == mPages.get(0).size()) {
+            mPages.remove(0);
+            mConsumed = 0;
+        }
+        notifyItemRemoved(0);
+        loadIfNeeded();
+    }
+
+
+    /**
+     * Drop every resident item and load the source again from its start.
+     */
+    public void refresh() {
+
+        mGeneration++;
+        mPages.clear();
+        mConsumed = 0;
+        mCount = 0;
+        mLast = null;
+        mLoading = false;
+        mExhausted = false;
+        notifyDataSetChanged();
+        loadIfNeeded();
+    }
+
+
+    /**
+     * Whether a page is being loaded.
+     *
+     * @return True if a page is being loaded
+     */
+    public boolean isLoading() {
+        return mLoading;
+    }
+
+
+    /**
+     * Whether every item of the source was loaded.
+     *
+     * @return True if the source has no more items
+     */
+    public boolean isExhausted() {
+        return mExhausted;
+    }
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+
+        super.registerDataSetObserver(observer);
+        // Deferred until now, for the executor to be set first
+        loadIfNeeded();
+    }
+
+    @Override
+    public int getCount() {
+        return mCount;
+    }
+
+    @Override
+    public T getItem(int position) {
+
+        int index = position + mConsumed;
+        for (List<T> page : mPages) {
+            if (index < page.size())
+                return page.get(index);
+            index -= page.size();
+        }
+        throw new IndexOutOfBoundsException("Position " + position + ", count " + mCount);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return mSource.getItemId(getItem(position));
+    }
+
+    @Override
+    public boolean hasStableIds() {
+        return true;
+    }
+
+
+    /**
+     * Called on the UI thread when the source failed to load a page. Loading is tried again on
+     * the next {@link #consume()}, or {@link #refresh()}. Logs the error by default.
+     *
+     * @param e Error thrown by the source
+     */
+    protected void onLoadFailed(@NonNull IOException e) {
+        Log.w(TAG, "Failed to load page", e);
+    }
+
+    private void loadIfNeeded() {
+
+        if (mLoading || mExhausted || mCount >= mLoadThreshold)
+            return;
+
+        mLoading = true;
+        final T last = mLast;
+        final int generation = mGeneration;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final List<T> page = mSource.loadAfter(last, mPageSize);
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            onPageLoaded(page, generation);
+                        }
+                    });
+                } catch (final IOException e) {
+                    mHandler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (generation != mGeneration)
+                                return;
+                            mLoading = false;
+                            onLoadFailed(e);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+
+    /**
+     * Append a page loaded in background, unless the adapter was refreshed meanwhile.
+     */
+    private void onPageLoaded(List<T> page, int generation) {
+
+        if (generation != mGeneration)
+            return;
+
+        mLoading = false;
+        mExhausted = page.size() < mPageSize;
+        if (page.isEmpty())
+            return;
+
+        final int positionStart = mCount;
+        mPages.add(page);
+        mLast = page.get(page.size() - 1);
+        mCount += page.size();
+        notifyItemRangeInserted(positionStart, page.size());
+        loadIfNeeded();
+    }
+
+}
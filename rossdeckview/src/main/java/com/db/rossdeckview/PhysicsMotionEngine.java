@@ -0,0 +1,220 @@
+package com.db.rossdeckview;
+
+import android.content.res.Resources;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+
+
+/**
+ * {@link MotionEngine} carrying on the release velocity of a view. Dismissed views decay out of
+ * their parent, restored views spring back into place. Motion is stepped on every frame.
+ */
+public class PhysicsMotionEngine implements MotionEngine {
+
+    /** Longest frame integrated at once, so a stalled frame doesn't teleport the view */
+    private static final float MAX_FRAME_TIME = 1f / 30f;
+
+    private static final float NANOS_PER_SECOND = 1e9f;
+
+    private static final float DEFAULT_STIFFNESS = 500f;
+
+    private static final float DEFAULT_DAMPING_RATIO = .8f;
+
+    private static final float DEFAULT_FRICTION = 2f;
+
+    /** Dismiss velocity is such that decay would carry the view this much further than needed */
+    private static final float EXIT_OVERSHOOT = 1.2f;
+
+    private static final float REST_DP_DISPLACEMENT = .5f;
+
+    private static final float REST_DP_VELOCITY = 5f;
+
+    private static final float REST_ROTATION = .1f;
+
+    private final MotionModel mSpringX;
+
+    private final MotionModel mSpringY;
+
+    private final MotionModel mSpringRotation;
+
+    private final DecayModel mDecayX;
+
+    private final DecayModel mDecayY;
+
+    private final float mFriction;
+
+    private final FrameScheduler mFrameScheduler = FrameScheduler.create(new FrameScheduler.Callback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            step(frameTimeNanos);
+        }
+    });
+
+    @Nullable
+    private View mView;
+
+    @Nullable
+    private Listener mListener;
+
+    /** Whether running motion is a dismiss, restore otherwise */
+    private boolean mDismissing;
+
+    /** Dismiss axis and direction, and position to be crossed on it */
+    private boolean mExitOnX;
+
+    private float mExitSign;
+
+    private float mExitTarget;
+
+    private long mLastFrameNanos;
+
+
+    /**
+     * Engine with default springs and friction.
+     */
+    public PhysicsMotionEngine() {
+        this(DEFAULT_STIFFNESS, DEFAULT_DAMPING_RATIO, DEFAULT_FRICTION);
+    }
+
+    /**
+     * @param stiffness Stiffness of the springs bringing views back
+     * @param dampingRatio Damping ratio of the springs bringing views back
+     * @param friction Friction slowing down dismissed views
+     */
+    public PhysicsMotionEngine(float stiffness, float dampingRatio, float friction) {
+
+        final float density = Resources.getSystem().getDisplayMetrics().density;
+        final float restDisplacement = REST_DP_DISPLACEMENT * density;
+        final float restVelocity = REST_DP_VELOCITY * density;
+
+        mSpringX = new SpringModel(stiffness, dampingRatio, restDisplacement, restVelocity);
+        mSpringY = new SpringModel(stiffness, dampingRatio, restDisplacement, restVelocity);
+        mSpringRotation = new SpringModel(stiffness, dampingRatio, REST_ROTATION, REST_ROTATION);
+        mDecayX = new DecayModel(friction, restVelocity);
+        mDecayY = new DecayModel(friction, restVelocity);
+        mFriction = friction;
+    }
+
+    @Override
+    public void dismiss(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener) {
+
+        cancel();
+
+        final float dx = toX - view.getX();
+        final float dy = toY - view.getY();
+        mExitOnX = Math.abs(dx) >= Math.abs(dy);
+        final float distance = mExitOnX ? dx : dy;
+        mExitSign = Math.signum(distance);
+        mExitTarget = mExitOnX ? toX : toY;
+
+        // Keep release velocity, but make sure it is enough to leave the parent
+        final float minSpeed = Math.abs(distance) * mFriction * EXIT_OVERSHOOT;
+        final float exitSpeed = Math.max(minSpeed, (mExitOnX ? velocityX : velocityY) * mExitSign);
+
+        mDecayX.start(view.getX(), mExitOnX ? exitSpeed * mExitSign : velocityX, toX);
+        mDecayY.start(view.getY(), mExitOnX ? velocityY : exitSpeed * mExitSign, toY);
+        mDismissing = true;
+        start(view, listener);
+    }
+
+    @Override
+    public void restore(@NonNull View view, float toX, float toY, float velocityX, float velocityY,
+            @NonNull Listener listener) {
+
+        cancel();
+
+        mSpringX.start(view.getX(), velocityX, toX);
+        mSpringY.start(view.getY(), velocityY, toY);
+        mSpringRotation.start(view.getRotation(), 0, 0);
+        mDismissing = false;
+        start(view, listener);
+    }
+
+    @Override
+    public void cancel() {
+
+        if (mView != null)
+            mFrameScheduler.remove();
+        mView = null;
+        mListener = null;
+    }
+
+
+    /**
+     * Step running motion to a frame.
+     */
+    private void step(long frameTimeNanos) {
+
+        final View view = mView;
+        if (view == null) return;
+
+        final float dt = Math.max(0,
+                Math.min(MAX_FRAME_TIME, (frameTimeNanos - mLastFrameNanos) / NANOS_PER_SECOND));
+        mLastFrameNanos = frameTimeNanos;
+
+        final boolean done = mDismissing ? stepDismiss(view, dt) : stepRestore(view, dt);
+
+        if (done) {
+            final Listener listener = mListener;
+            mView = null;
+            mListener = null;
+            if (listener != null) listener.onMotionEnd(view);
+        } else {
+            mFrameScheduler.post();
+        }
+    }
+
+
+    /**
+     * Step the motion of a view from the next frame on.
+     */
+    private void start(View view, Listener listener) {
+
+        mView = view;
+        mListener = listener;
+        mLastFrameNanos = System.nanoTime();
+        mFrameScheduler.post();
+    }
+
+
+    /**
+     * Step dismiss motion.
+     *
+     * @return True once view crossed its exit position
+     */
+    private boolean stepDismiss(View view, float dt) {
+
+        final boolean restX = mDecayX.step(dt);
+        final boolean restY = mDecayY.step(dt);
+        view.setX(mDecayX.getPosition());
+        view.setY(mDecayY.getPosition());
+
+        final float exitPosition = mExitOnX ? mDecayX.getPosition() : mDecayY.getPosition();
+        if ((exitPosition - mExitTarget) * mExitSign >= 0 || (mExitOnX ? restX : restY)) {
+            if (mExitOnX) view.setX(mExitTarget);
+            else view.setY(mExitTarget);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Step restore motion.
+     *
+     * @return True once view rests in its initial position
+     */
+    private boolean stepRestore(View view, float dt) {
+
+        final boolean restX = mSpringX.step(dt);
+        final boolean restY = mSpringY.step(dt);
+        final boolean restRotation = mSpringRotation.step(dt);
+        view.setX(mSpringX.getPosition());
+        view.setY(mSpringY.getPosition());
+        view.setRotation(mSpringRotation.getPosition());
+        return restX && restY && restRotation;
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.util.ArrayList;
+
+
+/**
+ * Policy dismissing views released with their center inside an exit zone. Zones are polygons
+ * in parent fractions, so they follow parent size, and are checked in the order added.
+ */
+public class PolygonDismissPolicy implements DismissPolicy {
+
+    /** Values of the smallest zone, 3 vertices as x and y pairs */
+    private static final int MIN_ZONE_VALUES = 6;
+
+    private final ArrayList<Zone> mZones = new ArrayList<>();
+
+
+    /**
+     * Add an exit zone.
+     *
+     * @param direction Direction views released inside the zone are dismissed to
+     * @param vertices Polygon vertices [x0, y0, x1, y1, ...], as fractions (0 to 1) of parent
+     *                 width and height
+     * @return This policy, for zones to be chained
+     */
+    public PolygonDismissPolicy addZone(@NonNull FlingChief.Direction direction, @NonNull float... vertices) {
+
+        if (vertices.length < MIN_ZONE_VALUES || vertices.length % 2 != 0)
+            throw new IllegalArgumentException("A zone needs at least 3 vertices, as x and y pairs");
+        mZones.add(new Zone(direction, vertices));
+        return this;
+    }
+
+    @Override
+    public void onParentResized(int width, int height) {
+
+        for (Zone zone : mZones)
+            zone.resize(width, height);
+    }
+
+    @Nullable
+    @Override
+    public FlingChief.Direction onRelease(@NonNull Release release) {
+
+        final float x = release.getCenterX();
+        final float y = release.getCenterY();
+        for (Zone zone : mZones)
+            if (zone.contains(x, y)) return zone.direction;
+        return null;
+    }
+
+
+    /**
+     * Polygon with its edges solved for the current parent size, leaving a crossing count per
+     * edge at release.
+     */
+    private static final class Zone {
+
+        final FlingChief.Direction direction;
+
+        /** Vertices in parent fractions */
+        private final float[] mFractions;
+
+        /** Vertices in pixels */
+        private final float[] mVertices;
+
+        /** Inverse slope of each edge, dx / dy, 0 for horizontal edges */
+        private final float[] mSlopes;
+
+        private float mLeft;
+
+        private float mTop;
+
+        private float mRight;
+
+        private float mBottom;
+
+
+        Zone(FlingChief.Direction direction, float[] fractions) {
+
+            this.direction = direction;
+            mFractions = fractions.clone();
+            mVertices = new float[fractions.length];
+            mSlopes = new float[fractions.length / 2];
+        }
+
+        void resize(int width, int height) {
+
+            mLeft = mTop = Float.MAX_VALUE;
+            mRight = mBottom = -Float.MAX_VALUE;
+            for (int i = 0; i < mFractions.length; i += 2) {
+                mVertices[i] = mFractions[i] * width;
+                mVertices[i + 1] = mFractions[i + 1] * height;
+                mLeft = Math.min(mLeft, mVertices[i]);
+                mRight = Math.max(mRight, mVertices[i]);
+                mTop = Math.min(mTop, mVertices[i + 1]);
+                mBottom = Math.max(mBottom, mVertices[i + 1]);
+            }
+
+            final int n = mVertices.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2) {
+                final float dy = mVertices[j + 1] - mVertices[i + 1];
+                mSlopes[i / 2] = dy == 0 ? 0 : (mVertices[j] - mVertices[i]) / dy;
+            }
+        }
+
+
+        /**
+         * Even-odd test of a point against the polygon.
+         */
+        boolean contains(float x, float y) {
+
+            if (x < mLeft || x > mRight || y < mTop || y > mBottom)
+                return false;
+
+            boolean inside = false;
+            final int n = mVertices.length;
+            for (int i = 0, j = n - 2; i < n; j = i, i += 2)
+                if ((mVertices[i + 1] > y) != (mVertices[j + 1] > y)
+                        && x < mVertices[i] + (y - mVertices[i + 1]) * mSlopes[i / 2])
+                    inside = !inside;
+            return inside;
+        }
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Adapter;
+
+
+/**
+ * Adapter able to create card views without binding them, so {@link RossDeckView} can inflate
+ * upcoming cards off the UI thread and only bind them on it.
+ */
+public interface PrefetchAdapter extends Adapter {
+
+    /**
+     * Create an unbound card view of the given type. Called from the prefetch executor, so it
+     * should do no more than inflating the layout, as {@code AsyncLayoutInflater} would.
+     * The view is later handed back to {@link Adapter#getView} as convert view.
+     *
+     * @param parent Deck the view will be attached to, not to be modified
+     * @param viewType Adapter view type
+     * @return New detached view
+     */
+    @NonNull
+    View onCreateView(@NonNull ViewGroup parent, int viewType);
+
+}
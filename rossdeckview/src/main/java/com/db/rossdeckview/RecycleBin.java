@@ -0,0 +1,118 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.Nullable;
+import android.view.View;
+
+import java.util.ArrayList;
+
+
+/**
+ * Pool of detached card views, grouped by adapter view type, to be handed back to the adapter
+ * as convert views.
+ */
+class RecycleBin {
+
+    /** Scrap views, one list per view type */
+    private ArrayList<View>[] mScrapViews;
+
+    /** Maximum number of views kept per view type */
+    private int mMaxScrapPerType;
+
+
+    RecycleBin() {
+        setViewTypeCount(1);
+        mMaxScrapPerType = 1;
+    }
+
+
+    /**
+     * Reset the pool to hold the given number of view types. Any previous scrap is dropped.
+     *
+     * @param viewTypeCount Number of view types reported by the adapter
+     */
+    @SuppressWarnings("unchecked")
+    void setViewTypeCount(int viewTypeCount) {
+
+        if (viewTypeCount < 1)
+            throw new IllegalArgumentException("Can't have a viewTypeCount < 1");
+
+        mScrapViews = (ArrayList<View>[]) new ArrayList<?>[viewTypeCount];
+        for (int i = 0; i < viewTypeCount; i++)
+            mScrapViews[i] = new ArrayList<>();
+    }
+
+
+    /**
+     * Set how many views of a single type may wait in the pool.
+     *
+     * @param max Maximum number of scrap views per view type
+     */
+    void setMaxScrapPerType(int max) {
+
+        mMaxScrapPerType = Math.max(1, max);
+        for (ArrayList<View> scrap : mScrapViews)
+            while (scrap.size() > mMaxScrapPerType)
+                scrap.remove(scrap.size() - 1);
+    }
+
+
+    /**
+     * Keep a detached view to be reused later.
+     *
+     * @param scrap Detached view
+     * @param viewType View type the view was created for
+     */
+    void addScrapView(View scrap, int viewType) {
+
+        if (!shouldRecycleViewType(viewType))
+            return;
+
+        final ArrayList<View> scrapViews = mScrapViews[viewType];
+        if (scrapViews.size() < mMaxScrapPerType)
+            scrapViews.add(scrap);
+    }
+
+
+    /**
+     * Take a view of the given type out of the pool.
+     *
+     * @param viewType View type wanted
+     * @return A detached view or null if none is available
+     */
+    @Nullable
+    View getScrapView(int viewType) {
+
+        if (!shouldRecycleViewType(viewType))
+            return null;
+
+        final ArrayList<View> scrapViews = mScrapViews[viewType];
+        final int size = scrapViews.size();
+        return size > 0 ? scrapViews.remove(size - 1) : null;
+    }
+
+
+    /**
+     * Number of views of the given type waiting in the pool.
+     *
+     * @param viewType View type
+     * @return Number of scrap views
+     */
+    int getScrapCount(int viewType) {
+        return shouldRecycleViewType(viewType) ? mScrapViews[viewType].size() : 0;
+    }
+
+
+    /**
+     * Drop every view in the pool.
+     */
+    void clear() {
+
+        for (ArrayList<View> scrap : mScrapViews)
+            scrap.clear();
+    }
+
+    private boolean shouldRecycleViewType(int viewType) {
+        return viewType >= 0 && viewType < mScrapViews.length;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.db.rossdeckview;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+
+
+/**
+ * Front card while cards are drawn by a {@link DeckRenderer}. Only the front card is a view, so
+ * {@link FlingChief} has something to move, while cards behind it are drawn by the deck.
+ */
+class RenderedCardView extends View {
+
+    static final int PAINT_FLAGS = Paint.ANTI_ALIAS_FLAG | Paint.FILTER_BITMAP_FLAG;
+
+    private final DeckCard mCard = new DeckCard();
+
+    private final Paint mPaint = new Paint(PAINT_FLAGS);
+
+    private DeckRenderer mRenderer;
+
+
+    RenderedCardView(Context context) {
+        super(context);
+    }
+
+    DeckCard getCard() {
+        return mCard;
+    }
+
+    void setRenderer(DeckRenderer renderer) {
+        mRenderer = renderer;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+
+        mPaint.reset();
+        mPaint.setFlags(PAINT_FLAGS);
+        mRenderer.draw(canvas, mCard, getWidth(), getHeight(), mPaint);
+    }
+
+}
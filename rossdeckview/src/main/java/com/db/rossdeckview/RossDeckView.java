@@ -1,8 +1,18 @@
 package com.db.rossdeckview;
 
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.TypedArray;
 import android.database.DataSetObserver;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.support.annotation.FloatRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -12,35 +22,209 @@ import android.view.ViewGroup;
 import android.widget.Adapter;
 import android.widget.FrameLayout;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.Executor;
+
 
 /**
  * View representing a deck of view on top of each other, where each can be moved around
  * and flinged to each parent's side.
  */
 public class RossDeckView extends BaseAdapterView {
-    
-    private static int sMaxVisible = 4;
 
-    private static float sStackPadding = .0f;
+    private static final int DEFAULT_HISTORY_SIZE = 10;
+
+    /** Duration of stack moves not following the front card, as view animations used to take */
+    private static final long STACK_DURATION = 300;
+
+    /** Paint alpha of an opaque view */
+    private static final int OPAQUE_ALPHA = 255;
+
+    /** Positions looked up on each side of where an item is expected, before taking it for missing */
+    private static final int ITEM_SEARCH_WINDOW = 100;
+
+    @NonNull
+    private DeckConfig mConfig = DeckConfig.DEFAULT;
+
+    private int mLastObjectOnStack = 0;
+
+    /** Gesture state of the front card and top position, shared with FlingChief */
+    private final DeckModel mModel = new DeckModel();
+
+    /** Item id at the top position, to find it again after a change not reported item by item */
+    private long mTopItemId = INVALID_ROW_ID;
 
-    private static float sStackScale = .0f;
+    /** Restored state, waiting for adapter items to be applied to */
+    @Nullable
+    private SavedState mPendingState;
 
-    private static int sLastObjectOnStack = 0;
+    /** Time state was restored at, until the front card is laid out */
+    private long mRestoreStart;
 
     private Adapter mAdapter;
 
     private DataSetObserver mDataSetObserver;
 
+    /** Views detached from the deck, kept to be handed back to the adapter */
+    private final RecycleBin mRecycleBin = new RecycleBin();
+
+    /** Child measure specs of each view type */
+    private final MeasureSpecCache mSpecCache = new MeasureSpecCache();
+
+    private final DeckStats mStats = new DeckStats();
+
+    /** Gets cards following the stack ready while the front card is dragged */
+    private final CardPrefetcher mPrefetcher = new CardPrefetcher(this, mRecycleBin);
+
     private boolean mInLayout = false;
 
+    /** Whether adapter reported a change, not described item by item, since last layout */
+    private boolean mDataChanged = false;
+
+    /** Cards indexed by stack slot, reused across layout passes */
+    private View[] mSlots = new View[0];
+
     @Nullable
     private View mActiveCard = null;
 
     private FlingChief mFlingChief;
 
+    @Nullable
+    private FlingChiefListener.Actions mActionsListener;
+
     @FloatRange(from = 0.f, to = 1.f)
     private float mFactor;
 
+    /** Whether cards are drawn from hardware layers while a gesture runs */
+    private boolean mHardwareLayersEnabled = true;
+
+    /** Whether cards currently have hardware layers */
+    private boolean mLayersActive;
+
+    /** Snapshots background cards are drawn from, only while snapshots are enabled */
+    @Nullable
+    private SnapshotCache mSnapshots;
+
+    private int mSnapshotCacheSize = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 16);
+
+    private final Paint mSnapshotPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /** Deck clock, moving every background card in a single pass per frame */
+    @Nullable
+    private ValueAnimator mStackAnimator;
+
+    /** Factor and shift, in slots, last applied to background cards */
+    private float mStackFactor;
+
+    private float mStackShift;
+
+    /** Values the stack animates from and to, shift going to the number of cards swiped off */
+    private float mStackFromFactor;
+
+    private float mStackToFactor;
+
+    private float mStackFromShift;
+
+    /** Whether stack factor follows the front card, while its motion engine moves it */
+    private boolean mStackFollowsFront;
+
+    /** Front card proximities, reused between frames */
+    private final float[] mFrontProximities = new float[4];
+
+    /** Draws cards from models while set, only the front card being a view */
+    @Nullable
+    private DeckRenderer mRenderer;
+
+    /** Models of cards behind the front one, card of slot n at index n - 1 */
+    private DeckCard[] mCards = new DeckCard[0];
+
+    private int mCardCount;
+
+    /** Front card bounds at rest, cards behind it being drawn relative to them */
+    private int mCardLeft;
+
+    private int mCardTop;
+
+    private int mCardWidth;
+
+    private int mCardHeight;
+
+    private final Matrix mCardMatrix = new Matrix();
+
+    private final Paint mCardPaint = new Paint(RenderedCardView.PAINT_FLAGS);
+
+    /** Metrics, only collected while a listener is set */
+    @Nullable
+    private DeckMetrics mMetrics;
+
+    /** Directions of requested swipes still waiting for a card */
+    private final ArrayDeque<FlingChief.Direction> mSwipeQueue = new ArrayDeque<>();
+
+    /** Cards leaving after a requested swipe, in the order they were swiped */
+    private final ArrayList<View> mSwiping = new ArrayList<>();
+
+    /** Swipe motions not in use, reused for following swipes */
+    private final ArrayList<SwipeMotion> mIdleSwipeMotions = new ArrayList<>();
+
+    /** Number of cards swiped off the stack since last layout */
+    private int mStackOffset;
+
+    private boolean mSwipeScheduled;
+
+    private final Runnable mSwipeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mSwipeScheduled = false;
+            swipeNext();
+        }
+    };
+
+    /** Dismissed cards, to be rewound */
+    private final DismissHistory mHistory = new DismissHistory(mRecycleBin, DEFAULT_HISTORY_SIZE,
+            (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 32));
+
+    @Nullable
+    private FlingChiefListener.Rewind mRewindListener;
+
+    /** Log dismissed cards are recorded to, if any */
+    @Nullable
+    private SwipeJournal mJournal;
+
+    /** Loader told card sizes and slots, if any */
+    @Nullable
+    private DeckImageLoader<?> mImageLoader;
+
+    /** Card being rewound, waiting for its item to be inserted back */
+    @Nullable
+    private FlingChief.Direction mRewindDirection;
+
+    private long mRewindItemId;
+
+    @Nullable
+    private View mRewindView;
+
+    /** Whether an item was inserted at the front since rewind was requested */
+    private boolean mRewindInserted;
+
+    /** Card moving back onto the stack */
+    @Nullable
+    private View mRewinding;
+
+    private float mRewindToX;
+
+    private float mRewindToY;
+
+    @Nullable
+    private PhysicsMotionEngine mRewindEngine;
+
+    private final MotionEngine.Listener mRewindMotionListener = new MotionEngine.Listener() {
+        @Override
+        public void onMotionEnd(@NonNull View view) {
+            onRewindEnd();
+        }
+    };
+
 
     public RossDeckView(Context context) {
         super(context);
@@ -63,20 +247,96 @@ public class RossDeckView extends BaseAdapterView {
      */
     private void init(TypedArray tArray) {
 
+        boolean coalesceUpdates = true;
         if (tArray != null) {
-            sMaxVisible = tArray.getInt(R.styleable.RossDeckView_max_visible, sMaxVisible);
-            sStackPadding = tArray.getDimension(R.styleable.RossDeckView_stack_padding, sStackPadding);
-            sStackScale = tArray.getFloat(R.styleable.RossDeckView_stack_scale, sStackScale);
+            // Layouts used to get away with max_visible="0", which now shows the front card
+            mConfig = new DeckConfig(
+                    Math.max(1, tArray.getInt(R.styleable.RossDeckView_max_visible, mConfig.getMaxVisible())),
+                    tArray.getDimension(R.styleable.RossDeckView_stack_padding, mConfig.getStackPadding()),
+                    tArray.getFloat(R.styleable.RossDeckView_stack_scale, mConfig.getStackScale()));
+            mHardwareLayersEnabled = tArray.getBoolean(R.styleable.RossDeckView_hardware_layers,
+                    mHardwareLayersEnabled);
+            mPrefetcher.setDepth(tArray.getInt(R.styleable.RossDeckView_prefetch_depth,
+                    mPrefetcher.getDepth()));
+            coalesceUpdates = tArray.getBoolean(R.styleable.RossDeckView_coalesce_updates, coalesceUpdates);
+            if (tArray.getBoolean(R.styleable.RossDeckView_snapshot_background, false))
+                mSnapshots = new SnapshotCache(mSnapshotCacheSize);
             tArray.recycle();
         }
+        mRecycleBin.setMaxScrapPerType(mConfig.getMaxVisible() + mPrefetcher.getDepth());
         mFlingChief = new FlingChief(getContext());
+        mFlingChief.setModel(mModel);
+        mFlingChief.setCoalesceUpdates(coalesceUpdates);
         mFlingChief.setProximityListener(new FlingChiefListener.Proximity() {
             @Override
             public void onProximityUpdate(float[] proximities, View view) {
-                mFactor = calculateBackgroundFactor(proximities);
+                mFactor = mModel.getFactor();
                 moveBackgroundViews(mFactor, false);
             }
         });
+        mFlingChief.setGestureListener(new FlingChiefListener.Gesture() {
+            @Override
+            public void onGestureStart(@NonNull View view) {
+                mStats.onGestureStart();
+                promoteLayers();
+                // Rendered cards are bound from models, cheap enough not to be prefetched
+                if (mRenderer == null)
+                    mPrefetcher.prefetch(mModel.getTopPosition() + getChildCount());
+            }
+
+            @Override
+            public void onGestureEnd(@NonNull View view) {
+                mStackFollowsFront = false;
+                if (mSwiping.isEmpty())
+                    demoteLayers();
+                scheduleSwipe();
+            }
+        });
+        mFlingChief.setActionListener(new FlingChiefListener.Actions() {
+            @Override public boolean onDismiss(@NonNull FlingChief.Direction direction, @NonNull View view) {
+                mFactor = 1.f;
+                followFrontCard();
+                final boolean dismiss = mActionsListener == null || mActionsListener.onDismiss(direction, view);
+                if (dismiss) {
+                    ((LayoutParams) view.getLayoutParams()).dismissDirection = direction;
+                    if (mImageLoader != null) mImageLoader.cancel(view);
+                }
+                return dismiss;
+            }
+
+            @Override public boolean onDismissed(@NonNull View view) {
+                // Card is gone, whatever the adapter does with its item
+                final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+                if (lp.position != INVALID_POSITION) {
+                    journalDismissal(lp);
+                    advanceTop();
+                }
+                lp.position = INVALID_POSITION;
+                mActiveCard = null;
+                requestLayout();
+                return mActionsListener == null || mActionsListener.onDismissed(view);
+            }
+
+            @Override public boolean onReturn(@NonNull View view) {
+                mFactor = 0.f;
+                followFrontCard();
+                return mActionsListener == null || mActionsListener.onReturn(view);
+            }
+
+            @Override public boolean onReturned(@NonNull View view) {
+                return mActionsListener == null || mActionsListener.onReturned(view);
+            }
+
+            @Override
+            public boolean onTapped() {
+                return mActionsListener != null && mActionsListener.onTapped();
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return mActionsListener != null && mActionsListener.onDoubleTapped();
+            }
+        });
     }
 
     @Override
@@ -84,6 +344,61 @@ public class RossDeckView extends BaseAdapterView {
         return mActiveCard;
     }
 
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+
+        super.dispatchDraw(canvas);
+        if (mLayersActive)
+            mStats.onLayerFrame();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+
+        super.onDraw(canvas);
+        if (mRenderer == null)
+            return;
+
+        // Cards behind the front one, from the back, all with the same matrix and paint
+        final float stackPadding = mConfig.getStackPadding();
+        final float stackScale = mConfig.getStackScale();
+        final float shift = mStackFactor + mStackShift;
+        int saveCount;
+        for (int slot = mCardCount; slot > 0; slot--) {
+            mCardMatrix.setScale(1.f - slot * stackScale + shift * stackScale, 1.f,
+                    mCardWidth / 2.f, mCardHeight / 2.f);
+            mCardMatrix.postTranslate(mCardLeft, mCardTop + (slot - shift) * stackPadding);
+            mCardPaint.reset();
+            mCardPaint.setFlags(RenderedCardView.PAINT_FLAGS);
+
+            saveCount = canvas.save();
+            canvas.concat(mCardMatrix);
+            mRenderer.draw(canvas, mCards[slot - 1], mCardWidth, mCardHeight, mCardPaint);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    @Override
+    protected boolean drawChild(Canvas canvas, View child, long drawingTime) {
+
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        if (mSnapshots == null || child == mActiveCard || child.getVisibility() != VISIBLE
+                || lp.position == INVALID_POSITION || lp.swiping)
+            return super.drawChild(canvas, child, drawingTime);
+
+        final Bitmap snapshot = mSnapshots.obtain(child);
+        if (snapshot == null)
+            return super.drawChild(canvas, child, drawingTime);
+
+        final int saveCount = canvas.save();
+        canvas.translate(child.getLeft(), child.getTop());
+        canvas.concat(child.getMatrix());
+        mSnapshotPaint.setAlpha((int) (child.getAlpha() * OPAQUE_ALPHA));
+        canvas.drawBitmap(snapshot, 0, 0, mSnapshotPaint);
+        canvas.restoreToCount(saveCount);
+        return false;
+    }
+
     @Override
     public void requestLayout() {
 
@@ -91,6 +406,57 @@ public class RossDeckView extends BaseAdapterView {
             super.requestLayout();
     }
 
+    @Override
+    protected Parcelable onSaveInstanceState() {
+
+        final SavedState state = new SavedState(super.onSaveInstanceState());
+        if (mPendingState != null) {
+            // Not applied yet, nothing changed since
+            state.topItemId = mPendingState.topItemId;
+            state.topPosition = mPendingState.topPosition;
+            state.dismissals = mPendingState.dismissals;
+            return state;
+        }
+
+        state.topItemId = mTopItemId;
+        state.topPosition = mModel.getTopPosition();
+
+        // Cards leaving, in order, then swipes still queued. A card being dragged just comes back
+        final ArrayList<FlingChief.Direction> dismissals = new ArrayList<>();
+        LayoutParams lp;
+        for (int i = 0; i < mSwiping.size(); i++) {
+            lp = (LayoutParams) mSwiping.get(i).getLayoutParams();
+            if (lp.position != INVALID_POSITION && lp.dismissDirection != null)
+                dismissals.add(lp.dismissDirection);
+        }
+        if (mActiveCard != null) {
+            lp = (LayoutParams) mActiveCard.getLayoutParams();
+            if (!lp.swiping && lp.position != INVALID_POSITION && lp.dismissDirection != null)
+                dismissals.add(lp.dismissDirection);
+        }
+        dismissals.addAll(mSwipeQueue);
+
+        state.dismissals = new int[dismissals.size()];
+        for (int i = 0; i < state.dismissals.length; i++)
+            state.dismissals[i] = dismissals.get(i).ordinal();
+        return state;
+    }
+
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+
+        final SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        mPendingState = savedState;
+        mRestoreStart = System.nanoTime();
+        requestLayout();
+    }
+
     @Override
     public Adapter getAdapter() {
         return mAdapter;
@@ -104,233 +470,1536 @@ public class RossDeckView extends BaseAdapterView {
             mDataSetObserver = null;
         }
 
+        if (mRenderer != null && !(adapter instanceof DeckCardAdapter))
+            throw new IllegalArgumentException("Adapter has to be a DeckCardAdapter while a renderer is set");
+
+        // Cards belong to the previous adapter
+        resetStack();
+
         mAdapter = adapter;
-        mDataSetObserver = new DataSetObserver() {
-            @Override public void onChanged() { requestLayout(); }
+        mPrefetcher.reset(mAdapter.getViewTypeCount());
+        mRecycleBin.setViewTypeCount(getCardViewTypeCount());
+        mSpecCache.setViewTypeCount(getCardViewTypeCount());
+        mDataSetObserver = new DeckDataObserver() {
+            @Override public void onChanged() { onDataChanged(); }
 
-            @Override public void onInvalidated() { requestLayout(); }
+            @Override public void onInvalidated() { onDataChanged(); }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                onItemsInserted(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                onItemsRemoved(positionStart, itemCount);
+            }
+
+            @Override
+            public void onItemRangeChanged(int positionStart, int itemCount) {
+                onItemsChanged(positionStart, itemCount);
+            }
         };
         mAdapter.registerDataSetObserver(mDataSetObserver);
+        onDataChanged();
     }
 
-    @Override
-    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
-        return new FrameLayout.LayoutParams(getContext(), attrs);
+
+    /**
+     * Drop every card, stopping anything in progress.
+     */
+    private void resetStack() {
+
+        cancelSwipes();
+        cancelRewind();
+        mHistory.clear();
+        removeAllViewsInLayout();
+        if (mSnapshots != null) mSnapshots.evictAll();
+        mActiveCard = null;
+        mLastObjectOnStack = 0;
+        mCardCount = 0;
+        mModel.clearPositions();
+        mTopItemId = INVALID_ROW_ID;
     }
 
-    @Override
-    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
 
-        super.onLayout(changed, left, top, right, bottom);
+    /**
+     * Flag cards as outdated and schedule a layout pass.
+     */
+    private void onDataChanged() {
 
-        if (mAdapter == null)
-            return;
+        mDataChanged = true;
+        mPrefetcher.invalidate();
+        if (mRewindDirection != null) mRewindInserted = true;
+        requestLayout();
+    }
 
-        mInLayout = true;
 
-        int nChilds = Math.min(mAdapter.getCount(), sMaxVisible);
+    /**
+     * Shift cards following the inserted items. Layout is only requested if the stack is affected.
+     *
+     * @param positionStart Position of the first inserted item
+     * @param itemCount Number of items inserted
+     */
+    private void onItemsInserted(int positionStart, int itemCount) {
+
+        if (mRewindDirection != null && positionStart == mModel.getTopPosition())
+            mRewindInserted = true;
+        mModel.onItemsInserted(positionStart, itemCount);
 
-        if (nChilds == 0) { // No cards
-            removeAllViewsInLayout();
-            mActiveCard = null;
-        } else {
-            if (mActiveCard == null) { // Front card discarded
-                removeAllViewsInLayout();
-                positionViews(0, nChilds);
-                if (getChildCount() > 0) {
-                    mActiveCard = getChildAt(sLastObjectOnStack);
-                    mFlingChief.injectView(mActiveCard);
-                }
-            } else { // Add cards on the background
-                removeViewsInLayout(0, sLastObjectOnStack);
-                positionViews(1, nChilds);
-            }
+        LayoutParams lp;
+        for (int i = 0; i < getChildCount(); i++) {
+            lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            if (lp.position >= positionStart)
+                lp.position += itemCount;
         }
+        if (positionStart < mModel.getTopPosition() + mSwiping.size() + mConfig.getMaxVisible())
+            requestLayout();
+    }
 
-        mInLayout = false;
+
+    /**
+     * Drop cards of the removed items and shift the ones following them. Layout is only requested
+     * if the stack is affected.
+     *
+     * @param positionStart Position the first removed item used to have
+     * @param itemCount Number of items removed
+     */
+    private void onItemsRemoved(int positionStart, int itemCount) {
+
+        // Usually the items dismissed ahead of the front card
+        mModel.onItemsRemoved(positionStart, itemCount);
+
+        LayoutParams lp;
+        for (int i = 0; i < getChildCount(); i++) {
+            lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            if (lp.position >= positionStart + itemCount)
+                lp.position -= itemCount;
+            else if (lp.position >= positionStart)
+                lp.position = INVALID_POSITION;
+        }
+        if (positionStart < mModel.getTopPosition() + mSwiping.size() + mConfig.getMaxVisible())
+            requestLayout();
     }
 
 
     /**
-     * Place child views on parent.
+     * Flag cards of the changed items to be bound again. Layout is only requested if the stack
+     * is affected.
      *
-     * @param startIndex First view index to iterate from
-     * @param nViews Number of views to be added
+     * @param positionStart Position of the first changed item
+     * @param itemCount Number of items changed
      */
-    private void positionViews(int startIndex, int nViews) {
+    private void onItemsChanged(int positionStart, int itemCount) {
 
-        View view;
-        while (startIndex < nViews) {
+        LayoutParams lp;
+        for (int i = 0; i < getChildCount(); i++) {
+            lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            if (lp.position >= positionStart && lp.position < positionStart + itemCount)
+                lp.bindPending = true;
+        }
+        mPrefetcher.invalidate();
+        if (positionStart < mModel.getTopPosition() + mSwiping.size() + mConfig.getMaxVisible())
+            requestLayout();
+    }
+
+    @Override
+    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LayoutParams(getContext(), attrs);
+    }
 
-            view = mAdapter.getView(startIndex, null, this);
-            addChildToLayout(view, startIndex);
+    @Override
+    protected ViewGroup.LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
 
-            // Set view according to current factor
-            view.setTranslationY(-mFactor * sStackPadding);
-            view.setScaleX(1.f - startIndex * sStackScale + mFactor * sStackScale);
+        if (p instanceof MarginLayoutParams)
+            return new LayoutParams((MarginLayoutParams) p);
+        return new LayoutParams(p);
+    }
 
-            startIndex++;
-        }
-        sLastObjectOnStack = startIndex - 1;
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT);
     }
 
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LayoutParams;
+    }
 
-    /**
-     * Place view in center parent.
-     *
-     * @param child Child {@link View} to be placed
-     * @param index child's index in stack
-     */
-    private void addChildToLayout(View child, int index) {
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+
+        super.onLayout(changed, left, top, right, bottom);
 
-        FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) child.getLayoutParams();
-        addViewInLayout(child, 0, lp, true);
+        if (mAdapter == null)
+            return;
 
-        if (child.isLayoutRequested()) {
-            int childWidthSpec = getChildMeasureSpec(getWidthMeasureSpec(),
-                    getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin,
-                    lp.width);
-            int childHeightSpec = getChildMeasureSpec(getHeightMeasureSpec(),
-                    getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin,
-                    lp.height);
-            child.measure(childWidthSpec, childHeightSpec);
+        mInLayout = true;
+        mStats.onLayoutPass();
+        final long layoutStart = mMetrics != null ? System.nanoTime() : 0;
+
+        // Restored state is applied once there are items to apply it to
+        if (mPendingState != null && mAdapter.getCount() > 0)
+            applyPendingState();
+        else if (mDataChanged)
+            relocateTop();
+        mModel.setItemCount(mAdapter.getCount());
+
+        // Cards being swiped stay on top, their items are still ahead of the stack
+        final int firstPosition = mModel.getTopPosition() + countSwipingItems();
+        final int nChilds = Math.max(0,
+                Math.min(mAdapter.getCount() - firstPosition, mConfig.getMaxVisible()));
+        final boolean shifted = mStackOffset != 0;
+        // Cards swiped off are out of the new slots, stack keeps moving from where it is
+        mStackShift -= mStackOffset;
+        mStackFromShift -= mStackOffset;
+        mStackOffset = 0;
+
+        // Positions are only trustworthy if changes were reported item by item
+        if (mDataChanged)
+            remapPositions(firstPosition + nChilds);
+
+        if (mRenderer != null) {
+            layoutRenderedStack(changed, firstPosition, nChilds, shifted);
+            mLastObjectOnStack = Math.min(nChilds, 1) - 1;
         } else {
-            cleanupLayoutState(child);
+            layoutViewStack(changed, firstPosition, nChilds, shifted);
+            mLastObjectOnStack = nChilds - 1;
         }
 
-        int w = child.getMeasuredWidth();
-        int h = child.getMeasuredHeight();
+        if (nChilds == 0) {
+            mActiveCard = null;
+        } else if (mActiveCard != getChildAt(mLastObjectOnStack)) {
+            mActiveCard = getChildAt(mLastObjectOnStack);
+            mFlingChief.injectView(mActiveCard);
+            // Front card is drawn live from now on
+            if (mSnapshots != null) mSnapshots.remove(mActiveCard);
+        }
 
-        // Position view
-        int childLeft = (getWidth() + getPaddingLeft() - getPaddingRight() - w) / 2
-                + lp.leftMargin - lp.rightMargin;
-        int childTop = (getHeight() + getPaddingTop() - getPaddingBottom() - h) / 2
-                + lp.topMargin - lp.bottomMargin;
-        child.layout(childLeft,
-                childTop + (int) (index * sStackPadding),
-                childLeft + w,
-                childTop + h + (int) (index * sStackPadding));
+        if (mRewindInserted)
+            startRewind();
+
+        updateTopItemId();
+        mDataChanged = false;
+        mInLayout = false;
+
+        if (mMetrics != null)
+            mMetrics.onLayout(System.nanoTime() - layoutStart);
+
+        // First card the user can interact with since state was restored
+        if (mRestoreStart != 0 && mActiveCard != null) {
+            if (mMetrics != null)
+                mMetrics.onRestore(System.nanoTime() - mRestoreStart);
+            mRestoreStart = 0;
+        }
+
+        // Queued swipes may have been waiting for cards
+        scheduleSwipe();
     }
 
 
     /**
-     * Calc factor to apply to the translation and scale of a background card based on the
-     * distance between the active card and view sides.
+     * Lay out a view per card, reusing cards surviving since last layout.
      *
-     * @param proximities Proximity values (from 0 to 1) from the
-     *                    initial active card position and each parent view side
-     * @return factor used to move and scale background cards
+     * @param changed Whether the deck bounds changed
+     * @param firstPosition Position of the front card
+     * @param nChilds Number of cards on the stack
+     * @param shifted Whether cards were moved forward by swipes since last layout
      */
-    private float calculateBackgroundFactor(float[] proximities) {
+    private void layoutViewStack(boolean changed, int firstPosition, int nChilds, boolean shifted) {
+
+        // Map surviving cards to their slot, dropping dismissed cards and cards out of the stack
+        final View[] slots = obtainSlots(nChilds);
+        View child;
+        LayoutParams lp;
+        int slot;
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            child = getChildAt(i);
+            lp = (LayoutParams) child.getLayoutParams();
+            if (lp.swiping)
+                continue;
+            slot = lp.position - firstPosition;
+            if (lp.position < 0 || slot < 0 || slot >= nChilds || slots[slot] != null)
+                recycleChild(i);
+            else
+                slots[slot] = child;
+        }
 
-        float max = 0;
-        for (float proximity : proximities)
-            max = Math.max(max, 1 - proximity);
-        return Math.min(1, max);
+        // Walk the stack from the back, reusing surviving cards and binding the missing ones
+        int position;
+        for (int index = 0; index < nChilds; index++) {
+            slot = nChilds - 1 - index;
+            position = firstPosition + slot;
+            child = slots[slot];
+            slots[slot] = null;
+            if (child == null) {
+                child = position == mModel.getTopPosition() && mRewindInserted ? takeRewindView() : null;
+                if (child == null) {
+                    child = mPrefetcher.take(mAdapter, position);
+                    if (child != null)
+                        mStats.onPrefetchHit();
+                    else
+                        child = obtainView(position, mRecycleBin.getScrapView(mAdapter.getItemViewType(position)));
+                }
+                addChildToLayout(child, index, slot);
+                applyStackTransform(child, slot);
+            } else {
+                if (getChildAt(index) != child) {
+                    detachViewFromParent(child);
+                    attachViewToParent(child, index, child.getLayoutParams());
+                }
+                updateChild(index, slot, changed, shifted);
+            }
+        }
     }
 
 
     /**
-     * Translate Y up based on a factor from 0 to 1.
+     * Lay out the front card as a view, and bind models of the cards behind it, to be drawn by
+     * the renderer.
      *
-     * @param factor Value from 0 to 1
+     * @param changed Whether the deck bounds changed
+     * @param firstPosition Position of the front card
+     * @param nChilds Number of cards on the stack
+     * @param shifted Whether cards were moved forward by swipes since last layout
      */
-    private void moveBackgroundViews(@FloatRange(from = 0.f, to = 1.f) float factor, boolean animate) {
+    private void layoutRenderedStack(boolean changed, int firstPosition, int nChilds, boolean shifted) {
+
+        // Keep the front card if it still shows its item, cards being swiped stay on top
+        View front = null;
+        View child;
+        LayoutParams lp;
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            child = getChildAt(i);
+            lp = (LayoutParams) child.getLayoutParams();
+            if (lp.swiping)
+                continue;
+            if (front == null && nChilds > 0 && lp.position == firstPosition)
+                front = child;
+            else
+                recycleChild(i);
+        }
 
-        View view;
-        for (int i = 0; i < sLastObjectOnStack; i++) {
-            view = getChildAt(i);
-            if (animate) {
-                view.animate()
-                        .translationY(-factor * sStackPadding)
-                        .scaleX(1.f - (sLastObjectOnStack - i) * sStackScale + factor * sStackScale);
+        if (nChilds > 0) {
+            if (front == null) {
+                front = firstPosition == mModel.getTopPosition() && mRewindInserted ? takeRewindView() : null;
+                if (front == null)
+                    front = obtainView(firstPosition, mRecycleBin.getScrapView(0));
+                addChildToLayout(front, 0, 0);
+                applyStackTransform(front, 0);
             } else {
-                view.setTranslationY(-factor * sStackPadding);
-                view.setScaleX(1.f - (sLastObjectOnStack - i) * sStackScale + factor * sStackScale);
+                if (getChildAt(0) != front) {
+                    detachViewFromParent(front);
+                    attachViewToParent(front, 0, front.getLayoutParams());
+                }
+                updateChild(0, 0, changed, shifted);
+                front = getChildAt(0);
             }
+            mCardLeft = front.getLeft();
+            mCardTop = front.getTop();
+            mCardWidth = front.getWidth();
+            mCardHeight = front.getHeight();
+        }
+
+        // Models are cheap to fill, so they're bound again on every layout
+        mCardCount = Math.max(0, nChilds - 1);
+        if (mCards.length < mCardCount) {
+            final DeckCard[] cards = new DeckCard[mCardCount];
+            System.arraycopy(mCards, 0, cards, 0, mCards.length);
+            for (int i = mCards.length; i < mCardCount; i++)
+                cards[i] = new DeckCard();
+            mCards = cards;
+        }
+        for (int slot = 1; slot <= mCardCount; slot++) {
+            bindCard(firstPosition + slot, mCards[slot - 1]);
+            if (mImageLoader != null)
+                mImageLoader.onCardPlaced(mCards[slot - 1], mCardWidth, mCardHeight, slot);
         }
+        invalidate();
     }
 
 
     /**
-     * Set number of childs to be displayed on the stack.
+     * Record a dismissed card to the journal. Ids only mean something if they are stable.
      *
-     * @param max Maximum number of views to be displayed
+     * @param lp Layout parameters of the dismissed card
      */
-    public void setMaxVisible(int max) {
-        sMaxVisible = max;
+    private void journalDismissal(LayoutParams lp) {
+
+        if (mJournal != null && lp.dismissDirection != null && mAdapter.hasStableIds())
+            mJournal.record(lp.itemId, lp.dismissDirection, System.currentTimeMillis());
     }
 
 
     /**
-     * Set padding used between background views.
-     *
-     * @param padding Padding used between background views
+     * Move the top position past a card just dismissed. If the adapter removes its item, the top
+     * position moves back along with it.
      */
-    public void setStackPadding(float padding) {
-        sStackPadding = padding;
+    private void advanceTop() {
+
+        mModel.advanceTop();
+        updateTopItemId();
+    }
+
+    private void updateTopItemId() {
+
+        mTopItemId = mAdapter.hasStableIds() && mModel.getTopPosition() < mAdapter.getCount()
+                ? mAdapter.getItemId(mModel.getTopPosition()) : INVALID_ROW_ID;
     }
 
 
     /**
-     * Set scale used between background views.
-     *
-     * @param factor Factor to be used between background views
+     * Find the top position again after a change not reported item by item. With stable ids the
+     * top item is looked up, otherwise items gone are taken for dismissed ones, ahead of it.
      */
-    public void setStackScale(float factor) {
-        sStackScale = factor;
+    private void relocateTop() {
+
+        // Item being rewound was inserted at the top position
+        if (mModel.getTopPosition() == 0 || mRewindInserted)
+            return;
+
+        final int count = mAdapter.getCount();
+        int position = INVALID_POSITION;
+        // Top item most likely moved back by the items gone, usually the ones dismissed
+        if (mTopItemId != INVALID_ROW_ID && mAdapter.hasStableIds())
+            position = findItem(mTopItemId,
+                    mModel.getTopPosition() - Math.max(0, mModel.getItemCount() - count));
+        if (position == INVALID_POSITION)
+            mModel.relocateTop(count);
+        else
+            mModel.setTopPosition(Math.min(position, count));
     }
 
 
     /**
-     * Defined allowed directions, of type {@link FlingChief.Direction}, to where view can be dismissed.
-     *
-     * @param directions Allowed directions to where view should be dismissed
+     * Jump to the restored top item, without binding items before it, and queue cards that
+     * were leaving to be dismissed again.
      */
-    public void setDirections(FlingChief.Direction[] directions) {
-        mFlingChief.setDirections(directions);
+    private void applyPendingState() {
+
+        final SavedState state = mPendingState;
+        mPendingState = null;
+
+        // Only ids can be trusted to skip items, as the adapter may have dropped them itself
+        int position = INVALID_POSITION;
+        if (mAdapter.hasStableIds() && state.topItemId != INVALID_ROW_ID)
+            position = findItem(state.topItemId, state.topPosition);
+
+        // Top item gone, the deck resumes about where it was rather than from the start
+        if (position == INVALID_POSITION)
+            position = Math.max(0, Math.min(state.topPosition, mAdapter.getCount()));
+        mModel.setTopPosition(position);
+
+        // Their items were never reported dismissed. Parcels may come from another app version
+        final FlingChief.Direction[] directions = FlingChief.Direction.values();
+        for (int ordinal : state.dismissals) {
+            if (ordinal >= 0 && ordinal < directions.length && mFlingChief.isAllowed(directions[ordinal]))
+                mSwipeQueue.add(directions[ordinal]);
+        }
     }
 
 
     /**
-     * Set listener to be notified once an action is about to be performed or performed.
+     * Find the position of an item, looking outwards from where it's expected, as AdapterView
+     * does to sync its selection. Items further than {@link #ITEM_SEARCH_WINDOW} positions away
+     * are taken for missing, so large adapters aren't scanned on every change.
+     *
+     * @param itemId Adapter item id
+     * @param hint Position item is expected at
+     * @return Item position, {@link #INVALID_POSITION} if missing
+     */
+    private int findItem(long itemId, int hint) {
+
+        final int count = mAdapter.getCount();
+        if (count == 0)
+            return INVALID_POSITION;
+
+        final int seed = Math.max(0, Math.min(hint, count - 1));
+        final int first = Math.max(0, seed - ITEM_SEARCH_WINDOW);
+        final int last = Math.min(count - 1, seed + ITEM_SEARCH_WINDOW);
+        for (int offset = 0; seed - offset >= first || seed + offset <= last; offset++) {
+            if (seed + offset <= last && mAdapter.getItemId(seed + offset) == itemId)
+                return seed + offset;
+            if (offset > 0 && seed - offset >= first && mAdapter.getItemId(seed - offset) == itemId)
+                return seed - offset;
+        }
+        return INVALID_POSITION;
+    }
+
+
+    /**
+     * Get an empty array with room for every slot of the stack.
+     *
+     * @param nSlots Number of slots
+     * @return Array of nulls
+     */
+    private View[] obtainSlots(int nSlots) {
+
+        if (mSlots.length < nSlots)
+            mSlots = new View[nSlots];
+        return mSlots;
+    }
+
+
+    /**
+     * Find the position of each card after a change not reported item by item. With stable ids
+     * cards are matched to the item they show, otherwise they keep their order on the stack and
+     * background cards are bound again.
+     *
+     * @param nChilds Position following the last card to be displayed
+     */
+    private void remapPositions(int nChilds) {
+
+        final boolean stableIds = mAdapter.hasStableIds();
+        LayoutParams lp;
+        int rank = 0;
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            lp = (LayoutParams) getChildAt(i).getLayoutParams();
+            if (lp.position == INVALID_POSITION) // Dismissed
+                continue;
+
+            if (stableIds) {
+                lp.position = INVALID_POSITION;
+                for (int position = mModel.getTopPosition(); position < nChilds; position++)
+                    if (mAdapter.getItemId(position) == lp.itemId) {
+                        lp.position = position;
+                        break;
+                    }
+            } else {
+                lp.position = mModel.getTopPosition() + rank;
+                // Front card is handled by FlingChief, and swiped cards are leaving, keep them as they are
+                lp.bindPending = lp.bindPending || getChildAt(i) != mActiveCard && !lp.swiping;
+            }
+            rank++;
+        }
+    }
+
+
+    /**
+     * Make sure a card already on the stack shows the item of its slot and sits where it should.
+     * Cards whose item did not change are neither bound nor measured again.
+     *
+     * @param index Child index
+     * @param slot Slot of the card in the stack, 0 being the front card
+     * @param changed Whether the deck bounds changed
+     * @param shifted Whether cards were moved forward by swipes since last layout
+     */
+    private void updateChild(int index, int slot, boolean changed, boolean shifted) {
+
+        final View child = getChildAt(index);
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        final boolean moved = lp.layoutSlot != slot || shifted;
+
+        if (changed)
+            child.forceLayout();
+
+        if (lp.bindPending) {
+            final int viewType = getCardViewType(lp.position);
+            final View view;
+            if (viewType == lp.viewType)
+                view = obtainView(lp.position, child);
+            else
+                view = obtainView(lp.position, mRecycleBin.getScrapView(viewType));
+
+            if (view != child) {
+                recycleChild(index);
+                addChildToLayout(view, index, slot);
+                applyStackTransform(view, slot);
+                return;
+            }
+        }
+
+        if (moved || child.isLayoutRequested()) {
+            layoutChild(child, slot);
+            // Front card being dragged is placed by FlingChief
+            if (child != mActiveCard || !mModel.isInGesture())
+                applyStackTransform(child, slot);
+        }
+    }
+
+
+    /**
+     * Get a view bound to the given adapter position.
+     *
+     * @param position Adapter position
+     * @param convertView View offered to the adapter to be reused, if any
+     * @return View bound to the given position
+     */
+    View obtainView(int position, @Nullable View convertView) {
+
+        final int viewType = getCardViewType(position);
+        final long bindStart = mMetrics != null ? System.nanoTime() : 0;
+        final View child = mRenderer != null ? obtainCardView(position, convertView)
+                : mAdapter.getView(position, convertView, this);
+        if (mMetrics != null)
+            mMetrics.onBind(position, System.nanoTime() - bindStart);
+        mStats.onBind();
+
+        if (convertView != null && child == convertView) {
+            mStats.onScrapHit();
+        } else {
+            mStats.onScrapMiss();
+            if (convertView != null && convertView.getParent() == null)
+                mRecycleBin.addScrapView(convertView, viewType);
+        }
+
+        final ViewGroup.LayoutParams vlp = child.getLayoutParams();
+        final LayoutParams lp;
+        if (vlp == null)
+            lp = (LayoutParams) generateDefaultLayoutParams();
+        else if (!checkLayoutParams(vlp))
+            lp = (LayoutParams) generateLayoutParams(vlp);
+        else
+            lp = (LayoutParams) vlp;
+        lp.viewType = viewType;
+        lp.position = position;
+        lp.itemId = mAdapter.getItemId(position);
+        lp.bindPending = false;
+        lp.dismissDirection = null;
+        // Setting params requests a layout, which would have every card bound measured again
+        if (lp != vlp)
+            child.setLayoutParams(lp);
+        if (mSnapshots != null) mSnapshots.remove(child);
+
+        return child;
+    }
+
+
+    /**
+     * Get the front card view drawn by the renderer, bound to the given adapter position.
+     *
+     * @param position Adapter position
+     * @param convertView View to be reused, if any
+     * @return View bound to the given position
+     */
+    private View obtainCardView(int position, @Nullable View convertView) {
+
+        final RenderedCardView view = convertView instanceof RenderedCardView
+                ? (RenderedCardView) convertView : new RenderedCardView(getContext());
+        view.setRenderer(mRenderer);
+        view.getCard().clear();
+        ((DeckCardAdapter) mAdapter).bindCard(position, view.getCard());
+        view.invalidate();
+        return view;
+    }
+
+
+    /**
+     * Fill the model of a card drawn by the renderer.
+     *
+     * @param position Adapter position
+     * @param card Card to be filled
+     */
+    private void bindCard(int position, DeckCard card) {
+
+        final long bindStart = mMetrics != null ? System.nanoTime() : 0;
+        card.clear();
+        ((DeckCardAdapter) mAdapter).bindCard(position, card);
+        if (mMetrics != null)
+            mMetrics.onBind(position, System.nanoTime() - bindStart);
+        mStats.onBind();
+    }
+
+
+    /**
+     * Get view type of the card at the given position. Cards drawn by the renderer are all alike.
+     *
+     * @param position Adapter position
+     * @return View type the recycle bin keeps the card under
+     */
+    private int getCardViewType(int position) {
+        return mRenderer != null ? 0 : mAdapter.getItemViewType(position);
+    }
+
+    private int getCardViewTypeCount() {
+        return mRenderer != null ? 1 : mAdapter.getViewTypeCount();
+    }
+
+
+    /**
+     * Remove a child from the layout and move it into the recycle bin.
+     *
+     * @param index Index of the child to be recycled
+     */
+    private void recycleChild(int index) {
+
+        final View child = getChildAt(index);
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+        child.animate().cancel();
+        child.setOnTouchListener(null);
+        if (mLayersActive) child.setLayerType(LAYER_TYPE_NONE, null);
+        if (mSnapshots != null) mSnapshots.remove(child);
+        if (mImageLoader != null) mImageLoader.cancel(child);
+        removeViewsInLayout(index, 1);
+
+        // Dismissed cards are kept to be rewound
+        if (lp.position == INVALID_POSITION && lp.dismissDirection != null) {
+            final FlingChief.Direction direction = lp.dismissDirection;
+            lp.dismissDirection = null;
+            mHistory.push(lp.itemId, direction, child);
+        } else {
+            mRecycleBin.addScrapView(child, lp.viewType);
+        }
+    }
+
+
+    /**
+     * Add view to the layout and place it in center parent.
+     *
+     * @param child Child {@link View} to be placed
+     * @param index Index where child should be added
+     * @param slot child's index in stack
+     */
+    private void addChildToLayout(View child, int index, int slot) {
+
+        addViewInLayout(child, index, child.getLayoutParams(), true);
+        layoutChild(child, slot);
+    }
+
+
+    /**
+     * Measure, if needed, and place view in center parent.
+     *
+     * @param child Child {@link View} to be placed
+     * @param slot child's index in stack
+     */
+    private void layoutChild(View child, int slot) {
+
+        final float stackPadding = mConfig.getStackPadding();
+        final LayoutParams lp = (LayoutParams) child.getLayoutParams();
+
+        if (mSpecCache.find(lp.viewType, getWidthMeasureSpec(), getHeightMeasureSpec(),
+                getPaddingLeft() + getPaddingRight() + lp.leftMargin + lp.rightMargin,
+                getPaddingTop() + getPaddingBottom() + lp.topMargin + lp.bottomMargin,
+                lp.width, lp.height))
+            mStats.onMeasureSpecHit();
+
+        // Cards keep their size until their content, or the specs they get, change
+        if (child.isLayoutRequested()
+                || lp.widthSpec != mSpecCache.widthSpec || lp.heightSpec != mSpecCache.heightSpec) {
+            child.measure(mSpecCache.widthSpec, mSpecCache.heightSpec);
+            lp.widthSpec = mSpecCache.widthSpec;
+            lp.heightSpec = mSpecCache.heightSpec;
+            mStats.onMeasure();
+            if (mSnapshots != null) mSnapshots.remove(child);
+        } else {
+            cleanupLayoutState(child);
+            mStats.onMeasureSkip();
+        }
+
+        int w = child.getMeasuredWidth();
+        int h = child.getMeasuredHeight();
+
+        // Position view
+        int childLeft = (getWidth() + getPaddingLeft() - getPaddingRight() - w) / 2
+                + lp.leftMargin - lp.rightMargin;
+        int childTop = (getHeight() + getPaddingTop() - getPaddingBottom() - h) / 2
+                + lp.topMargin - lp.bottomMargin;
+        child.layout(childLeft,
+                childTop + (int) (slot * stackPadding),
+                childLeft + w,
+                childTop + h + (int) (slot * stackPadding));
+        lp.layoutSlot = slot;
+        mStats.onChildLayout();
+        if (mImageLoader != null) mImageLoader.onCardPlaced(child, w, h, slot);
+    }
+
+
+    /**
+     * Set view translation and scale according to its slot and current factor.
+     *
+     * @param view Card view
+     * @param slot Slot of the card in the stack
+     */
+    private void applyStackTransform(View view, int slot) {
+
+        final float shift = mStackFactor + mStackShift;
+        view.setTranslationY(-shift * mConfig.getStackPadding());
+        view.setScaleX(1.f - slot * mConfig.getStackScale() + shift * mConfig.getStackScale());
+    }
+
+
+    /**
+     * Draw every card from a hardware layer, so moving them doesn't redraw their content.
+     */
+    private void promoteLayers() {
+
+        if (!mHardwareLayersEnabled || mLayersActive)
+            return;
+
+        mLayersActive = true;
+        View view;
+        for (int i = 0; i < getChildCount(); i++) {
+            view = getChildAt(i);
+            // Cards drawn from snapshots wouldn't use their layer
+            if (mSnapshots == null || view == mActiveCard
+                    || ((LayoutParams) view.getLayoutParams()).swiping)
+                view.setLayerType(LAYER_TYPE_HARDWARE, null);
+        }
+    }
+
+
+    /**
+     * Release hardware layers of every card.
+     */
+    private void demoteLayers() {
+
+        if (!mLayersActive)
+            return;
+
+        mLayersActive = false;
+        for (int i = 0; i < getChildCount(); i++)
+            getChildAt(i).setLayerType(LAYER_TYPE_NONE, null);
+    }
+
+
+    /**
+     * Count cards being swiped whose item is still in the adapter.
+     *
+     * @return Number of items ahead of the stack
+     */
+    private int countSwipingItems() {
+
+        int count = 0;
+        for (int i = 0; i < mSwiping.size(); i++)
+            if (((LayoutParams) mSwiping.get(i).getLayoutParams()).position != INVALID_POSITION)
+                count++;
+        return count;
+    }
+
+
+    /**
+     * Run queued swipes on the next frame, at most once per frame.
+     */
+    private void scheduleSwipe() {
+
+        if (mSwipeScheduled || mSwipeQueue.isEmpty())
+            return;
+        mSwipeScheduled = true;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+            postOnAnimation(mSwipeRunnable);
+        else
+            postDelayed(mSwipeRunnable, ValueAnimator.getFrameDelay());
+    }
+
+
+    /**
+     * Send the front card off the stack in the next queued direction. The card behind it is
+     * moved forward without a layout pass, so it can be swiped on the following frame.
+     */
+    private void swipeNext() {
+
+        // Swipes wait for touch gestures, and rewinds, to end
+        if (mModel.isInGesture() || mRewinding != null || mSwipeQueue.isEmpty())
+            return;
+
+        final View card = mLastObjectOnStack >= 0 && mLastObjectOnStack < getChildCount()
+                ? getChildAt(mLastObjectOnStack) : null;
+        final LayoutParams lp = card != null ? (LayoutParams) card.getLayoutParams() : null;
+        if (lp == null || lp.swiping || lp.position == INVALID_POSITION) {
+            // Nothing left to swipe, unless a layout brings more cards
+            if (mSwiping.isEmpty() && !isLayoutRequested())
+                mSwipeQueue.clear();
+            return;
+        }
+
+        final FlingChief.Direction direction = mSwipeQueue.poll();
+        if (mActionsListener == null || mActionsListener.onDismiss(direction, card)) {
+            card.setOnTouchListener(null);
+            card.animate().cancel();
+            lp.swiping = true;
+            lp.dismissDirection = direction;
+            if (mImageLoader != null) mImageLoader.cancel(card);
+            mSwiping.add(card);
+            promoteLayers();
+            if (mLayersActive) card.setLayerType(LAYER_TYPE_HARDWARE, null);
+
+            final SwipeMotion motion = mIdleSwipeMotions.isEmpty()
+                    ? new SwipeMotion() : mIdleSwipeMotions.remove(mIdleSwipeMotions.size() - 1);
+            motion.start(card, direction);
+
+            mLastObjectOnStack--;
+            mStackOffset++;
+            moveBackgroundViews(mFactor, true);
+            // Next card has to become a view before it can be swiped
+            if (mRenderer != null)
+                requestLayout();
+        }
+        scheduleSwipe();
+    }
+
+
+    /**
+     * Once a swiped card left. Dismissals are reported in the order cards were swiped, so
+     * adapters can keep removing their first item.
+     *
+     * @param card Card which left
+     */
+    private void onSwipeEnd(View card) {
+
+        ((LayoutParams) card.getLayoutParams()).swiped = true;
+
+        View head;
+        LayoutParams lp;
+        while (!mSwiping.isEmpty()) {
+            head = mSwiping.get(0);
+            lp = (LayoutParams) head.getLayoutParams();
+            if (!lp.swiped)
+                break;
+
+            mSwiping.remove(0);
+            // Left for the recycle bin in its rest state, removed before next frame is drawn
+            head.setTranslationX(0);
+            head.setRotation(0);
+            lp.swiping = false;
+            lp.swiped = false;
+            if (lp.position != INVALID_POSITION) {
+                journalDismissal(lp);
+                advanceTop();
+            }
+            lp.position = INVALID_POSITION;
+            if (head == mActiveCard)
+                mActiveCard = null;
+            // Single layout pass for every card gone within the same frame
+            requestLayout();
+            if (mActionsListener != null)
+                mActionsListener.onDismissed(head);
+        }
+
+        if (mSwiping.isEmpty() && !mModel.isInGesture())
+            demoteLayers();
+    }
+
+
+    /**
+     * Drop queued swipes and stop cards being swiped where they are.
+     */
+    private void cancelSwipes() {
+
+        removeCallbacks(mSwipeRunnable);
+        mSwipeScheduled = false;
+        mSwipeQueue.clear();
+        for (int i = 0; i < mSwiping.size(); i++) {
+            final LayoutParams lp = (LayoutParams) mSwiping.get(i).getLayoutParams();
+            lp.swiping = false;
+            lp.swiped = false;
+            lp.position = INVALID_POSITION;
+        }
+        mSwiping.clear();
+        mStackOffset = 0;
+        mStackShift = 0;
+        mStackFromShift = 0;
+    }
+
+
+    /**
+     * Get the detached view of the card being rewound, if it still shows the front item.
+     *
+     * @return View bound to the front item, or null to bind one
+     */
+    @Nullable
+    private View takeRewindView() {
+
+        final View view = mRewindView;
+        if (view == null)
+            return null;
+
+        mRewindView = null;
+        final LayoutParams lp = (LayoutParams) view.getLayoutParams();
+        if (mAdapter.hasStableIds() && mAdapter.getItemId(mModel.getTopPosition()) != mRewindItemId
+                || getCardViewType(mModel.getTopPosition()) != lp.viewType) {
+            mRecycleBin.addScrapView(view, lp.viewType);
+            return null;
+        }
+        lp.position = mModel.getTopPosition();
+        return view;
+    }
+
+
+    /**
+     * Move the front card from the side it was dismissed to back onto the stack.
+     */
+    private void startRewind() {
+
+        final FlingChief.Direction direction = mRewindDirection;
+        final View card = mActiveCard;
+        final long itemId = mRewindItemId;
+        clearRewind();
+        if (direction == null || card == null
+                || mAdapter.hasStableIds() && ((LayoutParams) card.getLayoutParams()).itemId != itemId)
+            return;
+
+        // Given back to FlingChief once in place
+        card.setOnTouchListener(null);
+        mRewinding = card;
+        mRewindToX = card.getX();
+        mRewindToY = card.getY();
+        switch (direction) {
+            case LEFT:
+                card.setX(-card.getWidth());
+                break;
+            case TOP:
+                card.setY(-card.getHeight());
+                break;
+            case RIGHT:
+                card.setX(getWidth());
+                break;
+            default:
+                card.setY(getHeight());
+                break;
+        }
+
+        if (mRewindEngine == null)
+            mRewindEngine = new PhysicsMotionEngine();
+        mRewindEngine.restore(card, mRewindToX, mRewindToY, 0, 0, mRewindMotionListener);
+    }
+
+
+    /**
+     * Hand the rewound card back to FlingChief, and carry on with queued swipes.
+     */
+    private void onRewindEnd() {
+
+        final View card = mRewinding;
+        mRewinding = null;
+        if (card != null && card == mActiveCard)
+            mFlingChief.injectView(card);
+        scheduleSwipe();
+    }
+
+
+    /**
+     * Drop the pending rewind, its detached view going to the recycle bin.
+     */
+    private void clearRewind() {
+
+        if (mRewindView != null)
+            mRecycleBin.addScrapView(mRewindView, ((LayoutParams) mRewindView.getLayoutParams()).viewType);
+        mRewindView = null;
+        mRewindDirection = null;
+        mRewindInserted = false;
+    }
+
+
+    /**
+     * Drop the pending rewind and put the card moving back in place.
+     */
+    private void cancelRewind() {
+
+        clearRewind();
+        if (mRewinding != null) {
+            if (mRewindEngine != null) mRewindEngine.cancel();
+            mRewinding.setX(mRewindToX);
+            mRewinding.setY(mRewindToY);
+            mRewinding.setRotation(0);
+            onRewindEnd();
+        }
+    }
+
+
+    /**
+     * Translate Y up based on a factor from 0 to 1.
+     *
+     * @param factor Value from 0 to 1
+     * @param animate True to get there on the deck clock, false to follow the pointer
+     */
+    private void moveBackgroundViews(@FloatRange(from = 0.f, to = 1.f) float factor, boolean animate) {
+
+        if (animate) {
+            mStackToFactor = factor;
+            startStackClock();
+            return;
+        }
+
+        // Any factor animation is overtaken, only the shift of swiped cards keeps going
+        mStackFromFactor = mStackToFactor = factor;
+        applyStack(factor, mStackShift);
+    }
+
+
+    /**
+     * Have background cards follow the front card while its motion engine moves it, so both
+     * stay in lockstep however the engine moves it. Stops once the gesture ends.
+     */
+    private void followFrontCard() {
+
+        mStackFollowsFront = true;
+        if (mStackAnimator == null || !mStackAnimator.isRunning()) {
+            mStackToFactor = mStackFactor;
+            startStackClock();
+        }
+    }
+
+
+    /**
+     * Start the deck clock from the values currently applied, or start it over if running.
+     */
+    private void startStackClock() {
+
+        mStackFromFactor = mStackFactor;
+        mStackFromShift = mStackShift;
+
+        if (mStackAnimator == null) {
+            mStackAnimator = ValueAnimator.ofFloat(0.f, 1.f);
+            mStackAnimator.setDuration(STACK_DURATION);
+            mStackAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+                @Override
+                public void onAnimationUpdate(ValueAnimator animation) {
+                    onStackFrame(animation.getAnimatedFraction());
+                }
+            });
+            mStackAnimator.addListener(new AnimatorListenerAdapter() {
+                @Override
+                public void onAnimationEnd(Animator animation) {
+                    // Front card may take longer than the clock to get where it goes
+                    if (mStackFollowsFront)
+                        startStackClock();
+                }
+            });
+        }
+
+        if (mStackAnimator.isRunning())
+            mStackAnimator.setCurrentPlayTime(0);
+        else
+            mStackAnimator.start();
+    }
+
+
+    /**
+     * Compute the stack from the deck clock and write it to every card.
+     *
+     * @param fraction Clock fraction, from 0 to 1
+     */
+    private void onStackFrame(float fraction) {
+
+        final float factor = mStackFollowsFront && mActiveCard != null ? getFrontFactor()
+                : mStackFromFactor + (mStackToFactor - mStackFromFactor) * fraction;
+        applyStack(factor, mStackFromShift + (mStackOffset - mStackFromShift) * fraction);
+    }
+
+
+    /**
+     * Get factor matching the front card where it is, as it would be reported while dragged.
+     *
+     * @return Factor from 0 to 1
+     */
+    private float getFrontFactor() {
+
+        final View front = mActiveCard;
+        final float restX = front.getLeft() + front.getWidth() / 2.f;
+        final float restY = front.getTop() + front.getHeight() / 2.f;
+        final float x = front.getX() + front.getWidth() / 2.f;
+        final float y = front.getY() + front.getHeight() / 2.f;
+        mFrontProximities[0] = DeckMath.proximity(restX, x, 0);
+        mFrontProximities[1] = DeckMath.proximity(restY, y, 0);
+        mFrontProximities[2] = DeckMath.proximity(restX, x, getWidth());
+        mFrontProximities[3] = DeckMath.proximity(restY, y, getHeight());
+        return DeckMath.backgroundFactor(mFrontProximities);
+    }
+
+
+    /**
+     * Move every background card at once. Cards drawn by the deck itself, from snapshots or by
+     * a renderer, are drawn again.
+     *
+     * @param factor Value from 0 to 1
+     * @param shift Number of slots cards moved forward by swipes
+     */
+    private void applyStack(@FloatRange(from = 0.f, to = 1.f) float factor, float shift) {
+
+        mStackFactor = factor;
+        mStackShift = shift;
+
+        final float stackPadding = mConfig.getStackPadding();
+        final float stackScale = mConfig.getStackScale();
+        final float offset = factor + shift;
+        final int end = getStackMoveEnd();
+        View view;
+        int slot;
+        for (int i = 0; i < end; i++) {
+            view = getChildAt(i);
+            slot = mLastObjectOnStack - i + mStackOffset;
+            view.setTranslationY(-offset * stackPadding);
+            view.setScaleX(1.f - slot * stackScale + offset * stackScale);
+        }
+
+        if (mSnapshots != null || mRenderer != null)
+            invalidate();
+    }
+
+
+    /**
+     * Get index following the last card moved along with the background. Once cards are swiped
+     * off the stack, the whole stack moves forward, front card included, until it is back in
+     * place.
+     *
+     * @return Index following the last card to be moved
+     */
+    private int getStackMoveEnd() {
+        return mStackOffset > 0 || mStackShift != 0 && !mModel.isInGesture()
+                ? mLastObjectOnStack + 1 : mLastObjectOnStack;
+    }
+
+
+    /**
+     * Set number of childs to be displayed on the stack.
+     *
+     * @param max Maximum number of views to be displayed, at least 1
+     */
+    public void setMaxVisible(int max) {
+        setConfig(mConfig.withMaxVisible(max));
+    }
+
+
+    /**
+     * Set padding used between background views.
      *
-     * @param actionListener Listener to be called
+     * @param padding Padding used between background views
      */
-    public void setActionsListener(final FlingChiefListener.Actions actionListener) {
+    public void setStackPadding(float padding) {
+        setConfig(mConfig.withStackPadding(padding));
+    }
 
-        mFlingChief.setActionListener(new FlingChiefListener.Actions() {
-            @Override public boolean onDismiss(@NonNull FlingChief.Direction direction, @NonNull View view) {
-                mFactor = 1.f;
-                moveBackgroundViews(mFactor, true);
-                return actionListener.onDismiss(direction, view);
-            }
 
-            @Override public boolean onDismissed(@NonNull View view) {
-                mActiveCard = null;
-                return actionListener.onDismissed(view);
-            }
+    /**
+     * Set scale used between background views.
+     *
+     * @param factor Factor to be used between background views
+     */
+    public void setStackScale(float factor) {
+        setConfig(mConfig.withStackScale(factor));
+    }
 
-            @Override public boolean onReturn(@NonNull View view) {
-                mFactor = 0.f;
-                moveBackgroundViews(mFactor, true);
-                return actionListener.onReturn(view);
-            }
 
-            @Override public boolean onReturned(@NonNull View view) {
-                return actionListener.onReturned(view);
-            }
+    /**
+     * Replace the whole stack configuration at once. Cards are placed again on the next layout
+     * pass, however many times the configuration changes before it.
+     *
+     * @param config New configuration
+     */
+    public void setConfig(@NonNull DeckConfig config) {
 
-            @Override
-            public boolean onTapped() {
-                return actionListener.onTapped();
-            }
+        if (config.equals(mConfig))
+            return;
 
-            @Override
-            public boolean onDoubleTapped() {
-                return actionListener.onDoubleTapped();
-            }
-        });
+        mConfig = config;
+        mRecycleBin.setMaxScrapPerType(config.getMaxVisible() + mPrefetcher.getDepth());
+
+        // Every card has to be placed again
+        for (int i = 0; i < getChildCount(); i++)
+            ((LayoutParams) getChildAt(i).getLayoutParams()).layoutSlot = INVALID_POSITION;
+        requestLayout();
+    }
+
+
+    /**
+     * Get current stack configuration.
+     *
+     * @return Current configuration
+     */
+    @NonNull
+    public DeckConfig getConfig() {
+        return mConfig;
+    }
+
+
+    /**
+     * Defined allowed directions, of type {@link FlingChief.Direction}, to where view can be dismissed.
+     *
+     * @param directions Allowed directions to where view should be dismissed
+     */
+    public void setDirections(FlingChief.Direction[] directions) {
+        mFlingChief.setDirections(directions);
+    }
+
+
+    /**
+     * Dismiss the front card to the given direction, as if it was flinged. Swipes requested
+     * while cards are still leaving are queued, and each following card starts leaving on the
+     * next frame without waiting for the previous one to be gone.
+     *
+     * @param direction Direction the card leaves through
+     * @return False if direction isn't allowed, see {@link #setDirections}
+     */
+    public boolean swipe(@NonNull FlingChief.Direction direction) {
+        return swipeAll(1, direction);
+    }
+
+
+    /**
+     * Dismiss the given number of cards to the given direction, one card per frame. Cards are
+     * reported dismissed in order, and the deck is laid out at most once per frame however many
+     * cards are gone.
+     *
+     * @param count Number of cards to be dismissed
+     * @param direction Direction cards leave through
+     * @return False if direction isn't allowed, see {@link #setDirections}
+     */
+    public boolean swipeAll(int count, @NonNull FlingChief.Direction direction) {
+
+        if (count < 0)
+            throw new IllegalArgumentException("Can't swipe a count < 0");
+        if (!mFlingChief.isAllowed(direction))
+            return false;
+
+        for (int i = 0; i < count; i++)
+            mSwipeQueue.add(direction);
+        scheduleSwipe();
+        return true;
+    }
+
+
+    /**
+     * Bring the last dismissed card back, from the side it left through. The item is handed to
+     * the {@link FlingChiefListener.Rewind} listener to be inserted back at position 0, and its
+     * card reuses the view kept since it was dismissed, if any.
+     *
+     * @return False if there's nothing to rewind, a card is moving, or the item wasn't restored
+     */
+    public boolean rewind() {
+
+        if (mRewindListener == null || mModel.isInGesture() || !mSwiping.isEmpty())
+            return false;
+
+        final DismissHistory.Entry entry = mHistory.pop();
+        if (entry == null)
+            return false;
+
+        cancelRewind();
+        mRewindItemId = entry.itemId;
+        mRewindDirection = entry.direction;
+        mRewindView = entry.view;
+        entry.view = null;
+        if (!mRewindListener.onRewind(mRewindItemId, mRewindDirection)) {
+            clearRewind();
+            return false;
+        }
+        return true;
+    }
+
+
+    /**
+     * Set listener asked to restore items being rewound. Nothing can be rewound while none is set.
+     *
+     * @param rewindListener Listener to be called
+     */
+    public void setRewindListener(@Nullable FlingChiefListener.Rewind rewindListener) {
+        mRewindListener = rewindListener;
+    }
+
+
+    /**
+     * Set journal every dismissed card is recorded to, once gone, as long as the adapter has
+     * stable ids. See {@link UnseenDeckDataSource} to skip cards already dismissed.
+     *
+     * @param journal Journal to record to, null to stop recording
+     */
+    public void setSwipeJournal(@Nullable SwipeJournal journal) {
+        mJournal = journal;
+    }
+
+
+    /**
+     * Set loader of card images. Adapters request images for the card views they bind, or for
+     * the {@link DeckCard} models in renderer mode, and the deck tells the loader the size and
+     * slot of each card once placed, so images are decoded at card size, front card first.
+     * Requests of dismissed and recycled cards are cancelled.
+     *
+     * @param imageLoader Loader to be told about cards, null for none
+     */
+    public void setImageLoader(@Nullable DeckImageLoader<?> imageLoader) {
+        mImageLoader = imageLoader;
+    }
+
+
+    /**
+     * Set how many dismissed cards can be rewound, 10 by default, and how many bytes their kept
+     * views may take, a thirty-second of the heap by default. Cards over the byte budget can still
+     * be rewound, but are bound again.
+     *
+     * @param capacity Maximum number of dismissed cards kept
+     * @param maxBytes Maximum number of bytes taken by views of dismissed cards
+     */
+    public void setRewindHistory(int capacity, int maxBytes) {
+        mHistory.resize(capacity, maxBytes);
+    }
+
+
+    /**
+     * Set whether cards should be drawn from hardware layers while the front card is dragged,
+     * dismissed or returned. Enabled by default.
+     *
+     * @param enabled True to use hardware layers during gestures
+     */
+    public void setHardwareLayersEnabled(boolean enabled) {
+
+        if (!enabled) demoteLayers();
+        mHardwareLayersEnabled = enabled;
+    }
+
+
+    /**
+     * Set number of cards, following the stack, to be bound while the front card is dragged, so
+     * they are ready once it is dismissed. Bound cards are only reused if the adapter has stable
+     * ids, otherwise their views are only inflated. One by default.
+     *
+     * @param depth Number of cards, 0 to disable prefetching
+     */
+    public void setPrefetchDepth(int depth) {
+
+        mPrefetcher.setDepth(depth);
+        mRecycleBin.setMaxScrapPerType(mConfig.getMaxVisible() + depth);
+    }
+
+
+    /**
+     * Set executor used to inflate prefetched cards when the adapter is a {@link PrefetchAdapter},
+     * {@link android.os.AsyncTask#THREAD_POOL_EXECUTOR} by default.
+     *
+     * @param executor Executor, null to inflate on the UI thread while it is idle
+     */
+    public void setPrefetchExecutor(@Nullable Executor executor) {
+        mPrefetcher.setExecutor(executor);
+    }
+
+
+    /**
+     * Draw cards from {@link DeckCard} models with the given renderer, all in the deck's own
+     * draw pass. Only the front card is a view, cutting view count and draw time for decks
+     * showing many cards. Adapter has to be a {@link DeckCardAdapter}.
+     *
+     * @param renderer Renderer drawing every card, null for cards to be adapter views
+     */
+    public void setRenderer(@Nullable DeckRenderer renderer) {
+
+        if (renderer == mRenderer)
+            return;
+        if (renderer != null && mAdapter != null && !(mAdapter instanceof DeckCardAdapter))
+            throw new IllegalStateException("Adapter has to be a DeckCardAdapter to be rendered");
+
+        // Cards are views of another kind from now on
+        resetStack();
+        mPrefetcher.invalidate();
+        mRenderer = renderer;
+        if (renderer != null)
+            setWillNotDraw(false);
+        if (mAdapter != null) {
+            mRecycleBin.setViewTypeCount(getCardViewTypeCount());
+            mSpecCache.setViewTypeCount(getCardViewTypeCount());
+            requestLayout();
+        }
+        invalidate();
+    }
+
+
+    /**
+     * Set whether cards behind the front one should be drawn from bitmap snapshots rather than
+     * from their views. Cheaper to draw while the front card moves, but a background card whose
+     * content changes without being bound again, or laid out again, needs
+     * {@link #invalidateSnapshots()}. Disabled by default.
+     *
+     * @param enabled True to draw background cards from snapshots
+     */
+    public void setSnapshotBackgroundEnabled(boolean enabled) {
+
+        if (enabled == (mSnapshots != null))
+            return;
+
+        if (enabled) {
+            mSnapshots = new SnapshotCache(mSnapshotCacheSize);
+        } else {
+            mSnapshots.clear();
+            mSnapshots = null;
+        }
+        invalidate();
+    }
+
+
+    /**
+     * Set number of bytes snapshots of background cards may hold, a sixteenth of the maximum
+     * heap by default.
+     *
+     * @param bytes Snapshot cache size in bytes
+     */
+    public void setSnapshotCacheSize(int bytes) {
+
+        if (bytes <= 0)
+            throw new IllegalArgumentException("Can't have a snapshot cache size <= 0");
+
+        mSnapshotCacheSize = bytes;
+        if (mSnapshots != null) {
+            mSnapshots.clear();
+            mSnapshots = new SnapshotCache(bytes);
+            invalidate();
+        }
+    }
+
+
+    /**
+     * Draw snapshots of background cards again, as their content changed.
+     */
+    public void invalidateSnapshots() {
+
+        if (mSnapshots != null) {
+            mSnapshots.evictAll();
+            invalidate();
+        }
+    }
+
+
+    /**
+     * Set listener to receive deck and gesture metrics. Nothing is measured while no listener
+     * is set.
+     *
+     * @param metrics Listener to report metrics to, null to stop measuring
+     */
+    public void setMetrics(@Nullable DeckMetrics metrics) {
+
+        mMetrics = metrics;
+        mFlingChief.setMetrics(metrics);
+    }
+
+
+    /**
+     * Set whether the front card, background cards and proximity listener are updated once per
+     * frame with the latest pointer position. Enabled by default, disable for the proximity
+     * listener to be called on every touch event.
+     *
+     * @param coalesce True to update once per frame
+     */
+    public void setCoalesceUpdates(boolean coalesce) {
+        mFlingChief.setCoalesceUpdates(coalesce);
+    }
+
+
+    /**
+     * Set policy deciding whether a released front card is dismissed, and to where, or
+     * returned. {@link DefaultDismissPolicy} by default.
+     *
+     * @param policy Policy deciding fate of released cards
+     */
+    public void setDismissPolicy(@NonNull DismissPolicy policy) {
+        mFlingChief.setDismissPolicy(policy);
+    }
+
+
+    /**
+     * Set engine used to move the front card once released, {@link PhysicsMotionEngine} by default.
+     *
+     * @param engine Engine moving the front card once released
+     */
+    public void setMotionEngine(@NonNull MotionEngine engine) {
+        mFlingChief.setMotionEngine(engine);
+    }
+
+
+    /**
+     * Set listener to be notified once an action is about to be performed or performed.
+     *
+     * @param actionListener Listener to be called
+     */
+    public void setActionsListener(@Nullable FlingChiefListener.Actions actionListener) {
+        mActionsListener = actionListener;
     }
 
 
@@ -344,11 +2013,176 @@ public class RossDeckView extends BaseAdapterView {
         mFlingChief.setProximityListener(new FlingChiefListener.Proximity() {
             @Override
             public void onProximityUpdate(@NonNull float[] proximities, @NonNull View view) {
-                mFactor = calculateBackgroundFactor(proximities);
+                mFactor = mModel.getFactor();
                 moveBackgroundViews(mFactor, false);
                 proximityListener.onProximityUpdate(proximities, view);
             }
         });
     }
 
+
+    /**
+     * Get adapter position of the front card. It is 0 as long as the adapter removes items once
+     * dismissed, otherwise it moves past them, as it does when state is restored past items the
+     * adapter still holds.
+     *
+     * @return Position of the front card, or of the first card being swiped if any
+     */
+    public int getTopPosition() {
+        return mModel.getTopPosition();
+    }
+
+
+    /**
+     * Counters describing the work done by the deck, such as recycled view hits and misses.
+     *
+     * @return Deck counters
+     */
+    public DeckStats getStats() {
+        return mStats;
+    }
+
+
+    /**
+     * Motion of a single swiped card. Each card being swiped has its own, so they can leave
+     * at the same time.
+     */
+    private class SwipeMotion implements MotionEngine.Listener {
+
+        private final PhysicsMotionEngine mEngine = new PhysicsMotionEngine();
+
+        void start(View card, FlingChief.Direction direction) {
+
+            float toX = card.getX();
+            float toY = card.getY();
+            switch (direction) {
+                case LEFT:
+                    toX = -card.getWidth();
+                    break;
+                case TOP:
+                    toY = -card.getHeight();
+                    break;
+                case RIGHT:
+                    toX = getWidth();
+                    break;
+                default:
+                    toY = getHeight();
+                    break;
+            }
+            mEngine.dismiss(card, toX, toY, 0, 0, this);
+        }
+
+        @Override
+        public void onMotionEnd(@NonNull View view) {
+
+            mIdleSwipeMotions.add(this);
+            onSwipeEnd(view);
+        }
+    }
+
+
+    /**
+     * State kept across configuration changes and process death: the front item and the cards
+     * which were leaving.
+     */
+    static class SavedState extends BaseSavedState {
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel in) {
+                return new SavedState(in);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+
+        long topItemId = INVALID_ROW_ID;
+
+        int topPosition;
+
+        /** Directions of pending dismissals, in order, as {@link FlingChief.Direction} ordinals */
+        int[] dismissals = new int[0];
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel in) {
+
+            super(in);
+            topItemId = in.readLong();
+            topPosition = in.readInt();
+            dismissals = new int[in.readInt()];
+            for (int i = 0; i < dismissals.length; i++)
+                dismissals[i] = in.readInt();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+
+            super.writeToParcel(out, flags);
+            out.writeLong(topItemId);
+            out.writeInt(topPosition);
+            out.writeInt(dismissals.length);
+            for (int dismissal : dismissals)
+                out.writeInt(dismissal);
+        }
+    }
+
+
+    /**
+     * Layout parameters of a card, keeping track of the adapter view type it was created for.
+     */
+    public static class LayoutParams extends FrameLayout.LayoutParams {
+
+        /** Adapter view type of the card */
+        int viewType;
+
+        /** Adapter position the card was last bound to */
+        int position = INVALID_POSITION;
+
+        /** Adapter item id the card was last bound to */
+        long itemId = INVALID_ROW_ID;
+
+        /** Whether the item changed since the card was bound */
+        boolean bindPending;
+
+        /** Stack slot the card was last laid out at */
+        int layoutSlot = INVALID_POSITION;
+
+        /** Specs the card was last measured with */
+        int widthSpec;
+
+        int heightSpec;
+
+        /** Whether the card is leaving after a requested swipe */
+        boolean swiping;
+
+        /** Whether the card left, but is waiting for cards swiped before it */
+        boolean swiped;
+
+        /** Direction the card was dismissed to, null if it wasn't */
+        @Nullable
+        FlingChief.Direction dismissDirection;
+
+        public LayoutParams(Context c, AttributeSet attrs) {
+            super(c, attrs);
+        }
+
+        public LayoutParams(int width, int height) {
+            super(width, height);
+        }
+
+        public LayoutParams(ViewGroup.LayoutParams source) {
+            super(source);
+        }
+
+        public LayoutParams(MarginLayoutParams source) {
+            super(source);
+        }
+    }
+
 }
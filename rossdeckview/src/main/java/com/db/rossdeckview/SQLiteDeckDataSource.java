@@ -0,0 +1,108 @@
+package com.db.rossdeckview;
+
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * {@link DeckDataSource} reading rows of a SQLite table in {@link BaseColumns#_ID} order. Each
+ * page seeks past the id of the last item loaded, so loading stays cheap however deep the deck
+ * goes. {@link #getItemId} must return the row id.
+ *
+ * @param <T> Item type
+ */
+public abstract class SQLiteDeckDataSource<T> implements DeckDataSource<T> {
+
+    private final SQLiteDatabase mDatabase;
+
+    private final String mTable;
+
+    @Nullable
+    private final String[] mColumns;
+
+    @Nullable
+    private final String mSelection;
+
+    @Nullable
+    private final String[] mSelectionArgs;
+
+
+    /**
+     * @param database Database to read from
+     * @param table Table holding the deck items
+     * @param columns Columns to read, null for all
+     * @param selection Filter applied to rows, null for none
+     * @param selectionArgs Arguments of the filter
+     */
+    public SQLiteDeckDataSource(@NonNull SQLiteDatabase database, @NonNull String table,
+                                @Nullable String[] columns, @Nullable String selection,
+                                @Nullable String[] selectionArgs) {
+        mDatabase = database;
+        mTable = table;
+        mColumns = columns;
+        mSelection = selection;
+        mSelectionArgs = selectionArgs;
+    }
+
+    @NonNull
+    @Override
+    public List<T> loadAfter(@Nullable T last, int count) throws IOException {
+
+        String selection = mSelection;
+        String[] selectionArgs = mSelectionArgs;
+        if (last != null) {
+            final String after = BaseColumns._ID + " > ?";
+            selection = selection == null ? after : "(" + selection + ") AND " + after;
+            selectionArgs = appendArg(selectionArgs, Long.toString(getItemId(last)));
+        }
+
+        Cursor cursor = null;
+        try {
+            cursor = mDatabase.query(mTable, mColumns, selection, selectionArgs,
+                    null, null, BaseColumns._ID, Integer.toString(count));
+            final List<T> items = new ArrayList<>(count);
+            while (cursor.moveToNext())
+                items.add(fromCursor(cursor));
+            return items;
+        } catch (SQLException e) {
+            throw new IOException(e);
+        } finally {
+            if (cursor != null)
+                cursor.close();
+        }
+    }
+
+
+    /**
+     * Build an item from the current cursor row.
+     *
+     * @param cursor Cursor positioned on the row
+     * @return Item of the row
+     */
+    @NonNull
+    protected abstract T fromCursor(@NonNull Cursor cursor);
+
+
+    /**
+     * Copy of the selection arguments, with one more at the end.
+     */
+    private static String[] appendArg(@Nullable String[] args, String arg) {
+
+        if (args == null)
+            return new String[] {arg};
+
+        final String[] result = new String[args.length + 1];
+        System.arraycopy(args, 0, result, 0, args.length);
+        result[args.length] = arg;
+        return result;
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.db.rossdeckview;
+
+import java.util.HashSet;
+
+
+/**
+ * Set of item ids, as a bitmap for the dense, non-negative ids most sources use, so a lookup is
+ * a single word read. Ids out of the bitmap range fall back to a hash set.
+ */
+class SeenIds {
+
+    /** Largest id kept in the bitmap, 2 MB once fully grown */
+    private static final long MAX_BITMAP_ID = 1 << 24;
+
+    /** Ids per bitmap word, as a shift: 64 */
+    private static final int WORD_SHIFT = 6;
+
+    private long[] mWords = new long[64];
+
+    private final HashSet<Long> mSparse = new HashSet<>();
+
+
+    /**
+     * @param id Item id
+     */
+    void add(long id) {
+
+        if (id < 0 || id >= MAX_BITMAP_ID) {
+            mSparse.add(id);
+            return;
+        }
+
+        final int word = (int) (id >>> WORD_SHIFT);
+        if (word >= mWords.length) {
+            final long[] words = new long[Math.max(word + 1, mWords.length * 2)];
+            System.arraycopy(mWords, 0, words, 0, mWords.length);
+            mWords = words;
+        }
+        mWords[word] |= 1L << id;
+    }
+
+
+    /**
+     * @param id Item id
+     * @return True if id was added since last cleared
+     */
+    boolean contains(long id) {
+
+        if (id < 0 || id >= MAX_BITMAP_ID)
+            return mSparse.contains(id);
+
+        final int word = (int) (id >>> WORD_SHIFT);
+        return word < mWords.length && (mWords[word] & 1L << id) != 0;
+    }
+
+
+    /**
+     * Remove every id.
+     */
+    void clear() {
+
+        mWords = new long[64];
+        mSparse.clear();
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.db.rossdeckview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+
+
+/**
+ * Renderer for the common card design: background colour with rounded corners, center cropped
+ * image, and a single line title at the bottom.
+ */
+public class SimpleDeckRenderer implements DeckRenderer {
+
+    private final float mCornerRadius;
+
+    private final float mTextSize;
+
+    @ColorInt
+    private final int mTextColor;
+
+    /** Bounds reused between cards */
+    private final RectF mBounds = new RectF();
+
+    private final Rect mImageSrc = new Rect();
+
+
+    /**
+     * @param cornerRadius Radius of card corners, in pixels
+     * @param textSize Title size, in pixels
+     * @param textColor Title colour
+     */
+    public SimpleDeckRenderer(float cornerRadius, float textSize, @ColorInt int textColor) {
+
+        mCornerRadius = cornerRadius;
+        mTextSize = textSize;
+        mTextColor = textColor;
+    }
+
+    @Override
+    public void draw(@NonNull Canvas canvas, @NonNull DeckCard card, int width, int height, @NonNull Paint paint) {
+
+        mBounds.set(0, 0, width, height);
+        paint.setColor(card.getColor());
+        canvas.drawRoundRect(mBounds, mCornerRadius, mCornerRadius, paint);
+
+        // Image fills card inside its corners, cropped to keep its aspect ratio
+        final Bitmap image = card.getImage();
+        if (image != null && !image.isRecycled()) {
+            mBounds.set(0, mCornerRadius, width, height - mCornerRadius);
+            cropTo(image.getWidth(), image.getHeight(), mBounds.width(), mBounds.height(), mImageSrc);
+            canvas.drawBitmap(image, mImageSrc, mBounds, paint);
+        }
+
+        final CharSequence title = card.getTitle();
+        if (title != null && title.length() > 0) {
+            paint.setColor(mTextColor);
+            paint.setTextSize(mTextSize);
+            final int saveCount = canvas.save();
+            canvas.clipRect(mCornerRadius, 0, width - mCornerRadius, height);
+            canvas.drawText(title, 0, title.length(), mCornerRadius,
+                    height - mCornerRadius - paint.descent(), paint);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+
+    /**
+     * Find the centered part of an image with the aspect ratio of the given bounds.
+     */
+    private static void cropTo(int imageWidth, int imageHeight, float width, float height, Rect out) {
+
+        if (width <= 0 || height <= 0) {
+            out.set(0, 0, imageWidth, imageHeight);
+            return;
+        }
+
+        if (imageWidth * height > width * imageHeight) {
+            final int cropWidth = (int) (imageHeight * width / height);
+            final int left = (imageWidth - cropWidth) / 2;
+            out.set(left, 0, left + cropWidth, imageHeight);
+        } else {
+            final int cropHeight = (int) (imageWidth * height / width);
+            final int top = (imageHeight - cropHeight) / 2;
+            out.set(0, top, imageWidth, top + cropHeight);
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.db.rossdeckview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+import android.view.View;
+
+
+/**
+ * Bitmap snapshots of background cards, limited by a byte budget. Least recently drawn snapshots
+ * are evicted first and their bitmaps go back to a {@link BitmapPool}.
+ */
+class SnapshotCache extends LruCache<View, Bitmap> {
+
+    private final BitmapPool mPool;
+
+    private final Canvas mCanvas = new Canvas();
+
+
+    /**
+     * @param maxBytes Maximum number of bytes held by snapshots
+     */
+    SnapshotCache(int maxBytes) {
+        super(maxBytes);
+        mPool = new BitmapPool(maxBytes / 4);
+    }
+
+
+    /**
+     * Get the snapshot of a card, drawing it if missing or if the card was resized.
+     *
+     * @param view Card laid out
+     * @return Snapshot of the card, or null if it can't be cached
+     */
+    @Nullable
+    Bitmap obtain(View view) {
+
+        Bitmap snapshot = get(view);
+        final int width = view.getWidth();
+        final int height = view.getHeight();
+        if (snapshot != null) {
+            if (snapshot.getWidth() == width && snapshot.getHeight() == height)
+                return snapshot;
+            remove(view);
+        }
+
+        // ARGB_8888, anything larger than the whole budget would only evict everything else
+        if (width <= 0 || height <= 0 || (long) width * height * 4 > maxSize())
+            return null;
+
+        snapshot = mPool.get(width, height);
+        mCanvas.setBitmap(snapshot);
+        view.draw(mCanvas);
+        mCanvas.setBitmap(null);
+        put(view, snapshot);
+        return snapshot;
+    }
+
+
+    /**
+     * Drop every snapshot and pooled bitmap.
+     */
+    void clear() {
+
+        evictAll();
+        mPool.clear();
+    }
+
+    @Override
+    protected int sizeOf(View key, Bitmap value) {
+        return value.getByteCount();
+    }
+
+    @Override
+    protected void entryRemoved(boolean evicted, View key, Bitmap oldValue, Bitmap newValue) {
+
+        if (oldValue != newValue)
+            mPool.put(oldValue);
+    }
+
+}
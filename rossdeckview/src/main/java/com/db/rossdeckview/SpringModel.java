@@ -0,0 +1,86 @@
+package com.db.rossdeckview;
+
+
+/**
+ * Damped spring pulling a position towards its target.
+ */
+public final class SpringModel implements MotionModel {
+
+    /** Longest step integrated at once, keeps integration stable on long frames */
+    private static final float MAX_STEP = 1f / 240f;
+
+    private final float mStiffness;
+
+    private final float mDamping;
+
+    private final float mRestDisplacement;
+
+    private final float mRestVelocity;
+
+    private float mPosition;
+
+    private float mVelocity;
+
+    private float mTarget;
+
+
+    /**
+     * Create a spring.
+     *
+     * @param stiffness Spring stiffness, for a unit mass
+     * @param dampingRatio Damping ratio, 1 being critically damped
+     * @param restDisplacement Distance to target, in pixels, under which spring may rest
+     * @param restVelocity Velocity, in pixels per second, under which spring may rest
+     */
+    public SpringModel(float stiffness, float dampingRatio, float restDisplacement, float restVelocity) {
+
+        if (stiffness <= 0)
+            throw new IllegalArgumentException("Spring stiffness must be positive");
+        if (dampingRatio < 0)
+            throw new IllegalArgumentException("Damping ratio can't be negative");
+
+        mStiffness = stiffness;
+        mDamping = 2 * dampingRatio * (float) Math.sqrt(stiffness);
+        mRestDisplacement = restDisplacement;
+        mRestVelocity = restVelocity;
+    }
+
+    @Override
+    public void start(float position, float velocity, float target) {
+
+        mPosition = position;
+        mVelocity = velocity;
+        mTarget = target;
+    }
+
+    @Override
+    public boolean step(float dt) {
+
+        float h;
+        while (dt > 0) {
+            h = Math.min(dt, MAX_STEP);
+            // Semi-implicit Euler
+            mVelocity += (-mStiffness * (mPosition - mTarget) - mDamping * mVelocity) * h;
+            mPosition += mVelocity * h;
+            dt -= h;
+        }
+
+        if (Math.abs(mPosition - mTarget) < mRestDisplacement && Math.abs(mVelocity) < mRestVelocity) {
+            mPosition = mTarget;
+            mVelocity = 0;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public float getPosition() {
+        return mPosition;
+    }
+
+    @Override
+    public float getVelocity() {
+        return mVelocity;
+    }
+
+}
@@ -0,0 +1,452 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.zip.CRC32;
+
+
+/**
+ * Append only log of dismissed cards, see {@link RossDeckView#setSwipeJournal(SwipeJournal)}.
+ * Records are written to a memory mapped file, which is only forced to disk from a background
+ * thread, once per batch of records written in the meantime. Ids of every card recorded are
+ * kept in memory, for sources to skip cards already swiped in constant time.
+ * <p>
+ * Each record carries a checksum. Once reopened, the log is read up to the first record torn by
+ * a crash, and appended from there.
+ */
+public class SwipeJournal {
+
+    private static final String TAG = "SwipeJournal";
+
+    private static final int MAGIC = 0x53574a31;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    /** Item id, timestamp, direction and checksum */
+    private static final int RECORD_SIZE = 24;
+
+    private static final int CHECKED_SIZE = RECORD_SIZE - 4;
+
+    /** Mapped size, doubled whenever full */
+    private static final int INITIAL_CAPACITY = HEADER_SIZE + 1024 * RECORD_SIZE;
+
+    private static final String COMPACT_SUFFIX = ".compact";
+
+    private static final FlingChief.Direction[] DIRECTIONS = FlingChief.Direction.values();
+
+    private final File mFile;
+
+    private final Executor mFlushExecutor;
+
+    private final Object mLock = new Object();
+
+    /** Held while forcing records, taken before {@link #mLock}, so the file isn't swapped meanwhile */
+    private final Object mFlushLock = new Object();
+
+    private final SeenIds mSeen = new SeenIds();
+
+    private final CRC32 mCrc = new CRC32();
+
+    private final byte[] mRecord = new byte[RECORD_SIZE];
+
+    private final ByteBuffer mRecordBuffer = ByteBuffer.wrap(mRecord);
+
+    private RandomAccessFile mRandomAccessFile;
+
+    private FileChannel mChannel;
+
+    private MappedByteBuffer mBuffer;
+
+    /** Offset the next record is written at */
+    private int mPosition;
+
+    private boolean mFlushScheduled;
+
+    private boolean mClosed;
+
+    private final Runnable mFlushRunnable = new Runnable() {
+        @Override
+        public void run() {
+
+            synchronized (mFlushLock) {
+                final MappedByteBuffer buffer;
+                synchronized (mLock) {
+                    mFlushScheduled = false;
+                    if (mClosed)
+                        return;
+                    buffer = mBuffer;
+                }
+                // Everything written until now goes in the same batch, records still get appended
+                // meanwhile, while compacting and closing wait for the batch to be on disk
+                buffer.force();
+            }
+        }
+    };
+
+
+    /**
+     * Open a journal, flushing from a journal thread of its own.
+     *
+     * @param file Journal file, created if missing
+     * @throws IOException If file can't be opened, or isn't a journal
+     */
+    public SwipeJournal(@NonNull File file) throws IOException {
+        this(file, newFlushExecutor());
+    }
+
+
+    /**
+     * Open a journal.
+     *
+     * @param file Journal file, created if missing
+     * @param flushExecutor Executor forcing records to disk, shouldn't be the UI thread
+     * @throws IOException If file can't be opened, or isn't a journal
+     */
+    public SwipeJournal(@NonNull File file, @NonNull Executor flushExecutor) throws IOException {
+
+        mFile = file;
+        mFlushExecutor = flushExecutor;
+
+        // Left by a compaction which didn't get to replace the journal
+        final File compacted = new File(file.getPath() + COMPACT_SUFFIX);
+        if (compacted.exists() && !compacted.delete())
+            throw new IOException("Can't delete " + compacted);
+
+        open();
+    }
+
+
+    /**
+     * Append a dismissed card. Cheap enough for the UI thread, as the record is only forced to
+     * disk later on, along with the others written meanwhile. Cards dismissed once the journal is
+     * closed, still settling when it was, are dropped.
+     *
+     * @param itemId Adapter id of the dismissed item
+     * @param direction Direction card was dismissed to
+     * @param timestamp Time of the dismissal, in milliseconds since epoch
+     */
+    public void record(long itemId, @NonNull FlingChief.Direction direction, long timestamp) {
+
+        final boolean schedule;
+        synchronized (mLock) {
+            if (mClosed)
+                return;
+
+            mSeen.add(itemId);
+            try {
+                if (mPosition + RECORD_SIZE > mBuffer.capacity())
+                    map(mBuffer.capacity() * 2);
+            } catch (IOException e) {
+                onWriteFailed(e);
+                return;
+            }
+
+            encode(itemId, direction, timestamp);
+            mBuffer.position(mPosition);
+            mBuffer.put(mRecord);
+            mPosition += RECORD_SIZE;
+
+            schedule = !mFlushScheduled;
+            mFlushScheduled = true;
+        }
+        // Outside the lock, the flush taking locks in its own order
+        if (schedule)
+            mFlushExecutor.execute(mFlushRunnable);
+    }
+
+
+    /**
+     * Check whether a card was already recorded. Constant time, safe from any thread.
+     *
+     * @param itemId Adapter item id
+     * @return True if item was dismissed before
+     */
+    public boolean isSeen(long itemId) {
+
+        synchronized (mLock) {
+            return mSeen.contains(itemId);
+        }
+    }
+
+
+    /**
+     * Visit every record, oldest first.
+     *
+     * @param visitor Visitor called for each record
+     */
+    public void forEach(@NonNull Visitor visitor) {
+
+        synchronized (mLock) {
+            if (mClosed)
+                return;
+            final ByteBuffer buffer = mBuffer.duplicate();
+            for (int offset = HEADER_SIZE; offset < mPosition; offset += RECORD_SIZE)
+                visitor.onRecord(buffer.getLong(offset), DIRECTIONS[buffer.getInt(offset + 16)],
+                        buffer.getLong(offset + 8));
+        }
+    }
+
+
+    /**
+     * Force every record to disk right away. Blocks, so shouldn't be called from the UI thread.
+     */
+    public void flush() {
+
+        synchronized (mFlushLock) {
+            final MappedByteBuffer buffer;
+            synchronized (mLock) {
+                if (mClosed)
+                    return;
+                buffer = mBuffer;
+            }
+            buffer.force();
+        }
+    }
+
+
+    /**
+     * Rewrite the journal keeping only the latest record of each item. The compacted log is
+     * written next to the journal and replaces it once on disk, so a crash leaves either one
+     * whole. Records keep being appended meanwhile, only held up while the journals are swapped.
+     * Blocks, so shouldn't be called from the UI thread.
+     *
+     * @throws IOException If compacted journal couldn't be written, journal is left as it was
+     */
+    public void compact() throws IOException {
+
+        synchronized (mFlushLock) {
+            // Records written so far never change, they're read without holding up recording
+            final ByteBuffer snapshot;
+            final int snapshotEnd;
+            synchronized (mLock) {
+                if (mClosed)
+                    throw new IllegalStateException("Journal is closed");
+                snapshot = mBuffer.duplicate();
+                snapshotEnd = mPosition;
+            }
+
+            // Latest record of each item, in the order items were last dismissed
+            final LinkedHashMap<Long, Integer> latest = new LinkedHashMap<>();
+            for (int offset = HEADER_SIZE; offset < snapshotEnd; offset += RECORD_SIZE) {
+                final long itemId = snapshot.getLong(offset);
+                latest.remove(itemId);
+                latest.put(itemId, offset);
+            }
+
+            final File compacted = new File(mFile.getPath() + COMPACT_SUFFIX);
+            final RandomAccessFile file = new RandomAccessFile(compacted, "rw");
+            RandomAccessFile replaced = null;
+            try {
+                final FileChannel channel = file.getChannel();
+                int position = HEADER_SIZE + latest.size() * RECORD_SIZE;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                        Math.max(INITIAL_CAPACITY, position));
+                writeHeader(buffer);
+                final byte[] record = new byte[RECORD_SIZE];
+                for (int offset : latest.values()) {
+                    snapshot.position(offset);
+                    snapshot.get(record);
+                    buffer.put(record);
+                }
+                buffer.force();
+
+                synchronized (mLock) {
+                    // Records appended while compacting are carried over, and forced by the
+                    // flush they scheduled, which waits for the swap
+                    while (position + mPosition - snapshotEnd > buffer.capacity())
+                        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, buffer.capacity() * 2);
+                    for (int offset = snapshotEnd; offset < mPosition; offset += RECORD_SIZE) {
+                        mBuffer.position(offset);
+                        mBuffer.get(record);
+                        buffer.position(position);
+                        buffer.put(record);
+                        position += RECORD_SIZE;
+                    }
+
+                    if (!compacted.renameTo(mFile))
+                        throw new IOException("Can't replace " + mFile);
+                    replaced = mRandomAccessFile;
+                    mRandomAccessFile = file;
+                    mChannel = channel;
+                    mBuffer = buffer;
+                    mPosition = position;
+                }
+            } finally {
+                if (replaced == null) {
+                    file.close();
+                    if (!compacted.delete())
+                        Log.w(TAG, "Can't delete " + compacted);
+                }
+            }
+            replaced.close();
+        }
+    }
+
+
+    /**
+     * Force pending records to disk and release the journal. Records can't be appended once it
+     * started, and are dropped instead. Blocks, so shouldn't be called from the UI thread.
+     *
+     * @throws IOException If file couldn't be closed
+     */
+    public void close() throws IOException {
+
+        synchronized (mFlushLock) {
+            final RandomAccessFile file;
+            synchronized (mLock) {
+                if (mClosed)
+                    return;
+                mClosed = true;
+                file = mRandomAccessFile;
+            }
+            mBuffer.force();
+            file.close();
+        }
+    }
+
+
+    /**
+     * Called on the thread recording when the journal couldn't grow, the record being dropped,
+     * though still seen. Logs the error by default.
+     *
+     * @param e Error thrown while growing the journal
+     */
+    protected void onWriteFailed(@NonNull IOException e) {
+        Log.e(TAG, "Can't write swipe journal", e);
+    }
+
+
+    /**
+     * Map the journal and recover records up to the first torn one.
+     */
+    private void open() throws IOException {
+
+        mRandomAccessFile = new RandomAccessFile(mFile, "rw");
+        mChannel = mRandomAccessFile.getChannel();
+        final long length = mChannel.size();
+        if (length > Integer.MAX_VALUE)
+            throw new IOException(mFile + " is too large to be a journal");
+
+        map(Math.max(INITIAL_CAPACITY, (int) length));
+        if (length < HEADER_SIZE) {
+            writeHeader(mBuffer);
+            mBuffer.force();
+        } else if (mBuffer.getInt(0) != MAGIC || mBuffer.getInt(4) != VERSION) {
+            closeFile();
+            throw new IOException(mFile + " isn't a swipe journal");
+        }
+
+        mSeen.clear();
+        mPosition = HEADER_SIZE;
+        final int end = mBuffer.capacity() - RECORD_SIZE;
+        while (mPosition <= end && isValid(mPosition)) {
+            mSeen.add(mBuffer.getLong(mPosition));
+            mPosition += RECORD_SIZE;
+        }
+
+        // Anything after a torn record is garbage, cleared for the records it holds not to be
+        // taken back once the torn one is overwritten
+        if (mPosition <= end && !isBlank()) {
+            for (int offset = mPosition; offset < mBuffer.capacity(); offset++)
+                mBuffer.put(offset, (byte) 0);
+            mBuffer.force();
+        }
+    }
+
+    private void map(int capacity) throws IOException {
+        mBuffer = mChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void closeFile() throws IOException {
+
+        mChannel = null;
+        mBuffer = null;
+        mRandomAccessFile.close();
+    }
+
+    private boolean isValid(int offset) {
+
+        mBuffer.position(offset);
+        mBuffer.get(mRecord);
+        final int direction = mRecordBuffer.getInt(16);
+        if (direction < 0 || direction >= DIRECTIONS.length)
+            return false;
+
+        mCrc.reset();
+        mCrc.update(mRecord, 0, CHECKED_SIZE);
+        return (int) mCrc.getValue() == mRecordBuffer.getInt(CHECKED_SIZE);
+    }
+
+
+    /**
+     * Whether the record last read is free space, rather than a torn record.
+     */
+    private boolean isBlank() {
+
+        for (byte b : mRecord)
+            if (b != 0)
+                return false;
+        return true;
+    }
+
+
+    /**
+     * Encode a record, along with its checksum, into the reused record bytes.
+     */
+    private void encode(long itemId, FlingChief.Direction direction, long timestamp) {
+
+        mRecordBuffer.putLong(0, itemId);
+        mRecordBuffer.putLong(8, timestamp);
+        mRecordBuffer.putInt(16, direction.ordinal());
+        mCrc.reset();
+        mCrc.update(mRecord, 0, CHECKED_SIZE);
+        mRecordBuffer.putInt(CHECKED_SIZE, (int) mCrc.getValue());
+    }
+
+    private static void writeHeader(ByteBuffer buffer) {
+
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, 0);
+        buffer.position(HEADER_SIZE);
+    }
+
+    private static ExecutorService newFlushExecutor() {
+
+        return Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                final Thread thread = new Thread(runnable, "SwipeJournal");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+
+    /** Visitor of journal records, see {@link #forEach(Visitor)} */
+    public interface Visitor {
+
+        /**
+         * @param itemId Adapter id of the dismissed item
+         * @param direction Direction card was dismissed to
+         * @param timestamp Time of the dismissal, in milliseconds since epoch
+         */
+        void onRecord(long itemId, @NonNull FlingChief.Direction direction, long timestamp);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * {@link DeckDataSource} skipping items a {@link SwipeJournal} already recorded as dismissed.
+ * Pages are filled from the wrapped source until they are full, or the source is exhausted.
+ *
+ * @param <T> Item type
+ */
+public class UnseenDeckDataSource<T> implements DeckDataSource<T> {
+
+    private final DeckDataSource<T> mSource;
+
+    private final SwipeJournal mJournal;
+
+
+    /**
+     * @param source Source to load items from
+     * @param journal Journal of items already dismissed
+     */
+    public UnseenDeckDataSource(@NonNull DeckDataSource<T> source, @NonNull SwipeJournal journal) {
+
+        mSource = source;
+        mJournal = journal;
+    }
+
+    @NonNull
+    @Override
+    public List<T> loadAfter(@Nullable T last, int count) throws IOException {
+
+        final List<T> items = new ArrayList<>(count);
+        List<T> page;
+        do {
+            page = mSource.loadAfter(last, count);
+            for (T item : page) {
+                if (items.size() == count)
+                    break;
+                if (!mJournal.isSeen(mSource.getItemId(item)))
+                    items.add(item);
+            }
+            if (!page.isEmpty())
+                last = page.get(page.size() - 1);
+        } while (items.size() < count && page.size() == count);
+        return items;
+    }
+
+    @Override
+    public long getItemId(@NonNull T item) {
+        return mSource.getItemId(item);
+    }
+
+}
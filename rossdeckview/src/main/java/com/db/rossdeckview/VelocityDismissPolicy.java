@@ -0,0 +1,38 @@
+package com.db.rossdeckview;
+
+import android.content.res.Resources;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+
+/**
+ * Policy dismissing views released fast enough, following their velocity, whatever the distance
+ * travelled.
+ */
+public class VelocityDismissPolicy implements DismissPolicy {
+
+    private final float mMinVelocity;
+
+
+    /**
+     * @param minDpVelocity Velocity, in dp per second, a view has to be released at
+     */
+    public VelocityDismissPolicy(float minDpVelocity) {
+        mMinVelocity = minDpVelocity * Resources.getSystem().getDisplayMetrics().density;
+    }
+
+    @Override
+    public void onParentResized(int width, int height) { }
+
+    @Nullable
+    @Override
+    public FlingChief.Direction onRelease(@NonNull Release release) {
+
+        final float velocityX = release.getVelocityX();
+        final float velocityY = release.getVelocityY();
+        if (Math.abs(velocityX) < mMinVelocity && Math.abs(velocityY) < mMinVelocity)
+            return null;
+        return DeckMath.dominantSide(velocityX, velocityY);
+    }
+
+}
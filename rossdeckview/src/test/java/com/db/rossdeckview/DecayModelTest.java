@@ -0,0 +1,90 @@
+package com.db.rossdeckview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Decay integration, stepped frame by frame as {@link PhysicsMotionEngine} does.
+ */
+public class DecayModelTest {
+
+    private static final float FRAME = 1f / 60f;
+
+    /** Share of a frame a step may take, the rest being left to drawing */
+    private static final float FRAME_BUDGET = .01f;
+
+
+    @Test
+    public void restsWherePredicted() {
+
+        final DecayModel decay = new DecayModel(2f, 5f);
+        decay.start(100f, 4000f, 0f);
+
+        int frames = 0;
+        while (!decay.step(FRAME))
+            assertTrue(++frames < 1000);
+
+        // Rest velocity carries the motion at most that far past where it stops
+        assertEquals(decay.getRestPosition(100f, 4000f), decay.getPosition(), 5f / 2f);
+        assertEquals(0f, decay.getVelocity(), 0f);
+    }
+
+
+    @Test
+    public void slowsDownMonotonically() {
+
+        final DecayModel decay = new DecayModel(2f, 5f);
+        decay.start(0f, -3000f, 0f);
+
+        float velocity = decay.getVelocity();
+        float position = decay.getPosition();
+        while (!decay.step(FRAME)) {
+            assertTrue(Math.abs(decay.getVelocity()) < Math.abs(velocity));
+            assertTrue(decay.getPosition() < position);
+            velocity = decay.getVelocity();
+            position = decay.getPosition();
+        }
+    }
+
+
+    @Test
+    public void independentOfFrameRate() {
+
+        // Exact solution, a second of 120Hz frames ends where one of 20Hz frames does
+        final DecayModel fast = new DecayModel(2f, 5f);
+        final DecayModel slow = new DecayModel(2f, 5f);
+        fast.start(0f, 3000f, 0f);
+        slow.start(0f, 3000f, 0f);
+        for (int i = 0; i < 120; i++)
+            fast.step(1f / 120f);
+        for (int i = 0; i < 20; i++)
+            slow.step(1f / 20f);
+
+        assertEquals(slow.getPosition(), fast.getPosition(), 1f);
+        assertEquals(slow.getVelocity(), fast.getVelocity(), 1f);
+    }
+
+
+    @Test
+    public void frameStepFitsFrameBudget() {
+
+        final DecayModel decay = new DecayModel(2f, 5f);
+        final int frames = 100000;
+        long nanos = Long.MAX_VALUE;
+        // Best of a few rounds, the first ones running interpreted
+        for (int round = 0; round < 5; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < frames; i++)
+                if (decay.step(FRAME))
+                    decay.start(0f, 4000f, 0f);
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+
+        final float perFrame = nanos / (float) frames;
+        assertTrue("step took " + perFrame + "ns", perFrame < FRAME * 1e9f * FRAME_BUDGET);
+    }
+
+}
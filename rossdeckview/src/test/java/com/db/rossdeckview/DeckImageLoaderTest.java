@@ -0,0 +1,268 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Loader fed by an in-memory source, images being decoded one run at a time when the test says
+ * so, and delivered right away. An image decoded at a size costs as many bytes as its pixels.
+ */
+public class DeckImageLoaderTest {
+
+    private static final int SIZE = 100;
+
+    /** Room for two images at card size */
+    private static final int MAX_BYTES = 2 * SIZE * SIZE + SIZE;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    private final Queue<Runnable> mDecodeRuns = new ArrayDeque<>();
+
+    /** Keys decoded, in order */
+    private final List<String> mDecoded = new ArrayList<>();
+
+    /** Images and errors delivered, in order */
+    private final List<String> mDelivered = new ArrayList<>();
+
+    private DeckImageLoader<String> mLoader;
+
+    /** Card cancelled from within the decoder, if any */
+    private Object mCancelWhileDecoding;
+
+
+    @Before
+    public void setUp() {
+
+        final DeckImageLoader.Source source = new DeckImageLoader.Source() {
+            @NonNull
+            @Override
+            public InputStream open(@NonNull String key) throws IOException {
+
+                if (key.startsWith("missing"))
+                    throw new FileNotFoundException(key);
+                return new ByteArrayInputStream(key.getBytes("UTF-8"));
+            }
+        };
+        final DeckImageLoader.Decoder<String> decoder = new DeckImageLoader.Decoder<String>() {
+            @NonNull
+            @Override
+            public String decode(@NonNull DeckImageLoader.Source source, @NonNull String key,
+                                 int width, int height) throws IOException {
+
+                final InputStream in = source.open(key);
+                in.close();
+                mDecoded.add(key);
+                if (mCancelWhileDecoding != null)
+                    mLoader.cancel(mCancelWhileDecoding);
+                return key + "@" + width + "x" + height;
+            }
+
+            @Override
+            public int getByteCount(@NonNull String image) {
+
+                final String[] size = image.substring(image.indexOf('@') + 1).split("x");
+                return Integer.parseInt(size[0]) * Integer.parseInt(size[1]);
+            }
+        };
+        final Executor decodeExecutor = new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                mDecodeRuns.add(command);
+            }
+        };
+        mLoader = new DeckImageLoader<>(source, decoder, MAX_BYTES, decodeExecutor, DIRECT);
+    }
+
+
+    @Test
+    public void frontCardIsDecodedFirst() {
+
+        final Object[] cards = {new Object(), new Object(), new Object(), new Object(), new Object()};
+        for (int i = 0; i < cards.length; i++)
+            load(cards[i], "card" + i);
+
+        // Placed in any order, prefetched cards coming last, in the order they were bound
+        mLoader.onCardPlaced(cards[4], SIZE, SIZE, DeckImageLoader.PRIORITY_PREFETCH);
+        mLoader.onCardPlaced(cards[2], SIZE, SIZE, 2);
+        mLoader.onCardPlaced(cards[3], SIZE, SIZE, DeckImageLoader.PRIORITY_PREFETCH);
+        mLoader.onCardPlaced(cards[0], SIZE, SIZE, 0);
+        mLoader.onCardPlaced(cards[1], SIZE, SIZE, 1);
+        decodeAll();
+
+        assertEquals("[card0, card1, card2, card3, card4]", mDecoded.toString());
+        assertEquals("[card0@100x100, card1@100x100, card2@100x100, card3@100x100, card4@100x100]",
+                mDelivered.toString());
+    }
+
+
+    @Test
+    public void cardMovingForwardIsDecodedSooner() {
+
+        final Object back = new Object();
+        final Object front = new Object();
+        load(back, "back");
+        load(front, "front");
+        mLoader.onCardPlaced(back, SIZE, SIZE, 1);
+        mLoader.onCardPlaced(front, SIZE, SIZE, 2);
+
+        // Stack moving forward before decoding started
+        mLoader.onCardPlaced(front, SIZE, SIZE, 0);
+        decodeAll();
+
+        assertEquals("[front, back]", mDecoded.toString());
+    }
+
+
+    @Test
+    public void cacheEvictsLeastRecentlyUsedImages() {
+
+        loadPlaced(new Object(), "a");
+        loadPlaced(new Object(), "b");
+        decodeAll();
+
+        // Hit moves a ahead of b, then c takes the room of b
+        loadPlaced(new Object(), "a");
+        loadPlaced(new Object(), "c");
+        decodeAll();
+        assertEquals("[a, b, c]", mDecoded.toString());
+
+        loadPlaced(new Object(), "a");
+        loadPlaced(new Object(), "b");
+        decodeAll();
+        assertEquals("[a, b, c, b]", mDecoded.toString());
+        assertEquals(6, mDelivered.size());
+    }
+
+
+    @Test
+    public void imagesLargerThanCacheAreNotKept() {
+
+        final Object card = new Object();
+        load(card, "large");
+        mLoader.onCardPlaced(card, 2 * SIZE, 2 * SIZE, 0);
+        decodeAll();
+
+        // Still delivered, then decoded again, not evicting what the cache holds
+        loadPlaced(new Object(), "a");
+        decodeAll();
+        final Object again = new Object();
+        load(again, "large");
+        mLoader.onCardPlaced(again, 2 * SIZE, 2 * SIZE, 0);
+        loadPlaced(new Object(), "a");
+        decodeAll();
+
+        assertEquals("[large, a, large]", mDecoded.toString());
+        assertEquals("[large@200x200, a@100x100, a@100x100, large@200x200]", mDelivered.toString());
+    }
+
+
+    @Test
+    public void cancelledCardGetsNothing() {
+
+        final Object cancelled = new Object();
+        final Object kept = new Object();
+        loadPlaced(cancelled, "cancelled");
+        loadPlaced(kept, "kept");
+        mLoader.cancel(cancelled);
+        decodeAll();
+
+        assertEquals("[kept]", mDecoded.toString());
+        assertEquals("[kept@100x100]", mDelivered.toString());
+    }
+
+
+    @Test
+    public void cardBoundAgainGetsItsLastImage() {
+
+        final Object card = new Object();
+        loadPlaced(card, "first");
+        loadPlaced(card, "second");
+        decodeAll();
+
+        assertEquals("[second]", mDecoded.toString());
+        assertEquals("[second@100x100]", mDelivered.toString());
+    }
+
+
+    @Test
+    public void cancelledWhileDecodingEndsUpInCacheOnly() {
+
+        final Object card = new Object();
+        mCancelWhileDecoding = card;
+        loadPlaced(card, "a");
+        decodeAll();
+        assertEquals("[]", mDelivered.toString());
+
+        // Decoded image was kept
+        mCancelWhileDecoding = null;
+        loadPlaced(new Object(), "a");
+        assertTrue(mDecodeRuns.isEmpty());
+        assertEquals("[a]", mDecoded.toString());
+        assertEquals("[a@100x100]", mDelivered.toString());
+    }
+
+
+    @Test
+    public void failureIsDelivered() {
+
+        loadPlaced(new Object(), "missing");
+        decodeAll();
+
+        assertEquals("[failed missing]", mDelivered.toString());
+    }
+
+
+    private void load(Object card, String key) {
+
+        mLoader.load(card, key, new DeckImageLoader.Target<String>() {
+            @Override
+            public void onImageLoaded(@NonNull String image) {
+                mDelivered.add(image);
+            }
+
+            @Override
+            public void onImageFailed(@NonNull IOException e) {
+                mDelivered.add("failed " + e.getMessage());
+            }
+        });
+    }
+
+
+    /**
+     * Load the image of a card placed at the front, at card size.
+     */
+    private void loadPlaced(Object card, String key) {
+
+        load(card, key);
+        mLoader.onCardPlaced(card, SIZE, SIZE, 0);
+    }
+
+
+    private void decodeAll() {
+
+        while (!mDecodeRuns.isEmpty())
+            mDecodeRuns.poll().run();
+    }
+
+}
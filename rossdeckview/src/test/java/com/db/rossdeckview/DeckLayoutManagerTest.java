@@ -0,0 +1,370 @@
+package com.db.rossdeckview;
+
+import android.app.Activity;
+import android.os.SystemClock;
+import android.support.v7.widget.RecyclerView;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+
+/**
+ * Deck hosted in a RecyclerView, laid out by DeckLayoutManager and animated by DeckItemAnimator:
+ * cards kept across adapter changes, dismissed cards hidden until their removal is laid out, or
+ * back on the stack when the adapter keeps them, and moves starting from where cards were seen.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class DeckLayoutManagerTest {
+
+    private static final long FRAME_MILLIS = 16;
+
+    private static final int MAX_VISIBLE = 3;
+
+    private static final float PADDING = 20;
+
+    private static final float SCALE = .05f;
+
+    private RecyclerView mRecycler;
+
+    private DeckLayoutManager mLayoutManager;
+
+    private CardAdapter mAdapter;
+
+    /** Whether dismissed items are removed from the adapter, from onDismissed */
+    private boolean mRemoveDismissed = true;
+
+    private View mDismissed;
+
+    /** State of the stack seen from onDismissed, before any layout */
+    private int mDismissedVisibility;
+
+    private float mBehindTranslationY;
+
+    private float mBehindScaleX;
+
+    /** Translation and scale moved cards start from, by card */
+    private final Map<View, float[]> mMoveStarts = new HashMap<>();
+
+
+    @Before
+    public void setUp() {
+
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        // Animations repost their frame callbacks, which would otherwise run within the same frame
+        ShadowChoreographer.setPostFrameCallbackDelay((int) FRAME_MILLIS);
+
+        mLayoutManager = new DeckLayoutManager(activity, new DeckConfig(MAX_VISIBLE, PADDING, SCALE));
+        mLayoutManager.setActionsListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(FlingChief.Direction direction, View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onDismissed(View view) {
+
+                mDismissed = view;
+                mDismissedVisibility = view.getVisibility();
+                final View behind = mLayoutManager.findViewByPosition(1);
+                mBehindTranslationY = behind.getTranslationY();
+                mBehindScaleX = behind.getScaleX();
+                if (mRemoveDismissed)
+                    mAdapter.remove(mLayoutManager.getPosition(view));
+                return true;
+            }
+
+            @Override
+            public boolean onReturn(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onReturned(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onTapped() {
+                return false;
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return false;
+            }
+        });
+
+        mRecycler = new RecyclerView(activity);
+        mRecycler.setLayoutManager(mLayoutManager);
+        mRecycler.setItemAnimator(new DeckItemAnimator() {
+            @Override
+            public boolean animateMove(RecyclerView.ViewHolder holder, int fromX, int fromY, int toX, int toY) {
+
+                final boolean animated = super.animateMove(holder, fromX, fromY, toX, toY);
+                final View view = holder.itemView;
+                if (animated)
+                    mMoveStarts.put(view, new float[] {view.getTranslationY(), view.getScaleX()});
+                return animated;
+            }
+        });
+        mAdapter = new CardAdapter(10);
+        mRecycler.setAdapter(mAdapter);
+
+        final FrameLayout parent = new FrameLayout(activity);
+        parent.addView(mRecycler, new FrameLayout.LayoutParams(400, 600));
+        activity.setContentView(parent);
+        ShadowLooper.pauseMainLooper();
+        settle();
+    }
+
+
+    @Test
+    public void cardsAreStackedFrontOnTop() {
+
+        assertEquals(MAX_VISIBLE, mLayoutManager.getChildCount());
+        for (int slot = 0; slot < MAX_VISIBLE; slot++) {
+            final View card = mLayoutManager.findViewByPosition(slot);
+            assertSame(card, mLayoutManager.getChildAt(MAX_VISIBLE - 1 - slot));
+            assertEquals(slot, layoutParams(card).slot);
+            assertEquals(1 - slot * SCALE, card.getScaleX(), 1e-6);
+        }
+    }
+
+
+    @Test
+    public void insertAheadPushesCardsBack() {
+
+        final View front = mLayoutManager.findViewByPosition(0);
+        final View behind = mLayoutManager.findViewByPosition(1);
+        final View back = mLayoutManager.findViewByPosition(2);
+        final int binds = mAdapter.mBinds;
+        mAdapter.insertFirst();
+        settle();
+
+        // Same cards reordered behind the inserted one, the back one left out
+        final View inserted = mLayoutManager.findViewByPosition(0);
+        assertSame(front, mLayoutManager.findViewByPosition(1));
+        assertSame(behind, mLayoutManager.findViewByPosition(2));
+        assertSame(inserted, mLayoutManager.getChildAt(2));
+        assertSame(front, mLayoutManager.getChildAt(1));
+        assertSame(behind, mLayoutManager.getChildAt(0));
+        assertEquals(MAX_VISIBLE, mRecycler.getChildCount());
+        assertEquals(-1, mRecycler.indexOfChild(back));
+        // Only the inserted card is bound
+        assertEquals(binds + 1, mAdapter.mBinds);
+
+        // Without pre-layout, moves start from the previous transform kept by the layout
+        assertFalse(mLayoutManager.supportsPredictiveItemAnimations());
+        assertEquals(-PADDING, mMoveStarts.get(front)[0], 1e-6);
+        assertEquals(1, mMoveStarts.get(front)[1], 1e-6);
+        assertEquals(-PADDING, mMoveStarts.get(behind)[0], 1e-6);
+        assertEquals(1 - SCALE, mMoveStarts.get(behind)[1], 1e-6);
+
+        // And end at their new slot
+        assertEquals(0, front.getTranslationY(), 1e-6);
+        assertEquals(1 - SCALE, front.getScaleX(), 1e-6);
+        assertEquals(1 - 2 * SCALE, behind.getScaleX(), 1e-6);
+        assertEquals(1, inserted.getAlpha(), 0);
+        assertFalse(mRecycler.getItemAnimator().isRunning());
+    }
+
+
+    @Test
+    public void dismissedCardIsHiddenUntilRemoved() {
+
+        final View front = mLayoutManager.findViewByPosition(0);
+        final View behind = mLayoutManager.findViewByPosition(1);
+        fling(front);
+
+        // Until the removal is laid out, card is hidden and the stack kept forward
+        assertSame(front, mDismissed);
+        assertEquals(View.INVISIBLE, mDismissedVisibility);
+        assertEquals(-PADDING, mBehindTranslationY, 1e-6);
+        assertEquals(1, mBehindScaleX, 1e-6);
+
+        settle();
+
+        // Card behind moved to the front, from where it was, so without animating
+        assertSame(behind, mLayoutManager.findViewByPosition(0));
+        assertSame(behind, mLayoutManager.getChildAt(MAX_VISIBLE - 1));
+        assertFalse(mMoveStarts.containsKey(behind));
+        assertEquals(0, behind.getTranslationY(), 1e-6);
+        assertEquals(1, behind.getScaleX(), 1e-6);
+        assertEquals(MAX_VISIBLE, mLayoutManager.getChildCount());
+        assertEquals(9, mAdapter.getItemCount());
+
+        // Dismissed card left off the stack, reset for the pool
+        assertEquals(-1, mRecycler.indexOfChild(front));
+        assertEquals(View.VISIBLE, front.getVisibility());
+        assertNull(layoutParams(front).dismissDirection);
+    }
+
+
+    @Test
+    public void keptDismissedCardComesBack() {
+
+        mRemoveDismissed = false;
+        final View front = mLayoutManager.findViewByPosition(0);
+        final View behind = mLayoutManager.findViewByPosition(1);
+        fling(front);
+        assertSame(front, mDismissed);
+        settle();
+
+        assertSame(front, mLayoutManager.findViewByPosition(0));
+        assertEquals(View.VISIBLE, front.getVisibility());
+        assertNull(layoutParams(front).dismissDirection);
+        assertEquals(0, front.getTranslationX(), 1e-6);
+        // Stack back to rest
+        assertEquals(0, behind.getTranslationY(), 1e-6);
+        assertEquals(1 - SCALE, behind.getScaleX(), 1e-6);
+
+        // And the card can be dismissed again
+        mDismissed = null;
+        mRemoveDismissed = true;
+        fling(front);
+        assertSame(front, mDismissed);
+        settle();
+        assertSame(behind, mLayoutManager.findViewByPosition(0));
+    }
+
+
+    @Test
+    public void changedCardIsReboundInPlace() {
+
+        final View behind = mLayoutManager.findViewByPosition(1);
+        final int binds = mAdapter.mBinds;
+        mAdapter.notifyItemChanged(1);
+        settle();
+
+        // Scrapped, rebound, then reattached at its slot
+        assertSame(behind, mLayoutManager.findViewByPosition(1));
+        assertSame(behind, mLayoutManager.getChildAt(MAX_VISIBLE - 2));
+        assertEquals(binds + 1, mAdapter.mBinds);
+        assertFalse(mMoveStarts.containsKey(behind));
+        assertEquals(1 - SCALE, behind.getScaleX(), 1e-6);
+    }
+
+
+    /**
+     * Fling card right, running frames until it's dismissed.
+     */
+    private void fling(View card) {
+
+        final float x = card.getLeft() + card.getWidth() / 2;
+        final float y = card.getTop() + card.getHeight() / 2;
+        final long downTime = SystemClock.uptimeMillis();
+        dispatch(card, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0));
+        // Within a frame, long enough for a velocity to be measured
+        for (int i = 1; i <= 3; i++)
+            dispatch(card, MotionEvent.obtain(downTime, downTime + i * 5,
+                    i < 3 ? MotionEvent.ACTION_MOVE : MotionEvent.ACTION_UP, x + i * 50, y, 0));
+
+        for (int i = 0; i < 1000 && mDismissed == null; i++)
+            frame();
+        assertNotNull(mDismissed);
+    }
+
+
+    private static void dispatch(View card, MotionEvent event) {
+
+        card.dispatchTouchEvent(event);
+        event.recycle();
+    }
+
+
+    private static DeckLayoutManager.LayoutParams layoutParams(View card) {
+        return (DeckLayoutManager.LayoutParams) card.getLayoutParams();
+    }
+
+
+    private static void frame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS);
+    }
+
+
+    private static void settle() {
+
+        for (int i = 0; i < 1000 && ShadowLooper.getShadowMainLooper().getScheduler().size() > 0; i++)
+            frame();
+    }
+
+
+    /**
+     * Items of a single card type, with stable ids.
+     */
+    private static final class CardAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+        private final List<Long> mItems = new ArrayList<>();
+
+        private long mNextId;
+
+        int mBinds;
+
+        CardAdapter(int count) {
+
+            setHasStableIds(true);
+            while (mItems.size() < count)
+                mItems.add(mNextId++);
+        }
+
+        void insertFirst() {
+
+            mItems.add(0, mNextId++);
+            notifyItemInserted(0);
+        }
+
+        void remove(int position) {
+
+            mItems.remove(position);
+            notifyItemRemoved(position);
+        }
+
+        @Override
+        public int getItemCount() {
+            return mItems.size();
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mItems.get(position);
+        }
+
+        @Override
+        public RecyclerView.ViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+
+            final View card = new View(parent.getContext());
+            card.setLayoutParams(new RecyclerView.LayoutParams(300, 500));
+            return new RecyclerView.ViewHolder(card) { };
+        }
+
+        @Override
+        public void onBindViewHolder(RecyclerView.ViewHolder holder, int position) {
+
+            holder.itemView.setTag(mItems.get(position));
+            mBinds++;
+        }
+    }
+
+}
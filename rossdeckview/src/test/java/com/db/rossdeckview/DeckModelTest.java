@@ -0,0 +1,238 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+
+/**
+ * Seeded scripts of gestures interleaved with adapter changes, driving the model the way
+ * {@link FlingChief} and {@link RossDeckView} do. Every gesture must settle exactly once, the
+ * front item must stay in front across changes that don't remove it, and the top position must
+ * stay within the adapter.
+ */
+public class DeckModelTest {
+
+    private static final int STEPS = 5000;
+
+    private static final FlingChief.Direction[] DIRECTIONS = FlingChief.Direction.values();
+
+    /** Letters of idle, dragging, dismissing and returning states */
+    private static final String STATES = "IGDR";
+
+    private DeckModel mModel;
+
+    /** Transitions received, in order, as the letter of the state moved to */
+    private final StringBuilder mTransitions = new StringBuilder();
+
+    /** Ids of the adapter items, in order */
+    private final List<Integer> mItems = new ArrayList<>();
+
+    private final float[] mProximities = new float[4];
+
+    private int mNextId;
+
+
+    @Before
+    public void setUp() {
+
+        mModel = new DeckModel();
+        mModel.setListener(new DeckModel.Listener() {
+            @Override
+            public void onStateChanged(@NonNull DeckModel.State previous, @NonNull DeckModel.State state) {
+                mTransitions.append(STATES.charAt(state.ordinal()));
+            }
+        });
+    }
+
+
+    @Test
+    public void everyGestureSettlesOnce() {
+
+        for (long seed = 0; seed < 8; seed++)
+            replay(seed);
+    }
+
+
+    @Test
+    public void settlingCardRefusesAnotherRelease() {
+
+        mModel.startDrag();
+        mModel.dismiss(FlingChief.Direction.LEFT);
+
+        try {
+            mModel.restore();
+            fail("restored while dismissing");
+        } catch (IllegalStateException e) {
+            // Expected
+        }
+        assertEquals(DeckModel.State.DISMISSING, mModel.settle());
+        assertEquals("GDI", mTransitions.toString());
+    }
+
+
+    @Test
+    public void itemsInsertedAtTopComeInFront() {
+
+        mModel.setItemCount(10);
+        mModel.setTopPosition(3);
+        mModel.onItemsInserted(3, 2);
+        mModel.onItemsInserted(1, 1);
+
+        assertEquals(4, mModel.getTopPosition());
+        assertEquals(13, mModel.getItemCount());
+    }
+
+
+    /**
+     * Replay a script of steps, each one a gesture event or an adapter change, checking the
+     * model after every step.
+     */
+    private void replay(long seed) {
+
+        final Random random = new Random(seed);
+        mTransitions.setLength(0);
+        reset(random.nextInt(20));
+
+        int gestures = 0;
+        int settles = 0;
+        for (int step = 0; step < STEPS; step++) {
+            final String message = "seed " + seed + ", step " + step;
+            final int action = random.nextInt(10);
+            if (action < 2) {
+                // Pointer down and moving, ignored by a card still settling
+                if (!mModel.isInGesture()) {
+                    mModel.startDrag();
+                    gestures++;
+                }
+                if (mModel.getState() == DeckModel.State.DRAGGING) {
+                    for (int i = 0; i < mProximities.length; i++)
+                        mProximities[i] = random.nextFloat();
+                    mModel.setProximities(mProximities);
+                }
+            } else if (action < 4) {
+                // Released, possibly without a drag, ignored by a card still settling
+                if (!mModel.isSettling()) {
+                    if (!mModel.isInGesture())
+                        gestures++;
+                    release(random);
+                }
+            } else if (action < 6) {
+                if (mModel.isSettling()) {
+                    settles++;
+                    if (mModel.settle() == DeckModel.State.DISMISSING && mModel.getTopPosition() < mItems.size())
+                        mModel.advanceTop();
+                }
+            } else {
+                mutate(random, message);
+            }
+            check(message);
+        }
+
+        if (mModel.getState() == DeckModel.State.DRAGGING)
+            release(random);
+        if (mModel.isSettling()) {
+            mModel.settle();
+            settles++;
+        }
+        assertEquals("seed " + seed, gestures, settles);
+        assertTrue("seed " + seed + ": " + mTransitions, mTransitions.toString().matches("(G?[DR]I)*"));
+    }
+
+
+    private void release(Random random) {
+
+        if (random.nextBoolean())
+            mModel.dismiss(DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+        else
+            mModel.restore();
+    }
+
+
+    /**
+     * Change the adapter item by item, or as a whole, telling the model as the deck would.
+     */
+    private void mutate(Random random, String message) {
+
+        final int top = mModel.getTopPosition();
+        final Integer front = top < mItems.size() ? mItems.get(top) : null;
+        final int change = random.nextInt(4);
+        if (change == 0) {
+            final int positionStart = random.nextInt(mItems.size() + 1);
+            final int itemCount = 1 + random.nextInt(3);
+            for (int i = 0; i < itemCount; i++)
+                mItems.add(positionStart + i, mNextId++);
+            mModel.onItemsInserted(positionStart, itemCount);
+
+            // Items inserted at the top come in front, as a rewind does
+            assertEquals(message, positionStart == top ? mItems.get(positionStart) : front, front());
+        } else if (change == 1 && !mItems.isEmpty()) {
+            final int positionStart = random.nextInt(mItems.size());
+            final int itemCount = 1 + random.nextInt(Math.min(3, mItems.size() - positionStart));
+            mItems.subList(positionStart, positionStart + itemCount).clear();
+            mModel.onItemsRemoved(positionStart, itemCount);
+
+            if (top < positionStart || top >= positionStart + itemCount)
+                assertEquals(message, front, front());
+        } else if (change == 2) {
+            // Dismissed items dropped behind the model's back, then the data set change notified
+            final int dropped = Math.min(top, random.nextInt(3));
+            mItems.subList(0, dropped).clear();
+            mModel.relocateTop(mItems.size());
+            mModel.setItemCount(mItems.size());
+
+            assertEquals(message, front, front());
+        } else {
+            reset(random.nextInt(20));
+        }
+    }
+
+
+    /**
+     * Swap the adapter for another one of the given size.
+     */
+    private void reset(int count) {
+
+        mItems.clear();
+        for (int i = 0; i < count; i++)
+            mItems.add(mNextId++);
+        mModel.clearPositions();
+        mModel.setItemCount(count);
+    }
+
+
+    private Integer front() {
+        return mModel.getTopPosition() < mItems.size() ? mItems.get(mModel.getTopPosition()) : null;
+    }
+
+
+    /**
+     * Model must agree with the adapter, and transitions so far read as whole gestures,
+     * optionally followed by one still running.
+     */
+    private void check(String message) {
+
+        assertEquals(message, mItems.size(), mModel.getItemCount());
+        assertTrue(message + ": top " + mModel.getTopPosition(),
+                mModel.getTopPosition() >= 0 && mModel.getTopPosition() <= mItems.size());
+        if (mModel.getState() == DeckModel.State.DISMISSING)
+            assertNotNull(message, mModel.getDirection());
+        else
+            assertNull(message, mModel.getDirection());
+        if (!mModel.isInGesture())
+            assertEquals(message, 0.f, mModel.getFactor(), 0.f);
+        assertTrue(message + ": " + mTransitions, mTransitions.toString().matches("(G?[DR]I)*(G|G?[DR])?"));
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.db.rossdeckview;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Bounds of the rewind history: oldest entries dropped past its capacity, and views of oldest
+ * entries released to the recycle bin past its byte budget.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class DismissHistoryTest {
+
+    private static final int CARD_SIZE = 10;
+
+    /** Bytes taken by the view of a card */
+    private static final int CARD_BYTES = CARD_SIZE * CARD_SIZE * 4;
+
+    private RecycleBin mRecycleBin;
+
+
+    @Before
+    public void setUp() {
+
+        mRecycleBin = new RecycleBin();
+        mRecycleBin.setMaxScrapPerType(100);
+    }
+
+
+    @Test
+    public void newestEntryComesOutFirst() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 3, 10 * CARD_BYTES);
+        final View[] views = push(history, 2);
+
+        assertEntry(history.pop(), 1, views[1]);
+        assertEntry(history.pop(), 0, views[0]);
+        assertNull(history.pop());
+        assertTrue(history.isEmpty());
+        assertEquals(0, mRecycleBin.getScrapCount(0));
+    }
+
+
+    @Test
+    public void oldestEntriesAreDroppedPastCapacity() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 3, 10 * CARD_BYTES);
+        final View[] views = push(history, 5);
+
+        assertEntry(history.pop(), 4, views[4]);
+        assertEntry(history.pop(), 3, views[3]);
+        assertEntry(history.pop(), 2, views[2]);
+        assertNull(history.pop());
+        // Views of dropped entries are reused
+        assertEquals(2, mRecycleBin.getScrapCount(0));
+    }
+
+
+    @Test
+    public void oldestViewsAreReleasedPastBudget() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 10, 2 * CARD_BYTES);
+        final View[] views = push(history, 4);
+        assertEquals(2, mRecycleBin.getScrapCount(0));
+
+        // Entries without views can still be rewound, their item bound again
+        assertEntry(history.pop(), 3, views[3]);
+        assertEntry(history.pop(), 2, views[2]);
+        assertEntry(history.pop(), 1, null);
+        assertEntry(history.pop(), 0, null);
+    }
+
+
+    @Test
+    public void viewLargerThanBudgetIsReleased() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 10, CARD_BYTES - 1);
+        push(history, 1);
+
+        assertEquals(1, mRecycleBin.getScrapCount(0));
+        assertEntry(history.pop(), 0, null);
+    }
+
+
+    @Test
+    public void popFreesBudget() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 10, 2 * CARD_BYTES);
+        final View[] views = push(history, 2);
+        history.pop();
+        final View view = card();
+        history.push(2, FlingChief.Direction.RIGHT, view);
+
+        assertEquals(0, mRecycleBin.getScrapCount(0));
+        assertEntry(history.pop(), 2, view);
+        assertEntry(history.pop(), 0, views[0]);
+    }
+
+
+    @Test
+    public void resizeKeepsNewestEntries() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 5, 5 * CARD_BYTES);
+        final View[] views = push(history, 5);
+        history.resize(3, CARD_BYTES);
+
+        // Two entries dropped, then views of the oldest ones left
+        assertEquals(4, mRecycleBin.getScrapCount(0));
+        assertEntry(history.pop(), 4, views[4]);
+        assertEntry(history.pop(), 3, null);
+        assertEntry(history.pop(), 2, null);
+        assertNull(history.pop());
+
+        // And wrap around the new capacity
+        final View[] more = push(history, 4);
+        assertEntry(history.pop(), 3, more[3]);
+        assertEntry(history.pop(), 2, null);
+    }
+
+
+    @Test
+    public void emptyHistoryKeepsNothing() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 0, CARD_BYTES);
+        push(history, 1);
+
+        assertTrue(history.isEmpty());
+        assertNull(history.pop());
+        assertEquals(1, mRecycleBin.getScrapCount(0));
+    }
+
+
+    @Test
+    public void clearReleasesEveryView() {
+
+        final DismissHistory history = new DismissHistory(mRecycleBin, 10, 10 * CARD_BYTES);
+        push(history, 3);
+        history.clear();
+
+        assertTrue(history.isEmpty());
+        assertEquals(3, mRecycleBin.getScrapCount(0));
+    }
+
+
+    /**
+     * Push cards of item ids from 0 on, leaving left.
+     */
+    private static View[] push(DismissHistory history, int count) {
+
+        final View[] views = new View[count];
+        for (int i = 0; i < count; i++) {
+            views[i] = card();
+            history.push(i, FlingChief.Direction.LEFT, views[i]);
+        }
+        return views;
+    }
+
+
+    private static View card() {
+
+        final View view = new View(RuntimeEnvironment.application);
+        view.setLayoutParams(new RossDeckView.LayoutParams(CARD_SIZE, CARD_SIZE));
+        view.layout(0, 0, CARD_SIZE, CARD_SIZE);
+        return view;
+    }
+
+
+    private static void assertEntry(DismissHistory.Entry entry, long itemId, View view) {
+
+        assertNotNull(entry);
+        assertEquals(itemId, entry.itemId);
+        assertSame(view, entry.view);
+    }
+
+}
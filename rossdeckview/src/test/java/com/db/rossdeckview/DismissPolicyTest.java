@@ -0,0 +1,205 @@
+package com.db.rossdeckview;
+
+import android.content.res.Resources;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+
+/**
+ * Releases of a card 300x500 in a parent 400x600, as seen by the policies shipped with the
+ * library. Robolectric provides the display density policies read their dp values with.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class DismissPolicyTest {
+
+    private static final int PARENT_WIDTH = 400;
+
+    private static final int PARENT_HEIGHT = 600;
+
+    private static final int VIEW_WIDTH = 300;
+
+    private static final int VIEW_HEIGHT = 500;
+
+    /** Proximities of a view left where it was */
+    private static final float[] AT_REST = {1, 1, 1, 1};
+
+    private DismissPolicy.Release mRelease;
+
+    private float mDensity;
+
+
+    @Before
+    public void setUp() {
+
+        mRelease = new DismissPolicy.Release();
+        mRelease.setSizes(PARENT_WIDTH, PARENT_HEIGHT, VIEW_WIDTH, VIEW_HEIGHT);
+        mRelease.setBounds(50, 50, 350, 550, AT_REST);
+        mDensity = Resources.getSystem().getDisplayMetrics().density;
+    }
+
+
+    @Test
+    public void releaseMeasuresVisibleFraction() {
+
+        assertEquals(1, mRelease.getVisibleFraction(), 0);
+
+        mRelease.setBounds(250, 50, 550, 550, AT_REST);
+        assertEquals(.5f, mRelease.getVisibleFraction(), 1e-6);
+
+        mRelease.setBounds(PARENT_WIDTH, 50, PARENT_WIDTH + VIEW_WIDTH, 550, AT_REST);
+        assertEquals(0, mRelease.getVisibleFraction(), 0);
+
+        // Against the parent, when the view is larger
+        mRelease.setSizes(PARENT_WIDTH, PARENT_HEIGHT, 2 * PARENT_WIDTH, 2 * PARENT_HEIGHT);
+        mRelease.setBounds(-200, -300, 600, 900, AT_REST);
+        assertEquals(1, mRelease.getVisibleFraction(), 0);
+
+        mRelease.setSizes(0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+        assertEquals(0, mRelease.getVisibleFraction(), 0);
+    }
+
+
+    @Test
+    public void releaseCopiesProximities() {
+
+        final float[] proximities = {.1f, .2f, .3f, .4f};
+        mRelease.setBounds(0, 0, VIEW_WIDTH, VIEW_HEIGHT + 1, proximities);
+        proximities[0] = 1;
+
+        assertEquals(.1f, mRelease.getProximities()[0], 0);
+        assertEquals(150, mRelease.getCenterX(), 0);
+        assertEquals(250.5f, mRelease.getCenterY(), 0);
+    }
+
+
+    @Test
+    public void defaultPolicyFollowsVelocityOfLongFlings() {
+
+        final DismissPolicy policy = new DefaultDismissPolicy(.9f, 30);
+        mRelease.setDelta(29 * mDensity, -29 * mDensity);
+        mRelease.setVelocity(-100, 500, true);
+        assertNull(policy.onRelease(mRelease));
+
+        // Velocity, not distance, gives the direction
+        mRelease.setDelta(30 * mDensity, 0);
+        assertEquals(FlingChief.Direction.BOTTOM, policy.onRelease(mRelease));
+    }
+
+
+    @Test
+    public void defaultPolicyDismissesDragsOutToClosestSide() {
+
+        final DismissPolicy policy = new DefaultDismissPolicy(.9f, 30);
+        mRelease.setVelocity(0, 0, false);
+        mRelease.setBounds(80, 50, 380, 550, new float[] {1, .8f, .1f, .9f});
+        assertNull(policy.onRelease(mRelease));
+
+        mRelease.setBounds(250, 50, 550, 550, new float[] {1, .8f, .1f, .9f});
+        assertEquals(FlingChief.Direction.RIGHT, policy.onRelease(mRelease));
+    }
+
+
+    @Test
+    public void distancePolicyComparesAxesRelativeToParent() {
+
+        final DismissPolicy policy = new DistanceDismissPolicy(.25f);
+        mRelease.setDelta(1000, 1000);
+        // Parent size unknown yet
+        assertNull(policy.onRelease(mRelease));
+
+        policy.onParentResized(PARENT_WIDTH, PARENT_HEIGHT);
+        mRelease.setDelta(99, -149);
+        assertNull(policy.onRelease(mRelease));
+
+        // Further on y, though further on x relative to the parent
+        mRelease.setDelta(120, -160);
+        assertEquals(FlingChief.Direction.RIGHT, policy.onRelease(mRelease));
+        mRelease.setDelta(-10, 150);
+        assertEquals(FlingChief.Direction.BOTTOM, policy.onRelease(mRelease));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void distancePolicyRejectsEmptyRatio() {
+        new DistanceDismissPolicy(0);
+    }
+
+
+    @Test
+    public void velocityPolicyIgnoresDistance() {
+
+        final DismissPolicy policy = new VelocityDismissPolicy(1000);
+        mRelease.setDelta(PARENT_WIDTH, 0);
+        mRelease.setVelocity(999 * mDensity, -999 * mDensity, true);
+        assertNull(policy.onRelease(mRelease));
+
+        mRelease.setDelta(0, 0);
+        mRelease.setVelocity(-1500 * mDensity, 200 * mDensity, false);
+        assertEquals(FlingChief.Direction.LEFT, policy.onRelease(mRelease));
+    }
+
+
+    @Test
+    public void polygonPolicyChecksCenterAgainstZones() {
+
+        final DismissPolicy policy = new PolygonDismissPolicy()
+                .addZone(FlingChief.Direction.RIGHT, 1, 0, 1, 1, .5f, .5f)
+                .addZone(FlingChief.Direction.LEFT, 0, 0, .25f, 0, .25f, 1, 0, 1);
+        policy.onParentResized(PARENT_WIDTH, PARENT_HEIGHT);
+
+        assertEquals(FlingChief.Direction.RIGHT, releaseAt(policy, 300, 300));
+        assertEquals(FlingChief.Direction.LEFT, releaseAt(policy, 50, 300));
+        // Within the bounds of the triangle, outside its edges
+        assertNull(releaseAt(policy, 300, 100));
+        assertNull(releaseAt(policy, 150, 300));
+
+        // Zones follow parent size
+        policy.onParentResized(2 * PARENT_WIDTH, PARENT_HEIGHT);
+        assertNull(releaseAt(policy, 300, 300));
+        assertEquals(FlingChief.Direction.LEFT, releaseAt(policy, 150, 300));
+    }
+
+
+    @Test
+    public void polygonPolicyChecksZonesInOrder() {
+
+        final DismissPolicy policy = new PolygonDismissPolicy()
+                .addZone(FlingChief.Direction.TOP, 0, 0, 1, 0, 1, .5f, 0, .5f)
+                .addZone(FlingChief.Direction.BOTTOM, 0, 0, 1, 0, 1, 1, 0, 1);
+        policy.onParentResized(PARENT_WIDTH, PARENT_HEIGHT);
+
+        assertEquals(FlingChief.Direction.TOP, releaseAt(policy, 200, 100));
+        assertEquals(FlingChief.Direction.BOTTOM, releaseAt(policy, 200, 500));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void polygonPolicyRejectsZonesWithoutThreeVertices() {
+        new PolygonDismissPolicy().addZone(FlingChief.Direction.LEFT, 0, 0, 1, 1);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void polygonPolicyRejectsUnpairedValues() {
+        new PolygonDismissPolicy().addZone(FlingChief.Direction.LEFT, 0, 0, 1, 0, 1, 1, 0);
+    }
+
+
+    /**
+     * Release a view centered on a point.
+     */
+    private FlingChief.Direction releaseAt(DismissPolicy policy, int x, int y) {
+
+        mRelease.setBounds(x - 10, y - 10, x + 10, y + 10, AT_REST);
+        return policy.onRelease(mRelease);
+    }
+
+}
@@ -0,0 +1,265 @@
+package com.db.rossdeckview;
+
+import android.app.Activity;
+import android.view.Choreographer;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.VelocityTracker;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Allocations of the FlingChief gesture path over a synthetic 10,000 event drag, dispatched to
+ * {@link FlingChief#onTouch(View, MotionEvent)} with moves coalesced to one per frame, then
+ * released. Robolectric's VelocityTracker and Choreographer allocate where the platform ones
+ * don't, so FlingChief is allowed what they take for the same events, measured on a bare
+ * GestureDetector and VelocityTracker, and on an empty frame callback. Anything more is
+ * allocated by FlingChief itself. Events are checked one by one, a few of them coinciding with
+ * one-off work of the runtime, such as classes instrumented again after a collection.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class FlingChiefAllocationTest {
+
+    private static final int MOVES = 10000;
+
+    private static final long FRAME_MILLIS = 16;
+
+    /** Events allowed over budget, for one-off work of the runtime */
+    private static final int MAX_OVER_BUDGET = MOVES / 1000;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final Choreographer.FrameCallback EMPTY_CALLBACK = new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) { }
+    };
+
+    private View mCard;
+
+    private FlingChief mFlingChief;
+
+    /** Platform classes FlingChief relies on, fed the same events as baseline */
+    private GestureDetector mDetector;
+
+    private VelocityTracker mTracker;
+
+    private final MotionEvent[] mEvents = new MotionEvent[MOVES + 2];
+
+    private int mReleased;
+
+
+    @Before
+    public void setUp() {
+
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final FrameLayout parent = new FrameLayout(activity);
+        mCard = new View(activity);
+        parent.addView(mCard, new FrameLayout.LayoutParams(300, 500));
+        activity.setContentView(parent);
+        ShadowLooper.pauseMainLooper();
+        frame();
+
+        mFlingChief = new FlingChief(activity);
+        mFlingChief.injectView(mCard);
+        mFlingChief.setActionListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(FlingChief.Direction direction, View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onDismissed(View view) {
+                mReleased++;
+                return true;
+            }
+
+            @Override
+            public boolean onReturn(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onReturned(View view) {
+                mReleased++;
+                return true;
+            }
+
+            @Override
+            public boolean onTapped() {
+                return false;
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return false;
+            }
+        });
+        mDetector = new GestureDetector(activity, new GestureDetector.SimpleOnGestureListener());
+        mTracker = VelocityTracker.obtain();
+
+        // Events obtained ahead, the pointer circling around the card center, one every 8 ms
+        mEvents[0] = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 150, 250, 0);
+        for (int i = 1; i <= MOVES; i++)
+            mEvents[i] = MotionEvent.obtain(0, i * 8, MotionEvent.ACTION_MOVE,
+                    150 + (float) (80 * Math.sin(i / 20.)), 250 + (float) (40 * Math.cos(i / 20.)), 0);
+        mEvents[MOVES + 1] = MotionEvent.obtain(0, MOVES * 8 + 8, MotionEvent.ACTION_UP, 150, 290, 0);
+
+        // Warm, lazily created state such as metrics or layers out of the way
+        drag();
+        release();
+        settle();
+    }
+
+
+    @Test
+    public void dragAllocatesNothingOfItsOwn() {
+
+        final long postBytes = postBytes();
+        final long frameBudget = emptyFrameBytes();
+        down();
+        int movesOver = 0;
+        int framesOver = 0;
+        long start;
+        for (int i = 1; i <= MOVES; i++) {
+            start = allocatedBytes();
+            mFlingChief.onTouch(mCard, mEvents[i]);
+            final long bytes = allocatedBytes() - start;
+
+            start = allocatedBytes();
+            mDetector.onTouchEvent(mEvents[i]);
+            mTracker.addMovement(mEvents[i]);
+            final long platformBytes = allocatedBytes() - start;
+
+            // Two moves per frame, the first one posting the frame callback applying them
+            if (bytes > platformBytes + (i % 2 == 1 ? postBytes : 0))
+                movesOver++;
+            if (i % 2 == 0) {
+                start = allocatedBytes();
+                frame();
+                if (allocatedBytes() - start > frameBudget)
+                    framesOver++;
+            }
+        }
+
+        assertTrue("moves allocating " + movesOver, movesOver <= MAX_OVER_BUDGET);
+        assertTrue("frames allocating " + framesOver, framesOver <= MAX_OVER_BUDGET);
+        // Card did follow the pointer
+        assertEquals(mEvents[MOVES].getRawX() - mEvents[0].getRawX(), mCard.getX(), 1);
+    }
+
+
+    @Test
+    public void releaseOnlyPostsFrameCallback() {
+
+        drag();
+        long start = allocatedBytes();
+        mFlingChief.onTouch(mCard, mEvents[MOVES + 1]);
+        final long bytes = allocatedBytes() - start;
+
+        start = allocatedBytes();
+        mDetector.onTouchEvent(mEvents[MOVES + 1]);
+        mTracker.addMovement(mEvents[MOVES + 1]);
+        mTracker.computeCurrentVelocity(1000);
+        mTracker.getXVelocity();
+        mTracker.getYVelocity();
+        final long platformBytes = allocatedBytes() - start;
+
+        // Motion engine moving the card from the next frame on
+        assertTrue("bytes allocated by release " + bytes + ", platform " + platformBytes,
+                bytes <= platformBytes + postBytes());
+        settle();
+        // Warm up gesture, then this one
+        assertEquals(2, mReleased);
+    }
+
+
+    private void down() {
+
+        mFlingChief.onTouch(mCard, mEvents[0]);
+        mDetector.onTouchEvent(mEvents[0]);
+        mTracker.clear();
+        mTracker.addMovement(mEvents[0]);
+    }
+
+
+    /**
+     * Pointer down, then every move, a frame running every two moves.
+     */
+    private void drag() {
+
+        down();
+        for (int i = 1; i <= MOVES; i++) {
+            mFlingChief.onTouch(mCard, mEvents[i]);
+            mDetector.onTouchEvent(mEvents[i]);
+            mTracker.addMovement(mEvents[i]);
+            if (i % 2 == 0)
+                frame();
+        }
+    }
+
+
+    private void release() {
+
+        mFlingChief.onTouch(mCard, mEvents[MOVES + 1]);
+        mDetector.onTouchEvent(mEvents[MOVES + 1]);
+    }
+
+
+    /**
+     * Bytes Robolectric allocates to post a frame callback.
+     */
+    private static long postBytes() {
+
+        final long start = allocatedBytes();
+        Choreographer.getInstance().postFrameCallback(EMPTY_CALLBACK);
+        final long bytes = allocatedBytes() - start;
+        frame();
+        return bytes;
+    }
+
+
+    /**
+     * Bytes Robolectric allocates to run a frame calling back an empty frame callback.
+     */
+    private static long emptyFrameBytes() {
+
+        Choreographer.getInstance().postFrameCallback(EMPTY_CALLBACK);
+        final long start = allocatedBytes();
+        frame();
+        return allocatedBytes() - start;
+    }
+
+
+    private static void frame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS);
+    }
+
+
+    private static void settle() {
+
+        frame();
+        ShadowLooper.idleMainLooper(1000);
+    }
+
+
+    private static long allocatedBytes() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+}
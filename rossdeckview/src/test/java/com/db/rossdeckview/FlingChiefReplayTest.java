@@ -0,0 +1,335 @@
+package com.db.rossdeckview;
+
+import android.app.Activity;
+import android.view.Gravity;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Replays seeded scripts of touch events on a card moved by FlingChief: drags slow and fast,
+ * flings, taps and cancels, the next gesture often starting while the card released by the
+ * previous one still settles. Every gesture must end in exactly one of onDismissed or
+ * onReturned, right after its onGestureEnd, while gestures taken away before any drag, or made
+ * on a settling card, end in none.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class FlingChiefReplayTest {
+
+    private static final int GESTURES = 500;
+
+    private static final long FRAME_MILLIS = 16;
+
+    private View mCard;
+
+    private FlingChief mFlingChief;
+
+    /** Callbacks received, in order, as single letters */
+    private final StringBuilder mCallbacks = new StringBuilder();
+
+    private long mTime;
+
+    private long mDownTime;
+
+
+    @Before
+    public void setUp() {
+
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final FrameLayout parent = new FrameLayout(activity);
+        mCard = new View(activity);
+        parent.addView(mCard, new FrameLayout.LayoutParams(300, 500, Gravity.CENTER));
+        activity.setContentView(parent);
+        ShadowLooper.pauseMainLooper();
+        frame();
+
+        mFlingChief = new FlingChief(activity);
+        mFlingChief.injectView(mCard);
+        mFlingChief.setGestureListener(new FlingChiefListener.Gesture() {
+            @Override
+            public void onGestureStart(View view) {
+                mCallbacks.append('S');
+            }
+
+            @Override
+            public void onGestureEnd(View view) {
+                mCallbacks.append('E');
+            }
+        });
+        mFlingChief.setActionListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(FlingChief.Direction direction, View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onDismissed(View view) {
+                mCallbacks.append('D');
+                return true;
+            }
+
+            @Override
+            public boolean onReturn(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onReturned(View view) {
+                mCallbacks.append('R');
+                return true;
+            }
+
+            @Override
+            public boolean onTapped() {
+                return false;
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return false;
+            }
+        });
+    }
+
+
+    @Test
+    public void everyGestureEndsOnce() {
+
+        for (long seed = 0; seed < 4; seed++)
+            replay(seed);
+    }
+
+
+    @Test
+    public void cancelBeforeDragLeavesCardAlone() {
+
+        final List<MotionEvent> events = new ArrayList<>();
+        events.add(event(MotionEvent.ACTION_DOWN, 0, 0));
+        events.add(event(MotionEvent.ACTION_CANCEL, 0, 0));
+        dispatch(events);
+        settle();
+
+        assertEquals("", mCallbacks.toString());
+        assertEquals(0, mCard.getTranslationX(), 0);
+    }
+
+
+    @Test
+    public void cancelWhileDraggingReturnsCard() {
+
+        final List<MotionEvent> events = new ArrayList<>();
+        events.add(event(MotionEvent.ACTION_DOWN, 0, 0));
+        events.add(event(MotionEvent.ACTION_MOVE, -60, 20));
+        events.add(event(MotionEvent.ACTION_CANCEL, -60, 20));
+        dispatch(events);
+        settle();
+
+        assertEquals("SER", mCallbacks.toString());
+    }
+
+
+    @Test
+    public void flingWhileSettlingIsIgnored() {
+
+        // Slow drag let go, card returning
+        final List<MotionEvent> events = new ArrayList<>();
+        events.add(event(MotionEvent.ACTION_DOWN, 0, 0));
+        mTime += 10;
+        events.add(event(MotionEvent.ACTION_MOVE, -30, 10));
+        mTime += 10;
+        events.add(event(MotionEvent.ACTION_MOVE, -60, 20));
+        mTime += 200;
+        events.add(event(MotionEvent.ACTION_MOVE, -60, 20));
+        events.add(event(MotionEvent.ACTION_UP, -60, 20));
+        dispatch(events);
+
+        // Fast fling right away, not a frame in between
+        dispatch(fling());
+        settle();
+
+        assertEquals("SER", mCallbacks.toString());
+        assertEquals(0, mCard.getTranslationX(), 0);
+
+        // Same fling on a card at rest does dismiss it
+        dispatch(fling());
+        settle();
+
+        assertEquals("SERSED", mCallbacks.toString());
+    }
+
+
+    private List<MotionEvent> fling() {
+
+        final List<MotionEvent> events = new ArrayList<>();
+        events.add(event(MotionEvent.ACTION_DOWN, 0, 0));
+        // Within a frame, long enough for a velocity to be measured
+        for (int i = 1; i <= 2; i++) {
+            mTime += 5;
+            events.add(event(MotionEvent.ACTION_MOVE, i * 50, 0));
+        }
+        mTime += 5;
+        events.add(event(MotionEvent.ACTION_UP, 150, 0));
+        return events;
+    }
+
+
+    /**
+     * Replay a script of gestures, checking callbacks after each frame.
+     */
+    private void replay(long seed) {
+
+        final Random random = new Random(seed);
+        int dismissed = 0;
+        int returned = 0;
+        for (int gesture = 0; gesture < GESTURES; gesture++) {
+            dispatch(script(random));
+
+            // Callbacks checked part way through settling too, next gesture mostly coming before
+            // the card is back or gone
+            final int frames = random.nextInt(4);
+            for (int i = 0; i < frames; i++)
+                frame();
+            check(seed, gesture);
+            if (random.nextInt(3) == 0)
+                settle();
+
+            check(seed, gesture);
+            dismissed += count('D');
+            returned += count('R');
+            mCallbacks.delete(0, lastEnd());
+        }
+        settle();
+        check(seed, GESTURES);
+        assertFalse("seed " + seed + " left a gesture running: " + mCallbacks, mCallbacks.length() > 0
+                && mCallbacks.charAt(mCallbacks.length() - 1) == 'S');
+
+        // Script covers both outcomes
+        assertTrue(dismissed > 0);
+        assertTrue(returned > 0);
+    }
+
+
+    /**
+     * Callbacks so far must read as whole gestures, start, end, then dismissed or returned,
+     * optionally followed by one gesture still running.
+     */
+    private void check(long seed, int gesture) {
+
+        final String callbacks = mCallbacks.toString();
+        assertTrue("seed " + seed + ", gesture " + gesture + ": " + callbacks,
+                callbacks.matches("(SE[DR])*S?"));
+    }
+
+
+    private int count(char callback) {
+
+        int count = 0;
+        final int end = lastEnd();
+        for (int i = 0; i < end; i++)
+            if (mCallbacks.charAt(i) == callback)
+                count++;
+        return count;
+    }
+
+
+    /**
+     * Length of the callbacks of gestures already over.
+     */
+    private int lastEnd() {
+        return Math.max(mCallbacks.lastIndexOf("D"), mCallbacks.lastIndexOf("R")) + 1;
+    }
+
+
+    /**
+     * Events of a random gesture: a tap, a drag ending still or moving, or a cancel.
+     */
+    private List<MotionEvent> script(Random random) {
+
+        final List<MotionEvent> events = new ArrayList<>();
+        events.add(event(MotionEvent.ACTION_DOWN, 0, 0));
+
+        final int moves = random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(30);
+        final float stepX = (random.nextFloat() - .5f) * 80;
+        final float stepY = (random.nextFloat() - .5f) * 80;
+        float x = 0;
+        float y = 0;
+        for (int i = 0; i < moves; i++) {
+            x += stepX + (random.nextFloat() - .5f) * 10;
+            y += stepY + (random.nextFloat() - .5f) * 10;
+            mTime += 4 + random.nextInt(20);
+            events.add(event(MotionEvent.ACTION_MOVE, x, y));
+        }
+
+        // Pointer held still, for the card not to be flung
+        if (random.nextBoolean()) {
+            mTime += 200;
+            events.add(event(MotionEvent.ACTION_MOVE, x, y));
+        }
+
+        mTime += 8;
+        events.add(event(random.nextInt(8) == 0 ? MotionEvent.ACTION_CANCEL : MotionEvent.ACTION_UP, x, y));
+        return events;
+    }
+
+
+    /**
+     * Dispatch events to the card, running a frame whenever their time moves past one.
+     */
+    private void dispatch(List<MotionEvent> events) {
+
+        long frameTime = events.get(0).getEventTime();
+        for (MotionEvent event : events) {
+            while (event.getEventTime() - frameTime >= FRAME_MILLIS) {
+                frame();
+                frameTime += FRAME_MILLIS;
+            }
+            mCard.dispatchTouchEvent(event);
+            event.recycle();
+        }
+        mTime += FRAME_MILLIS;
+    }
+
+
+    /**
+     * Event at the given distance from the card center, in parent coordinates as FlingChief reads
+     * raw positions.
+     */
+    private MotionEvent event(int action, float dx, float dy) {
+
+        if (action == MotionEvent.ACTION_DOWN)
+            mDownTime = mTime;
+        return MotionEvent.obtain(mDownTime, mTime, action,
+                mCard.getLeft() + mCard.getWidth() / 2 + dx, mCard.getTop() + mCard.getHeight() / 2 + dy, 0);
+    }
+
+
+    private static void frame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS);
+    }
+
+
+    private static void settle() {
+
+        for (int i = 0; i < 1000 && ShadowLooper.getShadowMainLooper().getScheduler().size() > 0; i++)
+            frame();
+    }
+
+}
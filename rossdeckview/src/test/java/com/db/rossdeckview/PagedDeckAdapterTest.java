@@ -0,0 +1,259 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Paging of an in-memory source, pages being loaded one at a time when the test says so. Loaded
+ * pages are delivered through the main looper, which Robolectric runs right away.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class PagedDeckAdapterTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    private static final int LOAD_THRESHOLD = 3;
+
+    private final Queue<Runnable> mLoads = new ArrayDeque<>();
+
+    private final Executor mLoadExecutor = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            mLoads.add(command);
+        }
+    };
+
+    /** Changes notified, in order */
+    private final StringBuilder mChanges = new StringBuilder();
+
+    /** Items after which the source was asked to load, null for the first page */
+    private final List<Long> mLoadedAfter = new ArrayList<>();
+
+    private int mSourceSize = 100;
+
+    private boolean mFailNext;
+
+    private final List<IOException> mFailures = new ArrayList<>();
+
+    private PagedDeckAdapter<Long> mAdapter;
+
+
+    @Before
+    public void setUp() {
+
+        final DeckDataSource<Long> source = new DeckDataSource<Long>() {
+            @NonNull
+            @Override
+            public List<Long> loadAfter(@Nullable Long last, int count) throws IOException {
+
+                mLoadedAfter.add(last);
+                if (mFailNext) {
+                    mFailNext = false;
+                    throw new IOException("failed");
+                }
+                final List<Long> items = new ArrayList<>();
+                for (long item = last == null ? 0 : last + 1; item < mSourceSize && items.size() < count; item++)
+                    items.add(item);
+                return items;
+            }
+
+            @Override
+            public long getItemId(@NonNull Long item) {
+                return item;
+            }
+        };
+        mAdapter = new PagedDeckAdapter<Long>(source, PAGE_SIZE, LOAD_THRESHOLD) {
+            @Override
+            public View getView(int position, View convertView, ViewGroup parent) {
+                return convertView;
+            }
+
+            @Override
+            protected void onLoadFailed(@NonNull IOException e) {
+                mFailures.add(e);
+            }
+        };
+    }
+
+
+    @Test
+    public void firstPageIsLoadedOnceObserved() {
+
+        // Executor set after creation still applies to the first page
+        mAdapter.setExecutor(mLoadExecutor);
+        assertTrue(mLoads.isEmpty());
+        assertFalse(mAdapter.isLoading());
+
+        observe();
+        assertEquals(1, mLoads.size());
+        assertTrue(mAdapter.isLoading());
+        assertEquals(0, mAdapter.getCount());
+
+        load();
+        assertEquals("+0,5 ", mChanges.toString());
+        assertEquals(PAGE_SIZE, mAdapter.getCount());
+        assertEquals(4L, (long) mAdapter.getItem(4));
+        assertEquals(4L, mAdapter.getItemId(4));
+        assertFalse(mAdapter.isLoading());
+        // Enough items resident
+        assertTrue(mLoads.isEmpty());
+    }
+
+
+    @Test
+    public void nextPageIsLoadedBeforeRunningShort() {
+
+        start();
+        mAdapter.consume();
+        mAdapter.consume();
+        assertTrue(mLoads.isEmpty());
+        mAdapter.consume();
+        assertEquals(1, mLoads.size());
+
+        load();
+        assertEquals("-0 -0 -0 +2,5 ", mChanges.toString());
+        assertEquals(PAGE_SIZE + 2, mAdapter.getCount());
+        // Page continues after the last item loaded
+        assertEquals("[null, 4]", mLoadedAfter.toString());
+        for (int position = 0; position < mAdapter.getCount(); position++)
+            assertEquals(3L + position, (long) mAdapter.getItem(position));
+    }
+
+
+    @Test
+    public void consumedPagesAreDropped() {
+
+        start();
+        for (int i = 0; i < PAGE_SIZE + 2; i++) {
+            mAdapter.consume();
+            load();
+        }
+
+        // Front item read from the second page, past the first one
+        assertEquals(PAGE_SIZE + 2L, (long) mAdapter.getItem(0));
+        assertEquals(PAGE_SIZE - 2, mAdapter.getCount());
+        assertEquals(PAGE_SIZE * 2 - 1L, (long) mAdapter.getItem(mAdapter.getCount() - 1));
+    }
+
+
+    @Test
+    public void exhaustedSourceIsNotLoadedAgain() {
+
+        mSourceSize = PAGE_SIZE + 2;
+        start();
+        for (int i = 0; i < 3; i++)
+            mAdapter.consume();
+        load();
+
+        assertTrue(mAdapter.isExhausted());
+        assertEquals(4, mAdapter.getCount());
+        while (mAdapter.getCount() > 0)
+            mAdapter.consume();
+        assertTrue(mLoads.isEmpty());
+        assertEquals(2, mLoadedAfter.size());
+    }
+
+
+    @Test
+    public void pageLoadedAfterRefreshIsDropped() {
+
+        start();
+        for (int i = 0; i < 3; i++)
+            mAdapter.consume();
+        final Runnable stale = mLoads.poll();
+        mAdapter.refresh();
+        mChanges.setLength(0);
+        stale.run();
+
+        assertEquals("", mChanges.toString());
+        assertEquals(0, mAdapter.getCount());
+        load();
+        assertEquals("+0,5 ", mChanges.toString());
+        assertEquals(0L, (long) mAdapter.getItem(0));
+    }
+
+
+    @Test
+    public void failedLoadIsTriedAgainOnConsume() {
+
+        start();
+        mFailNext = true;
+        for (int i = 0; i < 3; i++)
+            mAdapter.consume();
+        load();
+
+        assertEquals(1, mFailures.size());
+        assertFalse(mAdapter.isLoading());
+        assertEquals(2, mAdapter.getCount());
+
+        mAdapter.consume();
+        load();
+        assertEquals(1 + PAGE_SIZE, mAdapter.getCount());
+        assertEquals(4L, (long) mAdapter.getItem(0));
+    }
+
+
+    /**
+     * Observe the adapter, loading pages on the queue, and load the first one.
+     */
+    private void start() {
+
+        mAdapter.setExecutor(mLoadExecutor);
+        observe();
+        load();
+        mChanges.setLength(0);
+    }
+
+
+    private void observe() {
+
+        mAdapter.registerDataSetObserver(new DeckDataObserver() {
+            @Override
+            public void onChanged() {
+                mChanges.append("* ");
+            }
+
+            @Override
+            public void onItemRangeInserted(int positionStart, int itemCount) {
+                mChanges.append('+').append(positionStart).append(',').append(itemCount).append(' ');
+            }
+
+            @Override
+            public void onItemRangeRemoved(int positionStart, int itemCount) {
+                mChanges.append('-').append(positionStart).append(' ');
+            }
+        });
+    }
+
+
+    /**
+     * Run pending page loads, which deliver their page through the main looper.
+     */
+    private void load() {
+
+        while (!mLoads.isEmpty())
+            mLoads.poll().run();
+    }
+
+}
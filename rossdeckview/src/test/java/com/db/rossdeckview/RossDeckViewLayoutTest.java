@@ -0,0 +1,170 @@
+package com.db.rossdeckview;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Work done by deck layout passes: cards keep their measured size until their content or the
+ * specs they get change, and specs are computed once per view type and parent size.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class RossDeckViewLayoutTest {
+
+    private RossDeckView mDeck;
+
+    private CardAdapter mAdapter;
+
+    private DeckStats mStats;
+
+
+    @Before
+    public void setUp() {
+
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        final FrameLayout parent = new FrameLayout(activity);
+        mDeck = new RossDeckView(activity);
+        mAdapter = new CardAdapter(20);
+        mDeck.setAdapter(mAdapter);
+        parent.addView(mDeck, new FrameLayout.LayoutParams(400, 600));
+        activity.setContentView(parent);
+        ShadowLooper.pauseMainLooper();
+        frame();
+
+        mStats = mDeck.getStats();
+        mStats.reset();
+    }
+
+
+    @Test
+    public void unchangedCardsAreLeftAlone() {
+
+        mDeck.requestLayout();
+        frame();
+
+        assertEquals(1, mStats.getLayoutPasses());
+        assertEquals(0, mStats.getBinds());
+        assertEquals(0, mStats.getChildLayouts());
+        assertEquals(0, mStats.getMeasures());
+    }
+
+
+    @Test
+    public void movedCardsKeepTheirSize() {
+
+        final int cards = mDeck.getChildCount();
+        assertTrue(cards > 1);
+
+        mAdapter.removeFirst();
+        frame();
+
+        // Card revealed at the back is the only one bound, into the view of the card removed
+        assertEquals(1, mStats.getLayoutPasses());
+        assertEquals(1, mStats.getBinds());
+        assertEquals(0, mStats.getMeasures());
+        assertEquals(cards, mStats.getMeasureSkips());
+        assertEquals(cards, mStats.getMeasureSpecHits());
+    }
+
+
+    @Test
+    public void changedCardIsMeasuredAlone() {
+
+        mDeck.getChildAt(0).requestLayout();
+        frame();
+
+        assertEquals(1, mStats.getLayoutPasses());
+        assertEquals(1, mStats.getChildLayouts());
+        assertEquals(1, mStats.getMeasures());
+        assertEquals(0, mStats.getMeasureSkips());
+    }
+
+
+    @Test
+    public void resizedDeckMeasuresEveryCard() {
+
+        final int cards = mDeck.getChildCount();
+        mDeck.setLayoutParams(new FrameLayout.LayoutParams(300, 500));
+        frame();
+
+        assertEquals(1, mStats.getLayoutPasses());
+        assertEquals(cards, mStats.getMeasures());
+        assertEquals(0, mStats.getMeasureSkips());
+        // Computed for the first card, then shared by the others of its type
+        assertEquals(cards - 1, mStats.getMeasureSpecHits());
+        assertEquals(300, mDeck.getChildAt(0).getMeasuredWidth());
+    }
+
+
+    private static void frame() {
+        ShadowLooper.idleMainLooper(16);
+    }
+
+
+    /**
+     * Cards of a single type filling the deck.
+     */
+    private static final class CardAdapter extends BaseDeckAdapter {
+
+        private int mFirst;
+
+        private final int mCount;
+
+        CardAdapter(int count) {
+            mCount = count;
+        }
+
+        void removeFirst() {
+
+            mFirst++;
+            notifyItemRemoved(0);
+        }
+
+        @Override
+        public int getCount() {
+            return mCount - mFirst;
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return mFirst + position;
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mFirst + position;
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+
+            View card = convertView;
+            if (card == null) {
+                card = new View(parent.getContext());
+                card.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                        ViewGroup.LayoutParams.MATCH_PARENT));
+            }
+            return card;
+        }
+    }
+
+}
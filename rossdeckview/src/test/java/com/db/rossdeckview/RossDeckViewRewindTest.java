@@ -0,0 +1,291 @@
+package com.db.rossdeckview;
+
+import android.app.Activity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Dismissed cards brought back by {@link RossDeckView#rewind()}: newest first, from the side they
+ * left through, in the view they were dismissed with, as long as the history keeps them.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class RossDeckViewRewindTest {
+
+    private static final long FRAME_MILLIS = 16;
+
+    private RossDeckView mDeck;
+
+    private CardAdapter mAdapter;
+
+    /** Rewinds asked to the listener, as item id and direction */
+    private final List<String> mRewinds = new ArrayList<>();
+
+    /** Whether the rewind listener restores items */
+    private boolean mRestore = true;
+
+
+    @Before
+    public void setUp() {
+
+        final Activity activity = Robolectric.buildActivity(Activity.class).setup().get();
+        // Motions repost their frame callbacks, which would otherwise run within the same frame
+        ShadowChoreographer.setPostFrameCallbackDelay((int) FRAME_MILLIS);
+        final FrameLayout parent = new FrameLayout(activity);
+        mDeck = new RossDeckView(activity);
+        mAdapter = new CardAdapter(20);
+        mDeck.setAdapter(mAdapter);
+        mDeck.setActionsListener(new FlingChiefListener.Actions() {
+            @Override
+            public boolean onDismiss(FlingChief.Direction direction, View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onDismissed(View view) {
+                mAdapter.removeFirst();
+                return true;
+            }
+
+            @Override
+            public boolean onReturn(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onReturned(View view) {
+                return true;
+            }
+
+            @Override
+            public boolean onTapped() {
+                return false;
+            }
+
+            @Override
+            public boolean onDoubleTapped() {
+                return false;
+            }
+        });
+        mDeck.setRewindListener(new FlingChiefListener.Rewind() {
+            @Override
+            public boolean onRewind(long itemId, FlingChief.Direction direction) {
+
+                mRewinds.add(itemId + " " + direction);
+                if (mRestore)
+                    mAdapter.insertFirst(itemId);
+                return mRestore;
+            }
+        });
+        parent.addView(mDeck, new FrameLayout.LayoutParams(400, 600));
+        activity.setContentView(parent);
+        ShadowLooper.pauseMainLooper();
+        frame();
+    }
+
+
+    @Test
+    public void rewoundCardComesBackFromWhereItLeft() {
+
+        final View card = mDeck.getSelectedView();
+        final float x = card.getX();
+        swipe(FlingChief.Direction.LEFT);
+        assertEquals(1, mAdapter.getItemId(0));
+
+        mDeck.getStats().reset();
+        assertTrue(mDeck.rewind());
+        assertEquals("[0 LEFT]", mRewinds.toString());
+        frame();
+
+        // Same view, not bound again, moving in from the left
+        assertSame(card, mDeck.getSelectedView());
+        assertEquals(0, mDeck.getStats().getBinds());
+        assertTrue(card.getX() < x);
+
+        settle();
+        assertSame(card, mDeck.getSelectedView());
+        assertEquals(x, card.getX(), 0);
+        assertEquals(0, mDeck.getAdapter().getItemId(mDeck.getTopPosition()));
+    }
+
+
+    @Test
+    public void newestCardIsRewoundFirst() {
+
+        swipe(FlingChief.Direction.LEFT);
+        swipe(FlingChief.Direction.TOP);
+        swipe(FlingChief.Direction.RIGHT);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(mDeck.rewind());
+            settle();
+        }
+        assertFalse(mDeck.rewind());
+
+        assertEquals("[2 RIGHT, 1 TOP, 0 LEFT]", mRewinds.toString());
+        assertEquals(0, mAdapter.getItemId(0));
+    }
+
+
+    @Test
+    public void historyKeepsLastCardsOnly() {
+
+        mDeck.setRewindHistory(2, Integer.MAX_VALUE);
+        for (int i = 0; i < 4; i++)
+            swipe(FlingChief.Direction.LEFT);
+
+        while (mDeck.rewind())
+            settle();
+
+        assertEquals("[3 LEFT, 2 LEFT]", mRewinds.toString());
+        assertEquals(2, mAdapter.getItemId(0));
+    }
+
+
+    @Test
+    public void cardOverByteBudgetIsBoundAgain() {
+
+        mDeck.setRewindHistory(10, 0);
+        swipe(FlingChief.Direction.LEFT);
+        mDeck.getStats().reset();
+        assertTrue(mDeck.rewind());
+        settle();
+
+        assertEquals(1, mDeck.getStats().getBinds());
+        assertEquals(0, mDeck.getAdapter().getItemId(mDeck.getTopPosition()));
+    }
+
+
+    @Test
+    public void refusedRewindIsDropped() {
+
+        swipe(FlingChief.Direction.LEFT);
+        mRestore = false;
+        assertFalse(mDeck.rewind());
+        settle();
+
+        assertEquals(1, mAdapter.getItemId(0));
+        mRestore = true;
+        assertFalse(mDeck.rewind());
+        assertEquals("[0 LEFT]", mRewinds.toString());
+    }
+
+
+    @Test
+    public void nothingIsRewoundWithoutListener() {
+
+        swipe(FlingChief.Direction.LEFT);
+        mDeck.setRewindListener(null);
+        assertFalse(mDeck.rewind());
+
+        // Card kept for when a listener is set
+        mDeck.setRewindListener(new FlingChiefListener.Rewind() {
+            @Override
+            public boolean onRewind(long itemId, FlingChief.Direction direction) {
+
+                mAdapter.insertFirst(itemId);
+                return true;
+            }
+        });
+        assertTrue(mDeck.rewind());
+    }
+
+
+    private void swipe(FlingChief.Direction direction) {
+
+        assertTrue(mDeck.swipeAll(1, direction));
+        settle();
+    }
+
+
+    private static void frame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS);
+    }
+
+
+    private static void settle() {
+
+        for (int i = 0; i < 1000 && ShadowLooper.getShadowMainLooper().getScheduler().size() > 0; i++)
+            frame();
+        frame();
+    }
+
+
+    /**
+     * Cards of a single type filling the deck, removed from the front once dismissed.
+     */
+    private static final class CardAdapter extends BaseDeckAdapter {
+
+        private final List<Long> mIds = new ArrayList<>();
+
+        CardAdapter(int count) {
+
+            for (long id = 0; id < count; id++)
+                mIds.add(id);
+        }
+
+        void removeFirst() {
+
+            mIds.remove(0);
+            notifyItemRemoved(0);
+        }
+
+        void insertFirst(long id) {
+
+            mIds.add(0, id);
+            notifyItemInserted(0);
+        }
+
+        @Override
+        public int getCount() {
+            return mIds.size();
+        }
+
+        @Override
+        public Object getItem(int position) {
+            return mIds.get(position);
+        }
+
+        @Override
+        public long getItemId(int position) {
+            return mIds.get(position);
+        }
+
+        @Override
+        public boolean hasStableIds() {
+            return true;
+        }
+
+        @Override
+        public View getView(int position, View convertView, ViewGroup parent) {
+
+            View card = convertView;
+            if (card == null) {
+                card = new View(parent.getContext());
+                card.setLayoutParams(new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT,
+                        ViewGroup.LayoutParams.MATCH_PARENT));
+            }
+            return card;
+        }
+    }
+
+}
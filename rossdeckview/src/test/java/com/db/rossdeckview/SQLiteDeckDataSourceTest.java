@@ -0,0 +1,101 @@
+package com.db.rossdeckview;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.provider.BaseColumns;
+import android.support.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+
+/**
+ * Pages read from an in-memory table, with gaps between row ids and rows filtered out.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 25)
+public class SQLiteDeckDataSourceTest {
+
+    private static final String TABLE = "cards";
+
+    private SQLiteDatabase mDatabase;
+
+
+    @Before
+    public void setUp() {
+
+        mDatabase = SQLiteDatabase.create(null);
+        mDatabase.execSQL("CREATE TABLE " + TABLE + " (" + BaseColumns._ID
+                + " INTEGER PRIMARY KEY, hidden INTEGER NOT NULL)");
+        // Inserted out of order, every third row hidden
+        for (long id = 30; id > 0; id -= 2) {
+            final ContentValues values = new ContentValues();
+            values.put(BaseColumns._ID, id);
+            values.put("hidden", id % 3 == 0 ? 1 : 0);
+            mDatabase.insert(TABLE, null, values);
+        }
+    }
+
+
+    @After
+    public void tearDown() {
+        mDatabase.close();
+    }
+
+
+    @Test
+    public void pagesFollowRowIds() throws IOException {
+
+        final IdSource source = new IdSource(null, null);
+        assertEquals("[2, 4, 6, 8]", source.loadAfter(null, 4).toString());
+        assertEquals("[10, 12, 14, 16]", source.loadAfter(8L, 4).toString());
+        // Seeking past an id gone meanwhile
+        assertEquals("[18, 20]", source.loadAfter(17L, 2).toString());
+        assertEquals("[26, 28, 30]", source.loadAfter(24L, 4).toString());
+        assertEquals("[]", source.loadAfter(30L, 4).toString());
+    }
+
+
+    @Test
+    public void pagesKeepSelection() throws IOException {
+
+        final IdSource source = new IdSource("hidden = ?", new String[] {"0"});
+        final List<Long> first = source.loadAfter(null, 4);
+        assertEquals("[2, 4, 8, 10]", first.toString());
+        assertEquals("[14, 16, 20, 22]", source.loadAfter(first.get(first.size() - 1), 4).toString());
+        assertEquals("[26, 28]", source.loadAfter(22L, 4).toString());
+    }
+
+
+    /**
+     * Items being their row id.
+     */
+    private final class IdSource extends SQLiteDeckDataSource<Long> {
+
+        IdSource(String selection, String[] selectionArgs) {
+            super(mDatabase, TABLE, new String[] {BaseColumns._ID}, selection, selectionArgs);
+        }
+
+        @NonNull
+        @Override
+        protected Long fromCursor(@NonNull Cursor cursor) {
+            return cursor.getLong(0);
+        }
+
+        @Override
+        public long getItemId(@NonNull Long item) {
+            return item;
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.db.rossdeckview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Ids kept in the bitmap, and those past it falling back to the hash set.
+ */
+public class SeenIdsTest {
+
+    private static final long MAX_BITMAP_ID = 1 << 24;
+
+
+    @Test
+    public void denseIdsAreKept() {
+
+        final SeenIds ids = new SeenIds();
+        for (long id = 0; id < 10000; id += 3)
+            ids.add(id);
+
+        for (long id = 0; id < 10000; id++)
+            assertTrue(id + "", ids.contains(id) == (id % 3 == 0));
+    }
+
+
+    @Test
+    public void idsPastBitmapFallBackToHashSet() {
+
+        final SeenIds ids = new SeenIds();
+        ids.add(MAX_BITMAP_ID - 1);
+        ids.add(MAX_BITMAP_ID);
+
+        assertTrue(ids.contains(MAX_BITMAP_ID - 1));
+        assertTrue(ids.contains(MAX_BITMAP_ID));
+        assertFalse(ids.contains(MAX_BITMAP_ID + 1));
+        // Bit the id would have shifted to, were it kept in the bitmap
+        assertFalse(ids.contains(0));
+    }
+
+
+    @Test
+    public void negativeAndHugeIdsAreKept() {
+
+        final SeenIds ids = new SeenIds();
+        ids.add(-1);
+        ids.add(Long.MAX_VALUE);
+        ids.add(Long.MIN_VALUE);
+
+        assertTrue(ids.contains(-1));
+        assertTrue(ids.contains(Long.MAX_VALUE));
+        assertTrue(ids.contains(Long.MIN_VALUE));
+        assertFalse(ids.contains(63));
+        assertFalse(ids.contains(Long.MAX_VALUE - 1));
+    }
+
+
+    @Test
+    public void clearForgetsBothSets() {
+
+        final SeenIds ids = new SeenIds();
+        ids.add(5);
+        ids.add(MAX_BITMAP_ID * 2);
+        ids.clear();
+
+        assertFalse(ids.contains(5));
+        assertFalse(ids.contains(MAX_BITMAP_ID * 2));
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.db.rossdeckview;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Spring integration, stepped frame by frame as {@link PhysicsMotionEngine} does.
+ */
+public class SpringModelTest {
+
+    private static final float FRAME = 1f / 60f;
+
+    /** Frames a released card is given to come back, two seconds */
+    private static final int MAX_FRAMES = 120;
+
+    /** Share of a frame a step may take, the rest being left to drawing */
+    private static final float FRAME_BUDGET = .01f;
+
+
+    private static SpringModel spring(float dampingRatio) {
+        return new SpringModel(500f, dampingRatio, .5f, 5f);
+    }
+
+
+    /**
+     * Step until rest, returning the number of frames it took.
+     */
+    private static int settle(MotionModel model, float frameTime) {
+
+        for (int frame = 1; frame <= MAX_FRAMES / (frameTime / FRAME); frame++)
+            if (model.step(frameTime))
+                return frame;
+        return -1;
+    }
+
+
+    @Test
+    public void restsOnTarget() {
+
+        final SpringModel spring = spring(.8f);
+        spring.start(-400f, -3000f, 0f);
+
+        assertTrue(settle(spring, FRAME) > 0);
+        assertEquals(0f, spring.getPosition(), 0f);
+        assertEquals(0f, spring.getVelocity(), 0f);
+    }
+
+
+    @Test
+    public void criticallyDampedDoesNotOvershoot() {
+
+        final SpringModel spring = spring(1f);
+        spring.start(-400f, 0f, 0f);
+
+        boolean rest = false;
+        while (!rest) {
+            rest = spring.step(FRAME);
+            assertTrue("overshot to " + spring.getPosition(), spring.getPosition() <= .5f);
+        }
+    }
+
+
+    @Test
+    public void convergesWhateverTheFrameRate() {
+
+        // 120Hz, 60Hz, and janky frames all end up at rest on target
+        for (float frameTime : new float[] {1f / 120f, FRAME, 1f / 30f, 1f / 10f}) {
+            final SpringModel spring = spring(.8f);
+            spring.start(300f, 2000f, 0f);
+            assertTrue("no rest at " + frameTime + "s frames", settle(spring, frameTime) > 0);
+            assertEquals(0f, spring.getPosition(), 0f);
+        }
+    }
+
+
+    @Test
+    public void longFrameStaysStable() {
+
+        // Explicit integration of a whole stalled second would blow up
+        final SpringModel spring = spring(.8f);
+        spring.start(300f, 0f, 0f);
+        spring.step(1f);
+
+        assertTrue(Math.abs(spring.getPosition()) < 300f);
+        assertTrue(!Float.isNaN(spring.getVelocity()) && !Float.isInfinite(spring.getVelocity()));
+    }
+
+
+    @Test
+    public void frameStepFitsFrameBudget() {
+
+        final SpringModel spring = spring(.8f);
+        final int frames = 100000;
+        long nanos = Long.MAX_VALUE;
+        // Best of a few rounds, the first ones running interpreted
+        for (int round = 0; round < 5; round++) {
+            final long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                if (i % MAX_FRAMES == 0)
+                    spring.start(-400f, -3000f, 0f);
+                spring.step(FRAME);
+            }
+            nanos = Math.min(nanos, System.nanoTime() - start);
+        }
+
+        final float perFrame = nanos / (float) frames;
+        assertTrue("step took " + perFrame + "ns", perFrame < FRAME * 1e9f * FRAME_BUDGET);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.db.rossdeckview;
+
+import android.support.annotation.NonNull;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Journal recovery, compaction and closing, on a file of a temporary folder. Records are forced
+ * on the thread recording them.
+ */
+public class SwipeJournalTest {
+
+    /** Journal layout, as written by {@link SwipeJournal} */
+    private static final int HEADER_SIZE = 16;
+
+    private static final int RECORD_SIZE = 24;
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable command) {
+            command.run();
+        }
+    };
+
+    @Rule
+    public final TemporaryFolder mFolder = new TemporaryFolder();
+
+
+    @Test
+    public void recoveryStopsAtFirstTornRecord() throws IOException {
+
+        final File file = mFolder.newFile();
+        SwipeJournal journal = new SwipeJournal(file, DIRECT);
+        for (long id = 0; id < 5; id++)
+            journal.record(id, FlingChief.Direction.LEFT, 1000 + id);
+        journal.close();
+
+        // Third record torn by a crash, records following it lost with it
+        final RandomAccessFile raw = new RandomAccessFile(file, "rw");
+        raw.seek(HEADER_SIZE + 2 * RECORD_SIZE + 3);
+        raw.write(0xff);
+        raw.close();
+
+        journal = new SwipeJournal(file, DIRECT);
+        assertEquals("0 1", ids(journal));
+        assertTrue(journal.isSeen(1));
+        assertFalse(journal.isSeen(2));
+        assertFalse(journal.isSeen(4));
+
+        // Appended from the torn record on
+        journal.record(7, FlingChief.Direction.RIGHT, 2000);
+        journal.close();
+        journal = new SwipeJournal(file, DIRECT);
+        assertEquals("0 1 7", ids(journal));
+        journal.close();
+    }
+
+
+    @Test
+    public void compactionKeepsLatestRecordOfEachItem() throws IOException {
+
+        final File file = mFolder.newFile();
+        SwipeJournal journal = new SwipeJournal(file, DIRECT);
+        journal.record(1, FlingChief.Direction.LEFT, 10);
+        journal.record(2, FlingChief.Direction.LEFT, 20);
+        journal.record(1, FlingChief.Direction.RIGHT, 30);
+        journal.record(3, FlingChief.Direction.TOP, 40);
+        journal.record(2, FlingChief.Direction.BOTTOM, 50);
+        journal.compact();
+
+        // In the order items were last dismissed
+        assertEquals("1 RIGHT 30, 3 TOP 40, 2 BOTTOM 50", records(journal));
+        assertTrue(journal.isSeen(1));
+        assertTrue(journal.isSeen(2));
+        assertTrue(journal.isSeen(3));
+
+        // Compacted journal is the one appended, and reopened
+        journal.record(4, FlingChief.Direction.LEFT, 60);
+        journal.close();
+        journal = new SwipeJournal(file, DIRECT);
+        assertEquals("1 RIGHT 30, 3 TOP 40, 2 BOTTOM 50, 4 LEFT 60", records(journal));
+        assertFalse(new File(file.getPath() + ".compact").exists());
+        journal.close();
+    }
+
+
+    @Test
+    public void recordsWrittenWhileCompactingAreKept() throws Exception {
+
+        final File file = mFolder.newFile();
+        final SwipeJournal journal = new SwipeJournal(file, DIRECT);
+        final int count = 2000;
+        final Thread recorder = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (long id = 0; id < count; id++)
+                    journal.record(id, FlingChief.Direction.LEFT, id);
+            }
+        });
+        recorder.start();
+        while (recorder.isAlive())
+            journal.compact();
+        recorder.join();
+        journal.close();
+
+        final SwipeJournal reopened = new SwipeJournal(file, DIRECT);
+        final List<Long> ids = new ArrayList<>();
+        reopened.forEach(new SwipeJournal.Visitor() {
+            @Override
+            public void onRecord(long itemId, @NonNull FlingChief.Direction direction, long timestamp) {
+                ids.add(itemId);
+            }
+        });
+        reopened.close();
+
+        assertEquals(count, ids.size());
+        for (int i = 0; i < count; i++)
+            assertEquals(i, (long) ids.get(i));
+    }
+
+
+    @Test
+    public void recordAfterCloseIsDropped() throws IOException {
+
+        final SwipeJournal journal = new SwipeJournal(mFolder.newFile(), DIRECT);
+        journal.close();
+        journal.record(1, FlingChief.Direction.LEFT, 10);
+
+        assertFalse(journal.isSeen(1));
+    }
+
+
+    private static String ids(SwipeJournal journal) {
+
+        final StringBuilder ids = new StringBuilder();
+        journal.forEach(new SwipeJournal.Visitor() {
+            @Override
+            public void onRecord(long itemId, @NonNull FlingChief.Direction direction, long timestamp) {
+                ids.append(ids.length() > 0 ? " " : "").append(itemId);
+            }
+        });
+        return ids.toString();
+    }
+
+
+    private static String records(SwipeJournal journal) {
+
+        final StringBuilder records = new StringBuilder();
+        journal.forEach(new SwipeJournal.Visitor() {
+            @Override
+            public void onRecord(long itemId, @NonNull FlingChief.Direction direction, long timestamp) {
+                records.append(records.length() > 0 ? ", " : "").append(itemId).append(' ')
+                        .append(direction).append(' ').append(timestamp);
+            }
+        });
+        return records.toString();
+    }
+
+}